@@ -1,17 +1,34 @@
 package com.yas.commonlibrary.kafka.cdc;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.messaging.MessageHeaders;
 
 /**
  * Base class for CDC (Change Data Capture) Kafka consumers.
  * Provides common methods for processing messages and handling Dead Letter Topic (DLT) events.
  *
- * @param <K> Type of the message payload.
+ * <p>Batch listeners, with a container factory from
+ * {@link com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig#batchKafkaListenerContainerFactory()},
+ * can either {@link #compact(List) compact} a batch to the latest record of each key and process it in bulk,
+ * or {@link #processBatch(List, boolean, BiConsumer) process} the records of distinct keys in parallel.
+ *
+ * @param <K> Type of the message key.
+ * @param <V> Type of the message payload.
  */
 public abstract class BaseCdcConsumer<K, V> {
 
@@ -19,6 +36,7 @@ public abstract class BaseCdcConsumer<K, V> {
     public static final String RECEIVED_MESSAGE_HEADERS = "## Received message - headers: {}";
     public static final String PROCESSING_RECORD_KEY_VALUE = "## Processing record - Key: {} | Value: {}";
     public static final String RECORD_PROCESSED_SUCCESSFULLY_KEY = "## Record processed successfully - Key: {} \n";
+    public static final int DEFAULT_BATCH_PARALLELISM = 16;
 
     protected void processMessage(V record, MessageHeaders headers, Consumer<V> consumer) {
         LOGGER.debug(RECEIVED_MESSAGE_HEADERS, headers);
@@ -33,4 +51,122 @@ public abstract class BaseCdcConsumer<K, V> {
         consumer.accept(key, value);
         LOGGER.debug(RECORD_PROCESSED_SUCCESSFULLY_KEY, key);
     }
+
+    /**
+     * Compacts a batch to the latest readable record of each key. The keys keep the order of their first record.
+     *
+     * @param records the records of the batch
+     * @return the latest record by key
+     */
+    protected Map<K, ConsumerRecord<K, V>> compact(List<ConsumerRecord<K, V>> records) {
+        Map<K, ConsumerRecord<K, V>> latestRecords = new LinkedHashMap<>();
+        records.stream()
+            .filter(this::isReadable)
+            .forEach(consumerRecord -> latestRecords.put(consumerRecord.key(), consumerRecord));
+        return latestRecords;
+    }
+
+    /**
+     * Processes a batch, running the records of distinct keys in parallel on virtual threads, at most
+     * {@link #getBatchParallelism()} keys at a time. The records of a key are processed in order, and not after
+     * one of them failed.
+     *
+     * <p>When a record fails, a {@link BatchListenerFailedException} is thrown for the first failed record of
+     * the batch, so that the error handler commits the records before it and retries from it. The records of
+     * other keys after it may then be processed again, so their processing must be idempotent, e.g. keyed by
+     * {@link #getRecordId(ConsumerRecord)}.</p>
+     *
+     * @param records     the records of the batch
+     * @param isCompacted whether to only process the latest record of each key
+     * @param consumer    the processing of a record
+     */
+    protected void processBatch(List<ConsumerRecord<K, V>> records, boolean isCompacted, BiConsumer<K, V> consumer) {
+        processBatch(records, isCompacted,
+            consumerRecord -> consumer.accept(consumerRecord.key(), consumerRecord.value()));
+    }
+
+    /**
+     * Same as {@link #processBatch(List, boolean, BiConsumer)}, for a processing which needs the whole record,
+     * e.g. its {@link #getRecordId(ConsumerRecord) id}.
+     */
+    protected void processBatch(List<ConsumerRecord<K, V>> records, boolean isCompacted,
+                                Consumer<ConsumerRecord<K, V>> consumer) {
+        LOGGER.debug("## Received batch of {} records", records.size());
+        Map<K, List<ConsumerRecord<K, V>>> recordsByKey = new LinkedHashMap<>();
+        if (isCompacted) {
+            compact(records).forEach((key, consumerRecord) -> recordsByKey.put(key, List.of(consumerRecord)));
+        } else {
+            records.stream()
+                .filter(this::isReadable)
+                .forEach(consumerRecord -> recordsByKey
+                    .computeIfAbsent(consumerRecord.key(), key -> new ArrayList<>())
+                    .add(consumerRecord));
+        }
+
+        Map<ConsumerRecord<K, V>, RuntimeException> failures = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(getBatchParallelism());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            recordsByKey.values().forEach(keyRecords -> {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        processRecords(keyRecords, consumer, failures);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            });
+        }
+
+        records.stream().filter(failures::containsKey).findFirst().ifPresent(failedRecord -> {
+            throw new BatchListenerFailedException(
+                "Failed to process the record of key %s".formatted(failedRecord.key()),
+                failures.get(failedRecord), failedRecord);
+        });
+        LOGGER.debug("## Batch processed - {} keys", recordsByKey.size());
+    }
+
+    /**
+     * Returns the maximum number of keys processed in parallel by {@link #processBatch(List, boolean, BiConsumer)}.
+     */
+    protected int getBatchParallelism() {
+        return DEFAULT_BATCH_PARALLELISM;
+    }
+
+    /**
+     * Returns the id of a record, {@code <topic>-<partition>@<offset>}, unique across redeliveries of the record.
+     */
+    protected String getRecordId(ConsumerRecord<K, V> consumerRecord) {
+        return "%s-%d@%d".formatted(consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset());
+    }
+
+    /**
+     * Returns whether a record has a key and was deserialized, unreadable records are skipped by the batch methods.
+     */
+    protected boolean isReadable(ConsumerRecord<K, V> consumerRecord) {
+        boolean isDeserialized = consumerRecord.key() != null
+            && consumerRecord.headers().lastHeader(SerializationUtils.KEY_DESERIALIZER_EXCEPTION_HEADER) == null
+            && consumerRecord.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null;
+        if (!isDeserialized) {
+            LOGGER.error("## Skipping unreadable record at offset {} of partition {}",
+                consumerRecord.offset(), consumerRecord.partition());
+        }
+        return isDeserialized;
+    }
+
+    private void processRecords(List<ConsumerRecord<K, V>> keyRecords, Consumer<ConsumerRecord<K, V>> consumer,
+                                Map<ConsumerRecord<K, V>, RuntimeException> failures) {
+        for (ConsumerRecord<K, V> consumerRecord : keyRecords) {
+            try {
+                LOGGER.debug(PROCESSING_RECORD_KEY_VALUE, consumerRecord.key(), consumerRecord.value());
+                consumer.accept(consumerRecord);
+                LOGGER.debug(RECORD_PROCESSED_SUCCESSFULLY_KEY, consumerRecord.key());
+            } catch (RuntimeException e) {
+                LOGGER.warn("## Failed to process record - Key: {}", consumerRecord.key(), e);
+                failures.put(consumerRecord, e);
+                // The following records of the key are not processed before this one.
+                return;
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Drops the CDC update events which only change columns a consumer ignores, such as the stock quantity
+ * updates of each checkout, before the consumer does any I/O.
+ *
+ * <p>Updates are compared column by column on their {@code before} and {@code after} rows, and dropped
+ * only when an ignored column changed and nothing else but the {@link #AUDIT_COLUMNS}. An update of the
+ * audit columns alone is kept: editing the categories or the attributes of a product only touches these
+ * columns of its row. The events other than updates, and the updates without a {@code before} row (the
+ * table is not {@code REPLICA IDENTITY FULL}), are always kept. The number of dropped and processed events
+ * is counted per consumer.</p>
+ */
+public class CdcChangeFilter {
+
+    public static final String METRIC_NAME = "yas.cdc.change.filter.messages";
+
+    /**
+     * Columns updated together with any change of the row.
+     */
+    public static final Set<String> AUDIT_COLUMNS = Set.of("last_modified_on", "last_modified_by");
+
+    private final Set<String> ignoredColumns;
+    private final Counter processedCounter;
+    private final Counter droppedCounter;
+
+    /**
+     * Creates a filter.
+     *
+     * @param consumer       the name of the consumer, tagging its metrics
+     * @param ignoredColumns the columns whose changes the consumer does not process
+     * @param meterRegistry  the registry of the metrics
+     */
+    public CdcChangeFilter(String consumer, Set<String> ignoredColumns, MeterRegistry meterRegistry) {
+        this.ignoredColumns = Set.copyOf(ignoredColumns);
+        this.processedCounter = counter(consumer, "processed", meterRegistry);
+        this.droppedCounter = counter(consumer, "dropped", meterRegistry);
+    }
+
+    /**
+     * Returns whether the consumer should process a message, and counts it.
+     *
+     * @param message the CDC message, {@code null} for a tombstone
+     */
+    public boolean isRelevant(ProductCdcMessage message) {
+        boolean isRelevant = message == null || message.getOp() != Operation.UPDATE
+            || message.getBefore() == null || message.getAfter() == null
+            || hasChanged(message.getBefore(), message.getAfter());
+        (isRelevant ? processedCounter : droppedCounter).increment();
+        return isRelevant;
+    }
+
+    private boolean hasChanged(Product before, Product after) {
+        if (before.getId() != after.getId() || before.isPublished() != after.isPublished()) {
+            return true;
+        }
+        Set<String> changedColumns = Stream.concat(
+                before.getColumns().keySet().stream(), after.getColumns().keySet().stream())
+            .filter(column -> !Objects.equals(before.getColumn(column), after.getColumn(column)))
+            .collect(Collectors.toSet());
+        boolean isIgnoredChange = changedColumns.stream().anyMatch(ignoredColumns::contains)
+            && changedColumns.stream().allMatch(column -> ignoredColumns.contains(column)
+                || AUDIT_COLUMNS.contains(column));
+        return !isIgnoredChange;
+    }
+
+    private static Counter counter(String consumer, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder(METRIC_NAME)
+            .description("CDC messages by outcome of the column change filter")
+            .tag("consumer", consumer)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
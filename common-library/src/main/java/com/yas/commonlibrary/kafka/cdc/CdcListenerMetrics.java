@@ -0,0 +1,163 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Records the processing metrics of the CDC listeners, for record and batch listeners alike, including
+ * the retry and dead letter topic listeners of {@link RetrySupportDql}.
+ *
+ * <ul>
+ *     <li>{@code yas.cdc.listener.processing}: the processing time of each record, or batch, by outcome.</li>
+ *     <li>{@code yas.cdc.listener.latency}: the time from the change in the source database, the Debezium
+ *     {@code ts_ms}, or else the record timestamp, to the end of its processing.</li>
+ *     <li>{@code yas.cdc.listener.records}: the processed records by outcome, and by kind of topic, main,
+ *     retry or dead letter.</li>
+ * </ul>
+ *
+ * <p>Meters are tagged with the consumer group and the topic. The consumer lag is reported by the Kafka
+ * client metrics, see {@link com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig}.</p>
+ *
+ * @param <K> Type of the message key.
+ * @param <V> Type of the message payload.
+ */
+public class CdcListenerMetrics<K, V> implements RecordInterceptor<K, V>, BatchInterceptor<K, V> {
+
+    private static final String METRIC_PREFIX = "yas.cdc.listener";
+    private static final String RETRY_TOPIC_SUFFIX = "-retry";
+    private static final String DLT_TOPIC_SUFFIX = "-dlt";
+
+    private final MeterRegistry meterRegistry;
+    private final Function<V, Long> eventTimestamp;
+    // The records of a consumer are processed on its own thread, one record or batch at a time.
+    private final ThreadLocal<Long> processingStart = new ThreadLocal<>();
+
+    /**
+     * Creates the metrics of the listeners.
+     *
+     * @param meterRegistry  the registry of the metrics
+     * @param eventTimestamp the time of the change of a message in milliseconds, if known
+     */
+    public CdcListenerMetrics(MeterRegistry meterRegistry, Function<V, Long> eventTimestamp) {
+        this.meterRegistry = meterRegistry;
+        this.eventTimestamp = eventTimestamp;
+    }
+
+    @Override
+    public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> consumerRecord, Consumer<K, V> consumer) {
+        processingStart.set(System.nanoTime());
+        return consumerRecord;
+    }
+
+    @Override
+    public void success(ConsumerRecord<K, V> consumerRecord, Consumer<K, V> consumer) {
+        recordRecord(consumerRecord, consumer, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecord<K, V> consumerRecord, Exception exception, Consumer<K, V> consumer) {
+        recordRecord(consumerRecord, consumer, "failure");
+    }
+
+    @Override
+    public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        processingStart.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        recordBatch(records, consumer, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+        recordBatch(records, consumer, "failure");
+    }
+
+    private void recordRecord(ConsumerRecord<K, V> consumerRecord, Consumer<K, V> consumer, String outcome) {
+        Duration processingTime = getProcessingTime();
+        String group = getGroup(consumer);
+        recordProcessing(group, consumerRecord.topic(), outcome, processingTime);
+        recordCompletion(group, consumerRecord, outcome);
+    }
+
+    private void recordBatch(ConsumerRecords<K, V> records, Consumer<K, V> consumer, String outcome) {
+        Duration processingTime = getProcessingTime();
+        if (records.isEmpty()) {
+            return;
+        }
+        String group = getGroup(consumer);
+        records.partitions().stream()
+            .map(TopicPartition::topic)
+            .distinct()
+            .forEach(topic -> recordProcessing(group, topic, outcome, processingTime));
+        // The records before the failed one may have been processed, they are all counted as failed.
+        records.forEach(consumerRecord -> recordCompletion(group, consumerRecord, outcome));
+    }
+
+    private Duration getProcessingTime() {
+        Long start = processingStart.get();
+        processingStart.remove();
+        return start != null ? Duration.ofNanos(System.nanoTime() - start) : null;
+    }
+
+    private void recordProcessing(String group, String topic, String outcome, Duration processingTime) {
+        if (processingTime == null) {
+            return;
+        }
+        Timer.builder(METRIC_PREFIX + ".processing")
+            .description("CDC listener processing time of a record or a batch")
+            .tag("group", group)
+            .tag("topic", topic)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(processingTime);
+    }
+
+    private void recordCompletion(String group, ConsumerRecord<K, V> consumerRecord, String outcome) {
+        Counter.builder(METRIC_PREFIX + ".records")
+            .description("CDC records processed by the listeners")
+            .tag("group", group)
+            .tag("topic", consumerRecord.topic())
+            .tag("kind", getTopicKind(consumerRecord.topic()))
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+        if (!"success".equals(outcome)) {
+            return;
+        }
+        Long timestamp = consumerRecord.value() != null ? eventTimestamp.apply(consumerRecord.value()) : null;
+        long eventTime = timestamp != null ? timestamp : consumerRecord.timestamp();
+        if (eventTime > 0) {
+            Timer.builder(METRIC_PREFIX + ".latency")
+                .description("Time from the change in the source database to the end of its processing")
+                .tag("group", group)
+                .tag("topic", consumerRecord.topic())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - eventTime)));
+        }
+    }
+
+    private static String getGroup(Consumer<?, ?> consumer) {
+        return consumer.groupMetadata().groupId();
+    }
+
+    private static String getTopicKind(String topic) {
+        if (topic.endsWith(DLT_TOPIC_SUFFIX)) {
+            return "dlt";
+        }
+        return topic.contains(RETRY_TOPIC_SUFFIX) ? "retry" : "main";
+    }
+}
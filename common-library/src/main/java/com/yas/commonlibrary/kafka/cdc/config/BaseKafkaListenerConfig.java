@@ -1,16 +1,25 @@
 package com.yas.commonlibrary.kafka.cdc.config;
 
+import com.yas.commonlibrary.kafka.cdc.CdcListenerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Map;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 /**
  * Base configuration class for setting up Kafka consumers with typed deserialization.
  *
+ * <p>Given a {@link MeterRegistry}, the consumers publish the Kafka client metrics, including the consumer lag
+ * by partition ({@code kafka.consumer.fetch.manager.records.lag}) and by consumer
+ * ({@code kafka.consumer.fetch.manager.records.lag.max}), and the listeners are instrumented with
+ * {@link CdcListenerMetrics}.</p>
+ *
  * @param <V> The type of messages consumed.
  */
 public abstract class BaseKafkaListenerConfig<K, V> {
@@ -18,11 +27,18 @@ public abstract class BaseKafkaListenerConfig<K, V> {
     private final Class<K> keyType;
     private final Class<V> valueType;
     private final KafkaProperties kafkaProperties;
+    private final MeterRegistry meterRegistry;
 
     public BaseKafkaListenerConfig(Class<K> keyType, Class<V> type, KafkaProperties kafkaProperties) {
+        this(keyType, type, kafkaProperties, null);
+    }
+
+    public BaseKafkaListenerConfig(Class<K> keyType, Class<V> type, KafkaProperties kafkaProperties,
+                                   MeterRegistry meterRegistry) {
         this.valueType = type;
         this.keyType = keyType;
         this.kafkaProperties = kafkaProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -36,21 +52,82 @@ public abstract class BaseKafkaListenerConfig<K, V> {
 
     /**
      * Common instance type ConcurrentKafkaListenerContainerFactory.
+     * The number of consumers of a listener is {@link #getConcurrency()}.
      *
      * @return concurrentKafkaListenerContainerFactory {@link ConcurrentKafkaListenerContainerFactory}.
      */
     public ConcurrentKafkaListenerContainerFactory<K, V> kafkaListenerContainerFactory() {
         var factory = new ConcurrentKafkaListenerContainerFactory<K, V>();
-        factory.setConsumerFactory(typeConsumerFactory(keyType, valueType));
+        factory.setConsumerFactory(typeConsumerFactory());
+        Integer concurrency = getConcurrency();
+        if (concurrency != null) {
+            factory.setConcurrency(concurrency);
+        }
+        if (meterRegistry != null) {
+            CdcListenerMetrics<K, V> listenerMetrics = new CdcListenerMetrics<>(meterRegistry, this::getEventTimestamp);
+            factory.setRecordInterceptor(listenerMetrics);
+            factory.setBatchInterceptor(listenerMetrics);
+        }
         return factory;
     }
 
-    private ConsumerFactory<K, V> typeConsumerFactory(Class<K> keyClazz, Class<V> valueClazz) {
+    /**
+     * Common instance type ConcurrentKafkaListenerContainerFactory, delivering the whole poll result at once
+     * to batch listeners, such as those of {@link com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer}.
+     *
+     * @return batch concurrentKafkaListenerContainerFactory {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    public ConcurrentKafkaListenerContainerFactory<K, V> batchKafkaListenerContainerFactory() {
+        var factory = kafkaListenerContainerFactory();
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Returns the number of consumers of each listener, at most the number of partitions of its topics,
+     * {@code spring.kafka.listener.concurrency} by default.
+     *
+     * @return the concurrency, or {@code null} for a single consumer.
+     */
+    protected Integer getConcurrency() {
+        return kafkaProperties.getListener().getConcurrency();
+    }
+
+    /**
+     * Returns the time of the change of a message in the source database, in milliseconds, for the end-to-end
+     * latency metric. The record timestamp is used when {@code null}, by default.
+     */
+    protected Long getEventTimestamp(V value) {
+        return null;
+    }
+
+    /**
+     * Returns the deserializer of the message keys, a {@link JsonDeserializer} by default.
+     */
+    protected Deserializer<K> keyDeserializer() {
+        return gettJsonDeserializer(keyType);
+    }
+
+    /**
+     * Returns the deserializer of the message values, a {@link JsonDeserializer} by default. Override it
+     * with a streaming deserializer, such as
+     * {@link com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessageDeserializer}, to only read the needed
+     * fields.
+     */
+    protected Deserializer<V> valueDeserializer() {
+        return gettJsonDeserializer(valueType);
+    }
+
+    private ConsumerFactory<K, V> typeConsumerFactory() {
         Map<String, Object> props = buildConsumerProperties();
         // wrapper in case serialization/deserialization occur
-        var keyDeserialize = new ErrorHandlingDeserializer<>(gettJsonDeserializer(keyClazz));
-        var valueDeserialize = new ErrorHandlingDeserializer<>(gettJsonDeserializer(valueClazz));
-        return new DefaultKafkaConsumerFactory<>(props, keyDeserialize, valueDeserialize);
+        var keyDeserialize = new ErrorHandlingDeserializer<>(keyDeserializer());
+        var valueDeserialize = new ErrorHandlingDeserializer<>(valueDeserializer());
+        var consumerFactory = new DefaultKafkaConsumerFactory<>(props, keyDeserialize, valueDeserialize);
+        if (meterRegistry != null) {
+            consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        }
+        return consumerFactory;
     }
 
     private static <T> JsonDeserializer<T> gettJsonDeserializer(Class<T> clazz) {
@@ -1,6 +1,10 @@
 package com.yas.commonlibrary.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -12,9 +16,38 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Product {
 
+    public static final String ID_COLUMN = "id";
+    public static final String IS_PUBLISHED_COLUMN = "is_published";
+
     private long id;
 
-    @JsonProperty("is_published")
+    @JsonProperty(IS_PUBLISHED_COLUMN)
     private boolean isPublished;
 
+    /**
+     * The other columns of the row, by column name.
+     */
+    @Builder.Default
+    private Map<String, Object> columns = new HashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> getColumns() {
+        return columns;
+    }
+
+    @JsonAnySetter
+    public void setColumn(String column, Object value) {
+        columns.put(column, value);
+    }
+
+    /**
+     * Returns the value of a column of the row.
+     */
+    public Object getColumn(String column) {
+        return switch (column) {
+            case ID_COLUMN -> id;
+            case IS_PUBLISHED_COLUMN -> isPublished;
+            default -> columns.get(column);
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package com.yas.commonlibrary.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -17,5 +18,11 @@ public class ProductCdcMessage {
 
     private Operation op;
 
+    /**
+     * The time of the change in the source database, in milliseconds.
+     */
+    @JsonProperty("ts_ms")
+    private Long tsMs;
+
 }
 
@@ -0,0 +1,144 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Set;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Streaming deserializer of the Debezium product change events, in place of the reflective
+ * {@link org.springframework.kafka.support.serializer.JsonDeserializer}.
+ *
+ * <p>Only the operation, the change time, the {@code id} and {@code is_published} columns and the given
+ * columns, or else all the columns, are read. The other fields are skipped without being materialized. The
+ * {@code before} row is only read when requested, for example to compare the columns of updates. Events with
+ * and without the schema envelope are both supported.</p>
+ */
+public class ProductCdcMessageDeserializer implements Deserializer<ProductCdcMessage> {
+
+    private static final String PAYLOAD = "payload";
+    private static final String BEFORE = "before";
+    private static final String AFTER = "after";
+    private static final String OP = "op";
+    private static final String TS_MS = "ts_ms";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // null reads all the columns
+    private final Set<String> columns;
+    private final boolean isBeforeRead;
+
+    /**
+     * Creates a deserializer reading all the columns, for example to compare all of them on updates.
+     *
+     * @param isBeforeRead whether to read the {@code before} row
+     */
+    public ProductCdcMessageDeserializer(boolean isBeforeRead) {
+        this.columns = null;
+        this.isBeforeRead = isBeforeRead;
+    }
+
+    /**
+     * Creates a deserializer.
+     *
+     * @param columns      the columns to read, besides {@code id} and {@code is_published}
+     * @param isBeforeRead whether to read the {@code before} row
+     */
+    public ProductCdcMessageDeserializer(Set<String> columns, boolean isBeforeRead) {
+        this.columns = Set.copyOf(columns);
+        this.isBeforeRead = isBeforeRead;
+    }
+
+    @Override
+    public ProductCdcMessage deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try (JsonParser parser = objectMapper.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SerializationException("Product CDC message of topic %s is not an object".formatted(topic));
+            }
+            return readMessage(parser);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize product CDC message of topic " + topic, e);
+        }
+    }
+
+    private ProductCdcMessage readMessage(JsonParser parser) throws IOException {
+        ProductCdcMessage message = new ProductCdcMessage();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                // With the schema envelope, the event is the payload.
+                case PAYLOAD -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        return readMessage(parser);
+                    }
+                }
+                case AFTER -> message.setAfter(readProduct(parser, token));
+                case BEFORE -> {
+                    if (isBeforeRead) {
+                        message.setBefore(readProduct(parser, token));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case OP -> message.setOp(readOperation(parser.getValueAsString()));
+                case TS_MS -> message.setTsMs(token == JsonToken.VALUE_NULL ? null : parser.getValueAsLong());
+                default -> parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private Product readProduct(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        Product product = new Product();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String column = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            switch (column) {
+                case Product.ID_COLUMN -> product.setId(parser.getValueAsLong());
+                case Product.IS_PUBLISHED_COLUMN -> product.setPublished(parser.getValueAsBoolean());
+                default -> {
+                    if (columns == null || columns.contains(column)) {
+                        product.setColumn(column, readScalar(parser, valueToken));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Reads a column value as the untyped JSON deserialization does. Debezium encodes columns as scalars,
+     * a structured value is kept as its JSON text.
+     */
+    private static Object readScalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> parser.readValueAsTree().toString();
+        };
+    }
+
+    private static Operation readOperation(String name) {
+        for (Operation operation : Operation.values()) {
+            if (operation.getName().equals(name)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
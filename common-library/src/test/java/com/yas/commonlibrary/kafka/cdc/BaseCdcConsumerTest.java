@@ -0,0 +1,104 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+@DisplayName("BaseCdcConsumer Unit Tests")
+class BaseCdcConsumerTest {
+
+    private final TestCdcConsumer consumer = new TestCdcConsumer();
+
+    @Test
+    @DisplayName("Should compact a batch to the latest record of each key, in the order of the keys")
+    void compact_whenKeysRepeat_thenLatestRecordOfEachKeyIsKept() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+            consumerRecord(0, "a", "a1"), consumerRecord(1, "b", "b1"), consumerRecord(2, "a", "a2"),
+            consumerRecord(3, null, "unreadable")
+        );
+
+        // When
+        Map<String, ConsumerRecord<String, String>> latestRecords = consumer.compact(records);
+
+        // Then
+        assertThat(latestRecords).containsOnlyKeys("a", "b");
+        assertThat(latestRecords.values()).extracting(ConsumerRecord::value).containsExactly("a2", "b1");
+    }
+
+    @Test
+    @DisplayName("Should process the records of each key in order")
+    void processBatch_whenNotCompacted_thenRecordsOfKeyAreProcessedInOrder() {
+        // Given
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(consumerRecord(i, "key-" + i % 5, String.valueOf(i)));
+        }
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+
+        // When
+        consumer.processBatch(records, false, (key, value) -> processed
+            .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+            .add(Integer.valueOf(value)));
+
+        // Then
+        assertThat(processed).hasSize(5);
+        processed.values().forEach(values -> assertThat(values).hasSize(20).isSorted());
+    }
+
+    @Test
+    @DisplayName("Should fail the batch at the first failed record, without processing the next records of its key")
+    void processBatch_whenRecordFails_thenBatchFailsAtFirstFailedRecord() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+            consumerRecord(0, "a", "a1"), consumerRecord(1, "b", "fail"), consumerRecord(2, "b", "b2"),
+            consumerRecord(3, "c", "fail")
+        );
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.processBatch(records, false, (key, value) -> {
+                if (value.equals("fail")) {
+                    throw new IllegalStateException(key);
+                }
+                processed.add(value);
+            }));
+
+        // Then
+        assertThat(exception.getRecord()).isSameAs(records.get(1));
+        assertThat(processed).containsExactly("a1");
+    }
+
+    @Test
+    @DisplayName("Should hand the whole records to the processing, identified by topic, partition and offset")
+    void processBatch_whenProcessingRecords_thenRecordIdsAreUnique() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+            consumerRecord(0, "a", "a1"), consumerRecord(1, "b", "b1"), consumerRecord(2, "a", "a2")
+        );
+        List<String> recordIds = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        consumer.processBatch(records, false, consumerRecord -> recordIds.add(consumer.getRecordId(consumerRecord)));
+
+        // Then
+        assertThat(recordIds).containsExactlyInAnyOrder("topic-0@0", "topic-0@1", "topic-0@2");
+    }
+
+    private static ConsumerRecord<String, String> consumerRecord(long offset, String key, String value) {
+        return new ConsumerRecord<>("topic", 0, offset, key, value);
+    }
+
+    private static class TestCdcConsumer extends BaseCdcConsumer<String, String> {
+    }
+}
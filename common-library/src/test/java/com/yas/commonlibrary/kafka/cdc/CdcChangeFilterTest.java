@@ -0,0 +1,88 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CdcChangeFilter Unit Tests")
+class CdcChangeFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CdcChangeFilter changeFilter =
+        new CdcChangeFilter("test", Set.of("stock_quantity"), meterRegistry);
+
+    @Test
+    @DisplayName("Should drop an update of the ignored and audit columns only")
+    void isRelevant_whenOnlyIgnoredAndAuditColumnsChange_thenUpdateIsDropped() {
+        // Given
+        ProductCdcMessage message = update(
+            Map.of("name", "Phone", "stock_quantity", 10, "last_modified_on", 1L),
+            Map.of("name", "Phone", "stock_quantity", 9, "last_modified_on", 2L));
+
+        // When
+        boolean isRelevant = changeFilter.isRelevant(message);
+
+        // Then
+        assertThat(isRelevant).isFalse();
+        assertThat(meterRegistry.get(CdcChangeFilter.METRIC_NAME).tag("outcome", "dropped").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep an update of the audit columns only, such as a change of the categories")
+    void isRelevant_whenOnlyAuditColumnsChange_thenUpdateIsKept() {
+        // Given
+        ProductCdcMessage message = update(
+            Map.of("name", "Phone", "stock_quantity", 10, "last_modified_on", 1L),
+            Map.of("name", "Phone", "stock_quantity", 10, "last_modified_on", 2L));
+
+        // When / Then
+        assertThat(changeFilter.isRelevant(message)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep an update of any other column, together with an ignored column")
+    void isRelevant_whenOtherColumnChanges_thenUpdateIsKept() {
+        // Given
+        ProductCdcMessage message = update(
+            Map.of("name", "Phone", "stock_quantity", 10),
+            Map.of("name", "Smartphone", "stock_quantity", 9));
+
+        // When / Then
+        assertThat(changeFilter.isRelevant(message)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the events other than updates and the tombstones")
+    void isRelevant_whenNotAnUpdate_thenEventIsKept() {
+        // Given
+        ProductCdcMessage create = ProductCdcMessage.builder()
+            .op(Operation.CREATE)
+            .after(product(Map.of("stock_quantity", 10)))
+            .build();
+
+        // When / Then
+        assertThat(changeFilter.isRelevant(create)).isTrue();
+        assertThat(changeFilter.isRelevant(null)).isTrue();
+    }
+
+    private static ProductCdcMessage update(Map<String, Object> before, Map<String, Object> after) {
+        return ProductCdcMessage.builder()
+            .op(Operation.UPDATE)
+            .before(product(before))
+            .after(product(after))
+            .build();
+    }
+
+    private static Product product(Map<String, Object> columns) {
+        return Product.builder().id(1L).isPublished(true).columns(new HashMap<>(columns)).build();
+    }
+}
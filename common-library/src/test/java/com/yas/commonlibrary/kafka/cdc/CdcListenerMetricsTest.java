@@ -0,0 +1,79 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CdcListenerMetrics Unit Tests")
+class CdcListenerMetricsTest {
+
+    private static final String GROUP = "search";
+    private static final String TOPIC = "dbproduct.public.product";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CdcListenerMetrics<String, Long> metrics = new CdcListenerMetrics<>(meterRegistry, value -> value);
+    private Consumer<String, Long> consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        consumer = mock(Consumer.class);
+        when(consumer.groupMetadata()).thenReturn(new ConsumerGroupMetadata(GROUP));
+    }
+
+    @Test
+    @DisplayName("Should record the processing time, the count and the latency of a processed record")
+    void success_whenRecordIsProcessed_thenMetricsAreRecorded() {
+        // Given
+        ConsumerRecord<String, Long> consumerRecord =
+            new ConsumerRecord<>(TOPIC, 0, 0, "1", System.currentTimeMillis() - 1_000);
+
+        // When
+        metrics.intercept(consumerRecord, consumer);
+        metrics.success(consumerRecord, consumer);
+
+        // Then
+        assertThat(meterRegistry.get("yas.cdc.listener.processing").tag("group", GROUP).tag("outcome", "success")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("yas.cdc.listener.records").tag("kind", "main").tag("outcome", "success")
+            .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("yas.cdc.listener.latency").tag("topic", TOPIC).timer()
+            .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Should count the failed records of a batch by kind of topic, without latency")
+    void failure_whenBatchFails_thenRecordsAreCountedAsFailed() {
+        // Given
+        String retryTopic = TOPIC + "-retry-0";
+        ConsumerRecords<String, Long> records = new ConsumerRecords<>(Map.of(
+            new TopicPartition(retryTopic, 0), List.of(
+                new ConsumerRecord<>(retryTopic, 0, 0, "1", 1L),
+                new ConsumerRecord<>(retryTopic, 0, 1, "2", 2L))
+        ));
+
+        // When
+        metrics.intercept(records, consumer);
+        metrics.failure(records, new IllegalStateException(), consumer);
+
+        // Then
+        assertThat(meterRegistry.get("yas.cdc.listener.records").tag("kind", "retry").tag("outcome", "failure")
+            .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("yas.cdc.listener.processing").tag("topic", retryTopic).timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.find("yas.cdc.listener.latency").timer()).isNull();
+    }
+}
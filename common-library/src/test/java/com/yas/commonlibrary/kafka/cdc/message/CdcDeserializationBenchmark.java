@@ -0,0 +1,84 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * JMH comparison of the product CDC message deserialization with the reflective {@link JsonDeserializer}
+ * and with the streaming {@link ProductCdcMessageDeserializer}, reading all columns or a few.
+ *
+ * <p>Not part of the regular test run. Build the test classes, then run {@link #main(String[])}
+ * from the IDE or with the test classpath. The GC profiler reports the allocation per message,
+ * as {@code gc.alloc.rate.norm}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CdcDeserializationBenchmark {
+
+    private static final String TOPIC = "dbproduct.public.product";
+
+    private byte[] message;
+    private JsonDeserializer<ProductCdcMessage> jsonDeserializer;
+    private ProductCdcMessageDeserializer streamingDeserializer;
+    private ProductCdcMessageDeserializer streamingAfterOnlyDeserializer;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CdcDeserializationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        message = ProductCdcMessages.update(42, 10, 9).getBytes(StandardCharsets.UTF_8);
+        jsonDeserializer = new JsonDeserializer<>(ProductCdcMessage.class);
+        streamingDeserializer = new ProductCdcMessageDeserializer(
+            Set.of("name", "slug", "price", "is_visible_individually", "brand_id"), true);
+        streamingAfterOnlyDeserializer = new ProductCdcMessageDeserializer(Set.of(), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsonDeserializer.close();
+        streamingDeserializer.close();
+        streamingAfterOnlyDeserializer.close();
+    }
+
+    @Benchmark
+    public ProductCdcMessage jsonDeserializer() {
+        return jsonDeserializer.deserialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public ProductCdcMessage streamingWithColumns() {
+        return streamingDeserializer.deserialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public ProductCdcMessage streamingAfterOnly() {
+        return streamingAfterOnlyDeserializer.deserialize(TOPIC, message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+@DisplayName("ProductCdcMessageDeserializer Unit Tests")
+class ProductCdcMessageDeserializerTest {
+
+    private static final String TOPIC = "dbproduct.public.product";
+
+    @Test
+    @DisplayName("Should read the operation, the rows and only the requested columns")
+    void deserialize_whenColumnsAreGiven_thenOnlyTheseColumnsAreRead() {
+        // Given
+        ProductCdcMessageDeserializer deserializer =
+            new ProductCdcMessageDeserializer(Set.of("name", "stock_quantity", "price"), true);
+
+        // When
+        ProductCdcMessage message = deserializer.deserialize(TOPIC, bytes(ProductCdcMessages.update(7, 10, 9)));
+
+        // Then
+        assertThat(message.getOp()).isEqualTo(Operation.UPDATE);
+        assertThat(message.getTsMs()).isEqualTo(1718000000123L);
+        assertThat(message.getAfter().getId()).isEqualTo(7);
+        assertThat(message.getAfter().isPublished()).isTrue();
+        assertThat(message.getAfter().getColumns()).containsOnlyKeys("name", "stock_quantity", "price");
+        assertThat(message.getBefore().getColumn("stock_quantity")).isEqualTo(10);
+        assertThat(message.getAfter().getColumn("stock_quantity")).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should read the columns like the JSON deserializer")
+    void deserialize_whenComparedToJsonDeserializer_thenColumnsAreEqual() {
+        // Given
+        byte[] data = bytes(ProductCdcMessages.update(7, 10, 9));
+        Set<String> columns = Set.of("name", "price", "stock_quantity", "parent_id", "created_on");
+        try (JsonDeserializer<ProductCdcMessage> jsonDeserializer = new JsonDeserializer<>(ProductCdcMessage.class)) {
+
+            // When
+            ProductCdcMessage expected = jsonDeserializer.deserialize(TOPIC, data);
+            ProductCdcMessage message = new ProductCdcMessageDeserializer(columns, true).deserialize(TOPIC, data);
+
+            // Then
+            columns.forEach(column -> {
+                assertThat(message.getAfter().getColumn(column)).isEqualTo(expected.getAfter().getColumn(column));
+                assertThat(message.getBefore().getColumn(column)).isEqualTo(expected.getBefore().getColumn(column));
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip the before row when it is not requested")
+    void deserialize_whenBeforeIsNotRead_thenBeforeIsNull() {
+        // When
+        ProductCdcMessage message = new ProductCdcMessageDeserializer(Set.of(), false)
+            .deserialize(TOPIC, bytes(ProductCdcMessages.update(7, 10, 9)));
+
+        // Then
+        assertNull(message.getBefore());
+        assertThat(message.getAfter().getId()).isEqualTo(7);
+        assertThat(message.getAfter().getColumns()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read the payload of an event with the schema envelope")
+    void deserialize_whenSchemaIsIncluded_thenPayloadIsRead() {
+        // Given
+        String event = "{\"schema\":{\"type\":\"struct\",\"fields\":[]},\"payload\":%s}"
+            .formatted(ProductCdcMessages.update(7, 10, 9));
+
+        // When
+        ProductCdcMessage message = new ProductCdcMessageDeserializer(Set.of(), false).deserialize(TOPIC, bytes(event));
+
+        // Then
+        assertThat(message.getOp()).isEqualTo(Operation.UPDATE);
+        assertThat(message.getAfter().getId()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should return null for a tombstone and fail on an invalid event")
+    void deserialize_whenTombstoneOrInvalid_thenNullOrSerializationException() {
+        // Given
+        ProductCdcMessageDeserializer deserializer = new ProductCdcMessageDeserializer(Set.of(), false);
+
+        // When & Then
+        assertNull(deserializer.deserialize(TOPIC, null));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, bytes("[1, 2]")));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, bytes("{\"op\": ")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
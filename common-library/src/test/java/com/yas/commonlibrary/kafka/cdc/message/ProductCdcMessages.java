@@ -0,0 +1,75 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+/**
+ * Debezium product change events, as published by the product connector.
+ */
+final class ProductCdcMessages {
+
+    static final String ROW = """
+        {
+          "id": %d,
+          "name": "%s",
+          "short_description": "A short description of the product",
+          "description": "<p>A long description of the product, with some <b>markup</b> and details.</p>",
+          "specification": "Weight: 1kg, Size: 10x20x30",
+          "sku": "SKU-0001",
+          "gtin": "0123456789012",
+          "slug": "product-slug",
+          "price": 149.99,
+          "has_options": false,
+          "is_allowed_to_order": true,
+          "is_published": %b,
+          "is_featured": false,
+          "is_visible_individually": true,
+          "stock_tracking_enabled": true,
+          "stock_quantity": %d,
+          "brand_id": 3,
+          "tax_class_id": 1,
+          "meta_title": "Product",
+          "meta_keyword": "product",
+          "meta_description": "Product description",
+          "thumbnail_media_id": 12,
+          "weight": 1.0,
+          "dimension_unit": "CM",
+          "length": 10.0,
+          "width": 20.0,
+          "height": 30.0,
+          "parent_id": null,
+          "tax_included": true,
+          "created_by": "admin",
+          "created_on": 1718000000000000,
+          "last_modified_by": "admin",
+          "last_modified_on": 1718000000000000
+        }""";
+
+    static final String UPDATE = """
+        {
+          "before": %s,
+          "after": %s,
+          "source": {
+            "version": "2.7.3.Final",
+            "connector": "postgresql",
+            "name": "dbproduct",
+            "ts_ms": 1718000000000,
+            "snapshot": "false",
+            "db": "product",
+            "sequence": "[\\"24023928\\",\\"24023928\\"]",
+            "schema": "public",
+            "table": "product",
+            "txId": 780,
+            "lsn": 24023928,
+            "xmin": null
+          },
+          "op": "u",
+          "ts_ms": 1718000000123,
+          "transaction": null
+        }""";
+
+    private ProductCdcMessages() {
+    }
+
+    static String update(long id, long stockBefore, long stockAfter) {
+        return UPDATE.formatted(ROW.formatted(id, "Product", true, stockBefore),
+            ROW.formatted(id, "Product", true, stockAfter));
+    }
+}
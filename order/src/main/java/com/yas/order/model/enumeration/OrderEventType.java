@@ -0,0 +1,7 @@
+package com.yas.order.model.enumeration;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_UPDATED,
+    ORDER_PAYMENT_UPDATED
+}
@@ -0,0 +1,59 @@
+package com.yas.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.order.model.Order;
+import com.yas.order.model.OrderOutboxEvent;
+import com.yas.order.model.enumeration.OrderEventType;
+import com.yas.order.model.enumeration.OrderStatus;
+import com.yas.order.repository.OrderOutboxEventRepository;
+import com.yas.order.viewmodel.outbox.OrderEventVm;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writer of the order domain events to the transactional outbox, in the transaction changing the order.
+ *
+ * <p>The event row is inserted and deleted right away: the Debezium outbox event router publishes the
+ * insert read from the WAL, and the table stays empty.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    public static final String AGGREGATE_TYPE = "order";
+
+    private final OrderOutboxEventRepository orderOutboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Appends an event of the order, in its current state.
+     *
+     * @param type                the type of the event
+     * @param order               the saved order
+     * @param previousOrderStatus the status of the order before the change, if any
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEventType type, Order order, OrderStatus previousOrderStatus) {
+        OrderEventVm event = OrderEventVm.fromModel(type, order, previousOrderStatus);
+        OrderOutboxEvent outboxEvent = OrderOutboxEvent.builder()
+            .aggregateType(AGGREGATE_TYPE)
+            .aggregateId(String.valueOf(order.getId()))
+            .type(type)
+            .payload(toJson(event))
+            .createdOn(event.occurredOn())
+            .build();
+        orderOutboxEventRepository.saveAndFlush(outboxEvent);
+        orderOutboxEventRepository.delete(outboxEvent);
+    }
+
+    private String toJson(OrderEventVm event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload of order event " + event.orderId(), e);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.yas.order.model.OrderAddress;
 import com.yas.order.model.OrderItem;
 import com.yas.order.model.csv.OrderItemCsv;
 import com.yas.order.model.enumeration.DeliveryStatus;
+import com.yas.order.model.enumeration.OrderEventType;
 import com.yas.order.model.enumeration.OrderStatus;
 import com.yas.order.model.enumeration.PaymentStatus;
 import com.yas.order.model.request.OrderRequest;
@@ -62,6 +63,7 @@ public class OrderService {
     private final CartService cartService;
     private final OrderMapper orderMapper;
     private final PromotionService promotionService;
+    private final OrderEventOutbox orderEventOutbox;
 
     public OrderVm createOrder(OrderPostVm orderPostVm) {
 
@@ -115,6 +117,7 @@ public class OrderService {
                 .checkoutId(orderPostVm.checkoutId())
                 .build();
         orderRepository.save(order);
+        orderEventOutbox.append(OrderEventType.ORDER_CREATED, order, null);
 
         Set<OrderItem> orderItems = orderPostVm.orderItemPostVms().stream()
                 .map(item -> OrderItem.builder()
@@ -258,6 +261,7 @@ public class OrderService {
                 .findById(paymentOrderStatusVm.orderId())
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, paymentOrderStatusVm.orderId()));
 
+        OrderStatus previousOrderStatus = order.getOrderStatus();
         order.setPaymentId(paymentOrderStatusVm.paymentId());
         String paymentStatus = paymentOrderStatusVm.paymentStatus();
         order.setPaymentStatus(PaymentStatus.valueOf(paymentStatus));
@@ -265,6 +269,8 @@ public class OrderService {
             order.setOrderStatus(OrderStatus.PAID);
         }
         Order result = this.orderRepository.save(order);
+        orderEventOutbox.append(OrderEventType.ORDER_PAYMENT_UPDATED, result, previousOrderStatus);
+        appendStatusUpdated(result, previousOrderStatus);
         return PaymentOrderStatusVm.builder()
                 .orderId(result.getId())
                 .orderStatus(result.getOrderStatus().getName())
@@ -276,16 +282,26 @@ public class OrderService {
     public void rejectOrder(Long orderId, String rejectReason) {
         Order order = this.orderRepository.findById(orderId)
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, orderId));
+        OrderStatus previousOrderStatus = order.getOrderStatus();
         order.setOrderStatus(OrderStatus.REJECT);
         order.setRejectReason(rejectReason);
         this.orderRepository.save(order);
+        appendStatusUpdated(order, previousOrderStatus);
     }
 
     public void acceptOrder(Long orderId) {
         Order order = this.orderRepository.findById(orderId)
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, orderId));
+        OrderStatus previousOrderStatus = order.getOrderStatus();
         order.setOrderStatus(OrderStatus.ACCEPTED);
         this.orderRepository.save(order);
+        appendStatusUpdated(order, previousOrderStatus);
+    }
+
+    private void appendStatusUpdated(Order order, OrderStatus previousOrderStatus) {
+        if (order.getOrderStatus() != previousOrderStatus) {
+            orderEventOutbox.append(OrderEventType.ORDER_STATUS_UPDATED, order, previousOrderStatus);
+        }
     }
 
     public byte[] exportCsv(OrderRequest orderRequest) throws IOException {
@@ -1,13 +1,16 @@
 package com.yas.order.service;
 
+import com.yas.commonlibrary.exception.BadRequestException;
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.commonlibrary.utils.AuthenticationUtils;
 import com.yas.order.config.ServiceUrlConfig;
+import com.yas.order.utils.Constants;
 import com.yas.order.viewmodel.order.OrderItemVm;
 import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.product.ProductCheckoutListVm;
 import com.yas.order.viewmodel.product.ProductGetCheckoutListVm;
 import com.yas.order.viewmodel.product.ProductQuantityItem;
+import com.yas.order.viewmodel.product.ProductQuantityResultVm;
 import com.yas.order.viewmodel.product.ProductVariationVm;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -19,6 +22,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -50,6 +54,11 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
                 .getBody();
     }
 
+    /**
+     * Reserves the stock of the order items. The product service reserves all items or none of them.
+     *
+     * @throws BadRequestException when an item does not exist or lacks stock, so that the order is not placed
+     */
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
     public void subtractProductStockQuantity(OrderVm orderVm) {
@@ -61,11 +70,20 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
                 .buildAndExpand()
                 .toUri();
 
-        restClient.put()
+        List<ProductQuantityResultVm> results = restClient.put()
                 .uri(url)
                 .headers(h -> h.setBearerAuth(jwt))
                 .body(buildProductQuantityItems(orderVm.orderItemVms()))
-                .retrieve();
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {
+                    throw new BadRequestException(Constants.ErrorCode.PRODUCT_STOCK_NOT_RESERVED, orderVm.id());
+                })
+                .body(new ParameterizedTypeReference<List<ProductQuantityResultVm>>() {
+                });
+
+        if (results == null || results.stream().anyMatch(result -> !result.success())) {
+            throw new BadRequestException(Constants.ErrorCode.PRODUCT_STOCK_NOT_RESERVED, orderVm.id());
+        }
     }
 
     @Retry(name = "restApi")
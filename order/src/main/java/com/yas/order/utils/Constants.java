@@ -11,6 +11,7 @@ public final class Constants {
         public static final String CHECKOUT_NOT_FOUND = "CHECKOUT_NOT_FOUND";
         public static final String CHECKOUT_ITEM_NOT_EMPTY = "CHECKOUT_ITEM_NOT_EMPTY";
         public static final String SIGN_IN_REQUIRED = "SIGN_IN_REQUIRED";
+        public static final String PRODUCT_STOCK_NOT_RESERVED = "PRODUCT_STOCK_NOT_RESERVED";
     }
 
     public final class MessageCode {
@@ -0,0 +1,44 @@
+package com.yas.order.viewmodel.outbox;
+
+import com.yas.order.model.Order;
+import com.yas.order.model.enumeration.OrderEventType;
+import com.yas.order.model.enumeration.OrderStatus;
+import com.yas.order.model.enumeration.PaymentStatus;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import lombok.Builder;
+
+/**
+ * Payload of an order domain event, the order fields needed by the consumers only.
+ */
+@Builder
+public record OrderEventVm(
+    OrderEventType type,
+    Long orderId,
+    String checkoutId,
+    String email,
+    OrderStatus orderStatus,
+    OrderStatus previousOrderStatus,
+    PaymentStatus paymentStatus,
+    Long paymentId,
+    BigDecimal totalAmount,
+    String rejectReason,
+    ZonedDateTime occurredOn
+) {
+
+    public static OrderEventVm fromModel(OrderEventType type, Order order, OrderStatus previousOrderStatus) {
+        return OrderEventVm.builder()
+            .type(type)
+            .orderId(order.getId())
+            .checkoutId(order.getCheckoutId())
+            .email(order.getEmail())
+            .orderStatus(order.getOrderStatus())
+            .previousOrderStatus(previousOrderStatus)
+            .paymentStatus(order.getPaymentStatus())
+            .paymentId(order.getPaymentId())
+            .totalAmount(order.getTotalPrice())
+            .rejectReason(order.getRejectReason())
+            .occurredOn(ZonedDateTime.now())
+            .build();
+    }
+}
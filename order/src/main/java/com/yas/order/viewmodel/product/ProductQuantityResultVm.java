@@ -0,0 +1,7 @@
+package com.yas.order.viewmodel.product;
+
+/**
+ * Outcome of the stock update of a product, as returned by the product service.
+ */
+public record ProductQuantityResultVm(Long productId, Long quantity, boolean success) {
+}
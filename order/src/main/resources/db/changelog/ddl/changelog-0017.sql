@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset order:issue-order-outbox-1
+-- Order domain events, published by the Debezium outbox event router. Rows are deleted in the transaction
+-- that inserts them, the connector reads the inserts from the WAL.
+create table order_outbox_event (
+    id uuid not null,
+    aggregate_type varchar(255) not null,
+    aggregate_id varchar(255) not null,
+    type varchar(255) not null,
+    payload jsonb not null,
+    created_on timestamp(6) with time zone not null,
+    primary key (id)
+);
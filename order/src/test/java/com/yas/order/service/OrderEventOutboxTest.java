@@ -0,0 +1,68 @@
+package com.yas.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.yas.order.model.Order;
+import com.yas.order.model.OrderOutboxEvent;
+import com.yas.order.model.enumeration.OrderEventType;
+import com.yas.order.model.enumeration.OrderStatus;
+import com.yas.order.repository.OrderOutboxEventRepository;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderEventOutbox Unit Tests")
+class OrderEventOutboxTest {
+
+    @Mock
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private OrderEventOutbox orderEventOutbox;
+
+    @BeforeEach
+    void setUp() {
+        orderEventOutbox = new OrderEventOutbox(orderOutboxEventRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should insert then delete the typed event of the order, keyed by the order id")
+    void append_whenStatusIsUpdated_thenEventIsInsertedAndDeleted() throws Exception {
+        // Given
+        Order order = Order.builder()
+            .id(42L)
+            .email("customer@yas.com")
+            .orderStatus(OrderStatus.ACCEPTED)
+            .totalPrice(BigDecimal.TEN)
+            .build();
+        ArgumentCaptor<OrderOutboxEvent> outboxEvent = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+
+        // When
+        orderEventOutbox.append(OrderEventType.ORDER_STATUS_UPDATED, order, OrderStatus.PENDING);
+
+        // Then
+        InOrder inOrder = inOrder(orderOutboxEventRepository);
+        inOrder.verify(orderOutboxEventRepository).saveAndFlush(outboxEvent.capture());
+        inOrder.verify(orderOutboxEventRepository).delete(outboxEvent.getValue());
+        assertThat(outboxEvent.getValue().getAggregateType()).isEqualTo(OrderEventOutbox.AGGREGATE_TYPE);
+        assertThat(outboxEvent.getValue().getAggregateId()).isEqualTo("42");
+        assertThat(outboxEvent.getValue().getType()).isEqualTo(OrderEventType.ORDER_STATUS_UPDATED);
+        JsonNode payload = objectMapper.readTree(outboxEvent.getValue().getPayload());
+        assertThat(payload.get("type").asText()).isEqualTo("ORDER_STATUS_UPDATED");
+        assertThat(payload.get("orderId").asLong()).isEqualTo(42L);
+        assertThat(payload.get("orderStatus").asText()).isEqualTo("ACCEPTED");
+        assertThat(payload.get("previousOrderStatus").asText()).isEqualTo("PENDING");
+    }
+}
@@ -0,0 +1,15 @@
+package com.yas.product.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process caches of the product service.
+ * Cache sizing and expiry are configured through the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MEDIA_CACHE = "medias";
+}
@@ -1,7 +1,9 @@
 package com.yas.product.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.product.model.enumeration.FilterExistInWhSelection;
 import com.yas.product.service.ProductDetailService;
+import com.yas.product.service.ProductEsDetailService;
 import com.yas.product.service.ProductService;
 import com.yas.product.viewmodel.error.ErrorVm;
 import com.yas.product.viewmodel.product.ProductDetailGetVm;
@@ -20,6 +22,7 @@ import com.yas.product.viewmodel.product.ProductPostVm;
 import com.yas.product.viewmodel.product.ProductPutVm;
 import com.yas.product.viewmodel.product.ProductQuantityPostVm;
 import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
 import com.yas.product.viewmodel.product.ProductSlugGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailVm;
@@ -31,7 +34,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -44,16 +54,26 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
 public class ProductController {
     private final ProductService productService;
     private final ProductDetailService productDetailService;
+    private final ProductEsDetailService productEsDetailService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService, ProductDetailService productDetailService) {
+    public ProductController(ProductService productService, ProductDetailService productDetailService,
+                             ProductEsDetailService productEsDetailService, ObjectMapper objectMapper) {
         this.productService = productService;
         this.productDetailService = productDetailService;
+        this.productEsDetailService = productEsDetailService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/backoffice/products")
@@ -188,6 +208,47 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductEsDetailById(productId));
     }
 
+    /**
+     * Streams the details of the products of {@code ids} for the search index as NDJSON, one product per line.
+     */
+    @GetMapping(path = "/storefront/products-es", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getProductEsDetails(
+            @RequestParam(value = "ids") @Size(max = ProductEsDetailService.CHUNK_SIZE) List<Long> ids
+    ) {
+        return toNdjson(chunkConsumer -> productEsDetailService.exportProductEsDetails(ids, chunkConsumer));
+    }
+
+    /**
+     * Streams the catalog ordered by id starting after {@code lastId} for a full reindex, as NDJSON.
+     * The export may take several minutes, so its async timeout is extended for this request only.
+     */
+    @GetMapping(path = "/backoffice/products-es", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductEsDetails(
+            @RequestParam(value = "lastId", required = false) Long lastId,
+            @RequestParam(value = "limit", required = false) @Positive Integer limit,
+            NativeWebRequest webRequest
+    ) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(
+            ProductEsExportTimeoutInterceptor.class, new ProductEsExportTimeoutInterceptor());
+        return toNdjson(chunkConsumer -> productEsDetailService.exportProductEsDetailsAfter(lastId, limit,
+            chunkConsumer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> toNdjson(Consumer<Consumer<List<ProductEsDetailVm>>> export) {
+        StreamingResponseBody body = outputStream -> export.accept(chunk -> {
+            try {
+                for (ProductEsDetailVm productEsDetailVm : chunk) {
+                    outputStream.write(objectMapper.writeValueAsBytes(productEsDetailVm));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Get related products by product id successfully",
                 content = @Content(mediaType = "application/json",
@@ -242,16 +303,14 @@ public class ProductController {
 
     @PutMapping(path = "/backoffice/products/subtract-quantity", consumes = {MediaType.APPLICATION_JSON_VALUE})
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "Updated"),
-        @ApiResponse(responseCode = "404", description = "Not found",
-                content = @Content(schema = @Schema(implementation = ErrorVm.class))),
+        @ApiResponse(responseCode = "200", description = "Updated",
+                content = @Content(schema = @Schema(implementation = ProductQuantityResultVm.class))),
         @ApiResponse(responseCode = "400", description = "Bad request",
                 content = @Content(schema = @Schema(implementation = ErrorVm.class)))})
-    public ResponseEntity<Void> subtractProductQuantity(
+    public ResponseEntity<List<ProductQuantityResultVm>> subtractProductQuantity(
             @Valid @RequestBody List<ProductQuantityPutVm> productQuantityPutVm
     ) {
-        productService.subtractStockQuantity(productQuantityPutVm);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(productService.subtractStockQuantity(productQuantityPutVm));
     }
 
     @GetMapping("/backoffice/products/by-ids")
@@ -288,4 +347,19 @@ public class ProductController {
         @RequestParam(value = "ids", required = false) List<Long> productIds) {
         return ResponseEntity.ok(productService.getProductCheckoutList(pageNo, pageSize, productIds));
     }
+
+    /**
+     * Sets the timeout of the catalog export before its asynchronous processing starts.
+     */
+    private static class ProductEsExportTimeoutInterceptor implements CallableProcessingInterceptor {
+
+        private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncWebRequest) {
+                asyncWebRequest.setTimeout(TIMEOUT.toMillis());
+            }
+        }
+    }
 }
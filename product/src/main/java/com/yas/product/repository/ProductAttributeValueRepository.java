@@ -2,11 +2,19 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Product;
 import com.yas.product.model.attribute.ProductAttributeValue;
+import com.yas.product.viewmodel.product.ProductIdNameVm;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductAttributeValueRepository extends JpaRepository<ProductAttributeValue, Long> {
     List<ProductAttributeValue> findAllByProduct(Product product);
+
+    @Query("select new com.yas.product.viewmodel.product.ProductIdNameVm(pav.product.id, pa.name)"
+        + " from ProductAttributeValue pav join pav.productAttribute pa where pav.product.id in :productIds")
+    List<ProductIdNameVm> findAttributeNamesByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -2,10 +2,14 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Category;
 import com.yas.product.model.ProductCategory;
+import com.yas.product.viewmodel.product.ProductIdNameVm;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +17,8 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     Page<ProductCategory> findAllByCategory(Pageable pageable, Category category);
 
     List<ProductCategory> findAllByProductId(Long productId);
+
+    @Query("select new com.yas.product.viewmodel.product.ProductIdNameVm(pc.product.id, c.name)"
+        + " from ProductCategory pc join pc.category c where pc.product.id in :productIds")
+    List<ProductIdNameVm> findCategoryNamesByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
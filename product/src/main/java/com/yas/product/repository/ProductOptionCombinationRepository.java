@@ -2,10 +2,12 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Product;
 import com.yas.product.model.ProductOptionCombination;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,6 +19,10 @@ public interface ProductOptionCombinationRepository extends JpaRepository<Produc
 
     List<ProductOptionCombination> findAllByProduct(Product product);
 
+    @Query("select e from ProductOptionCombination e join fetch e.productOption"
+        + " where e.product.id in :productIds")
+    List<ProductOptionCombination> findAllByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     Optional<ProductOptionCombination> findByProductId(Long productId);
 
     void deleteByProductId(Long productId);
@@ -2,10 +2,13 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Brand;
 import com.yas.product.model.Product;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -39,6 +42,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByIdIn(List<Long> productIds);
 
+    @Query("select new com.yas.product.viewmodel.product.ProductEsDetailVm(p.id, p.name, p.slug, p.price,"
+            + " p.isPublished, p.isVisibleIndividually, p.isAllowedToOrder, p.isFeatured, p.thumbnailMediaId, b.name)"
+            + " from Product p left join p.brand b where p.id in :productIds order by p.id asc")
+    List<ProductEsDetailVm> findProductEsDetailsByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select new com.yas.product.viewmodel.product.ProductEsDetailVm(p.id, p.name, p.slug, p.price,"
+            + " p.isPublished, p.isVisibleIndividually, p.isAllowedToOrder, p.isFeatured, p.thumbnailMediaId, b.name)"
+            + " from Product p left join p.brand b where p.id > :lastId order by p.id asc")
+    List<ProductEsDetailVm> findProductEsDetailsByIdGreaterThan(@Param("lastId") long lastId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"productImages"})
+    List<Product> findAllByParentIdAndIsPublishedTrueOrderByIdAsc(Long parentId);
+
     @Query(value = "FROM Product p WHERE p.isFeatured = TRUE "
             + "AND p.isVisibleIndividually = TRUE "
             + "AND p.isPublished = TRUE ORDER BY p.id ASC ")
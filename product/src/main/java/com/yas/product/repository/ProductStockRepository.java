@@ -0,0 +1,65 @@
+package com.yas.product.repository;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based stock updates executed as conditional {@code UPDATE} statements in a single JDBC batch.
+ *
+ * <p>The arithmetic is done by the database, so concurrent reservations on the same product never
+ * overwrite each other and no row is read before being written. Products without stock tracking always
+ * match and keep their quantity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private static final String SUBTRACT_STOCK_QUANTITY_SQL = """
+        update product
+           set stock_quantity = case when stock_tracking_enabled then stock_quantity - ? else stock_quantity end,
+               last_modified_on = current_timestamp
+         where id = ?
+           and (stock_tracking_enabled = false or stock_quantity >= ?)
+        """;
+
+    private static final String RESTORE_STOCK_QUANTITY_SQL = """
+        update product
+           set stock_quantity = case when stock_tracking_enabled then coalesce(stock_quantity, 0) + ?
+                                     else stock_quantity end,
+               last_modified_on = current_timestamp
+         where id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Subtracts the given quantities only where enough stock is left.
+     *
+     * @param quantities the quantity to subtract for each product id, one entry per product
+     * @return the updated row count of each statement, in the order of {@code quantities};
+     *     {@code 0} means the product does not exist or has insufficient stock
+     */
+    public int[] subtractStockQuantities(List<StockQuantity> quantities) {
+        return jdbcTemplate.batchUpdate(SUBTRACT_STOCK_QUANTITY_SQL, quantities.stream()
+            .map(item -> new Object[] {item.quantity(), item.productId(), item.quantity()})
+            .toList());
+    }
+
+    /**
+     * Adds the given quantities back to the stock.
+     *
+     * @param quantities the quantity to add for each product id, one entry per product
+     * @return the updated row count of each statement, in the order of {@code quantities};
+     *     {@code 0} means the product does not exist
+     */
+    public int[] restoreStockQuantities(List<StockQuantity> quantities) {
+        return jdbcTemplate.batchUpdate(RESTORE_STOCK_QUANTITY_SQL, quantities.stream()
+            .map(item -> new Object[] {item.quantity(), item.productId()})
+            .toList());
+    }
+
+    public record StockQuantity(Long productId, Long quantity) {
+    }
+}
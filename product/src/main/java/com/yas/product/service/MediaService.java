@@ -1,11 +1,29 @@
 package com.yas.product.service;
 
 import com.yas.commonlibrary.config.ServiceUrlConfig;
+import com.yas.product.config.CacheConfig;
 import com.yas.product.viewmodel.NoFileMediaVm;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,11 +36,17 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 @RequiredArgsConstructor
 public class MediaService extends AbstractCircuitBreakFallbackHandler {
+    public static final String MEDIA_REQUEST_METRIC = "yas.product.media.requests";
+    public static final String MEDIA_BATCH_SIZE_METRIC = "yas.product.media.batch.size";
+
     private final RestClient restClient;
     private final ServiceUrlConfig serviceUrlConfig;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
 
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaFallback")
+    @CachePut(cacheNames = CacheConfig.MEDIA_CACHE, key = "#result.id", unless = "#result == null")
     public NoFileMediaVm saveFile(MultipartFile multipartFile, String caption, String fileNameOverride) {
         final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media()).path("/medias").build().toUri();
         final String jwt = ((Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
@@ -44,6 +68,8 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
 
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaFallback")
+    @Cacheable(cacheNames = CacheConfig.MEDIA_CACHE, key = "#id", condition = "#id != null",
+        unless = "#result == null || #result.id() == null")
     public NoFileMediaVm getMedia(Long id) {
         if (id == null) {
             //TODO return default no image url
@@ -51,14 +77,71 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
         }
         final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media())
             .path("/medias/{id}").buildAndExpand(id).toUri();
-        return restClient.get()
+        return mediaRequestTimer("single").record(() -> restClient.get()
                 .uri(url)
                 .retrieve()
-                .body(NoFileMediaVm.class);
+                .body(NoFileMediaVm.class));
+    }
+
+    /**
+     * Resolves the urls of many medias with a single call to the media service.
+     * Medias already present in the media cache are served from it, only the missing ones are fetched.
+     *
+     * @param ids the media ids, null values and duplicates are ignored
+     * @return media url by media id, ids unknown to the media service are absent from the map
+     */
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaUrlsFallback")
+    public Map<Long, String> getMediaUrlsByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, String> mediaUrls = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        Cache mediaCache = cacheManager.getCache(CacheConfig.MEDIA_CACHE);
+        for (Long id : distinctIds) {
+            NoFileMediaVm cachedMedia = mediaCache == null ? null : mediaCache.get(id, NoFileMediaVm.class);
+            if (cachedMedia == null) {
+                missingIds.add(id);
+            } else {
+                mediaUrls.put(id, Objects.toString(cachedMedia.url(), ""));
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return mediaUrls;
+        }
+
+        final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media())
+            .path("/medias").queryParam("ids", missingIds).build().toUri();
+        DistributionSummary.builder(MEDIA_BATCH_SIZE_METRIC)
+            .description("Number of media ids resolved per batch call")
+            .register(meterRegistry)
+            .record(missingIds.size());
+        // media service answers 404 when none of the ids exist, treat it as an empty result
+        List<NoFileMediaVm> medias = mediaRequestTimer("batch").record(() -> restClient.get()
+                .uri(url)
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> { })
+                .body(new ParameterizedTypeReference<List<NoFileMediaVm>>() {
+                }));
+        if (medias != null) {
+            medias.stream()
+                .filter(media -> media.id() != null)
+                .forEach(media -> {
+                    if (mediaCache != null) {
+                        mediaCache.put(media.id(), media);
+                    }
+                    mediaUrls.putIfAbsent(media.id(), Objects.toString(media.url(), ""));
+                });
+        }
+        return mediaUrls;
     }
 
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
+    @CacheEvict(cacheNames = CacheConfig.MEDIA_CACHE, key = "#id")
     public void removeMedia(Long id) {
         final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media()).path("/medias/{id}")
             .buildAndExpand(id).toUri();
@@ -71,7 +154,18 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
                 .body(Void.class);
     }
 
+    private Timer mediaRequestTimer(String operation) {
+        return Timer.builder(MEDIA_REQUEST_METRIC)
+            .description("Latency of calls from product to the media service")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
     private NoFileMediaVm handleMediaFallback(Throwable throwable) throws Throwable {
         return handleTypedFallback(throwable);
     }
+
+    private Map<Long, String> handleMediaUrlsFallback(Throwable throwable) throws Throwable {
+        return handleTypedFallback(throwable);
+    }
 }
@@ -5,6 +5,7 @@ import com.yas.product.model.Brand;
 import com.yas.product.model.Category;
 import com.yas.product.model.Product;
 import com.yas.product.model.ProductCategory;
+import com.yas.product.model.ProductImage;
 import com.yas.product.model.ProductOptionCombination;
 import com.yas.product.repository.ProductOptionCombinationRepository;
 import com.yas.product.repository.ProductRepository;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,7 +59,6 @@ public class ProductDetailService {
      * @throws NotFoundException if no product is found with the given {@code productId}
      */
     public ProductDetailInfoVm getProductDetailById(long productId) {
-        List<ProductVariationGetVm> variations = new ArrayList<>();
         Product product = productRepository
                 .findById(productId)
                 .filter(Product::isPublished)
@@ -83,33 +84,11 @@ public class ProductDetailService {
                 .map(ProductAttributeValueGetVm::fromModel)
                 .toList();
 
-        if (Boolean.TRUE.equals(product.isHasOptions())) {
-            List<Product> productVariations = product.getProducts()
-                    .stream()
-                    .toList();
-            variations = productVariations.stream()
-                    .filter(Product::isPublished)
-                    .map(pro -> {
-                        List<ProductOptionCombination> productOptionCombinations =
-                                productOptionCombinationRepository.findAllByProduct(pro);
-                        Map<Long, String> options = productOptionCombinations.stream().collect(Collectors.toMap(
-                                productOptionCombination -> productOptionCombination.getProductOption().getId(),
-                                ProductOptionCombination::getValue
-                        ));
-
-                        return new ProductVariationGetVm(
-                                pro.getId(),
-                                pro.getName(),
-                                pro.getSlug(),
-                                pro.getSku(),
-                                pro.getGtin(),
-                                pro.getPrice(),
-                                getThumbnailFromProduct(pro),
-                                getImagesFromProduct(pro),
-                                options
-                        );
-                    }).toList();
-        }
+        List<Product> productVariations = getPublishedVariations(product);
+        Map<Long, String> mediaUrls = getMediaUrls(
+                Stream.concat(Stream.of(product), productVariations.stream()).toList());
+        List<ProductVariationGetVm> variations = toVariationVms(productVariations, mediaUrls);
+
         return new ProductDetailInfoVm(product.getId(),
                 product.getName(),
                 product.getShortDescription(),
@@ -133,23 +112,87 @@ public class ProductDetailService {
                 brandName,
                 productAttributes,
                 variations,
-                getThumbnailFromProduct(product),
-                getImagesFromProduct(product)
+                getThumbnailFromProduct(product, mediaUrls),
+                getImagesFromProduct(product, mediaUrls)
         );
     }
 
-    private ImageVm getThumbnailFromProduct(Product product) {
+    /**
+     * Retrieves the published variations of a product with their option values and medias.
+     * The number of queries is fixed: one for the variations with their images, one for all
+     * their option combinations and one batch call to the media service, whatever the number of variations.
+     *
+     * @param parentProductId the unique identifier of the parent product
+     * @return the published variations, empty if the product has no options
+     * @throws NotFoundException if no product is found with the given {@code parentProductId}
+     */
+    public List<ProductVariationGetVm> getProductVariations(long parentProductId) {
+        Product parentProduct = productRepository.findById(parentProductId)
+                .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, parentProductId));
+        List<Product> productVariations = getPublishedVariations(parentProduct);
+        return toVariationVms(productVariations, getMediaUrls(productVariations));
+    }
+
+    private List<Product> getPublishedVariations(Product parentProduct) {
+        if (!Boolean.TRUE.equals(parentProduct.isHasOptions())) {
+            return Collections.emptyList();
+        }
+        return productRepository.findAllByParentIdAndIsPublishedTrueOrderByIdAsc(parentProduct.getId());
+    }
+
+    private List<ProductVariationGetVm> toVariationVms(List<Product> productVariations, Map<Long, String> mediaUrls) {
+        if (productVariations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Map<Long, String>> optionsByProductId = productOptionCombinationRepository
+                .findAllByProductIdIn(productVariations.stream().map(Product::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(
+                        productOptionCombination -> productOptionCombination.getProduct().getId(),
+                        Collectors.toMap(
+                                productOptionCombination -> productOptionCombination.getProductOption().getId(),
+                                ProductOptionCombination::getValue
+                        )
+                ));
+
+        return productVariations.stream()
+                .map(pro -> new ProductVariationGetVm(
+                        pro.getId(),
+                        pro.getName(),
+                        pro.getSlug(),
+                        pro.getSku(),
+                        pro.getGtin(),
+                        pro.getPrice(),
+                        getThumbnailFromProduct(pro, mediaUrls),
+                        getImagesFromProduct(pro, mediaUrls),
+                        optionsByProductId.getOrDefault(pro.getId(), Collections.emptyMap())
+                ))
+                .toList();
+    }
+
+    private Map<Long, String> getMediaUrls(List<Product> products) {
+        return mediaService.getMediaUrlsByIds(products.stream()
+                .flatMap(product -> Stream.concat(
+                        Stream.of(product.getThumbnailMediaId()),
+                        getProductImages(product).stream().map(ProductImage::getImageId)))
+                .toList());
+    }
+
+    private ImageVm getThumbnailFromProduct(Product product, Map<Long, String> mediaUrls) {
         return Optional.ofNullable(product.getThumbnailMediaId())
-                .map(thumbnailId -> new ImageVm(thumbnailId, mediaService.getMedia(thumbnailId).url()))
+                .map(thumbnailId -> new ImageVm(thumbnailId, mediaUrls.getOrDefault(thumbnailId, "")))
                 .orElse(null);
 
     }
 
-    private List<ImageVm> getImagesFromProduct(Product product) {
-        return Optional.ofNullable(product.getProductImages())
-                .orElse(Collections.emptyList())
+    private List<ImageVm> getImagesFromProduct(Product product, Map<Long, String> mediaUrls) {
+        return getProductImages(product)
                 .stream()
-                .map(image -> new ImageVm(image.getImageId(), mediaService.getMedia(image.getImageId()).url()))
+                .map(image -> new ImageVm(image.getImageId(), mediaUrls.getOrDefault(image.getImageId(), "")))
                 .toList();
     }
+
+    private List<ProductImage> getProductImages(Product product) {
+        return Optional.ofNullable(product.getProductImages()).orElse(Collections.emptyList());
+    }
 }
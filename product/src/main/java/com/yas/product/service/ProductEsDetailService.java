@@ -0,0 +1,114 @@
+package com.yas.product.service;
+
+import com.yas.product.repository.ProductAttributeValueRepository;
+import com.yas.product.repository.ProductCategoryRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import com.yas.product.viewmodel.product.ProductIdNameVm;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service serving product details for the search index in bulk.
+ *
+ * <p>Products are read by chunks of {@value #CHUNK_SIZE}, each chunk costing three queries whatever its size:
+ * products with their brand, category names and attribute names.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductEsDetailService {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final ProductAttributeValueRepository productAttributeValueRepository;
+
+    /**
+     * Retrieves the details of the products following {@code lastId}, to page through the whole catalog.
+     *
+     * @param lastId the last product id already read, exclusive
+     * @param size   the maximum number of products
+     * @return the details ordered by product id
+     */
+    public List<ProductEsDetailVm> getProductEsDetailsAfter(long lastId, int size) {
+        return withNames(productRepository.findProductEsDetailsByIdGreaterThan(lastId, PageRequest.of(0, size)));
+    }
+
+    /**
+     * Reads the details of {@code productIds} chunk by chunk and hands every chunk to {@code chunkConsumer}.
+     *
+     * @param productIds    the product ids to read
+     * @param chunkConsumer the consumer of each chunk
+     */
+    public void exportProductEsDetails(List<Long> productIds, Consumer<List<ProductEsDetailVm>> chunkConsumer) {
+        ListUtils.partition(productIds.stream().distinct().toList(), CHUNK_SIZE)
+            .forEach(ids -> chunkConsumer.accept(withNames(productRepository.findProductEsDetailsByIdIn(ids))));
+    }
+
+    /**
+     * Pages through the catalog ordered by id and hands every chunk to {@code chunkConsumer}, so that
+     * the caller can stream it without holding the whole result.
+     *
+     * <p>The export runs outside of a transaction, each chunk being read by its own short read-only queries,
+     * so that a slow consumer does not hold a database connection for the whole catalog.
+     *
+     * @param lastId        the last product id already read, exclusive, or {@code null} to start from the first
+     * @param limit         the maximum number of products, or {@code null} for no limit
+     * @param chunkConsumer the consumer of each chunk
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportProductEsDetailsAfter(Long lastId, Integer limit,
+                                            Consumer<List<ProductEsDetailVm>> chunkConsumer) {
+        long cursor = lastId == null ? 0 : lastId;
+        long remaining = limit == null ? Long.MAX_VALUE : limit;
+        while (remaining > 0) {
+            int size = (int) Math.min(CHUNK_SIZE, remaining);
+            List<ProductEsDetailVm> chunk = getProductEsDetailsAfter(cursor, size);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunkConsumer.accept(chunk);
+            cursor = chunk.getLast().id();
+            remaining -= chunk.size();
+            if (chunk.size() < size) {
+                return;
+            }
+        }
+    }
+
+    private List<ProductEsDetailVm> withNames(List<ProductEsDetailVm> productEsDetails) {
+        if (productEsDetails.isEmpty()) {
+            return productEsDetails;
+        }
+        List<Long> productIds = productEsDetails.stream().map(ProductEsDetailVm::id).toList();
+        Map<Long, List<String>> categoryNames =
+            groupNames(productCategoryRepository.findCategoryNamesByProductIdIn(productIds));
+        Map<Long, List<String>> attributeNames =
+            groupNames(productAttributeValueRepository.findAttributeNamesByProductIdIn(productIds));
+
+        return productEsDetails.stream()
+            .map(productEsDetail -> productEsDetail.withNames(
+                categoryNames.getOrDefault(productEsDetail.id(), List.of()),
+                attributeNames.getOrDefault(productEsDetail.id(), List.of())
+            ))
+            .toList();
+    }
+
+    private static Map<Long, List<String>> groupNames(Collection<ProductIdNameVm> productIdNames) {
+        return productIdNames.stream().collect(Collectors.groupingBy(
+            ProductIdNameVm::productId,
+            Collectors.mapping(ProductIdNameVm::name, Collectors.toList())
+        ));
+    }
+}
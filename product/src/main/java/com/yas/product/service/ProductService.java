@@ -27,6 +27,8 @@ import com.yas.product.repository.ProductOptionRepository;
 import com.yas.product.repository.ProductOptionValueRepository;
 import com.yas.product.repository.ProductRelatedRepository;
 import com.yas.product.repository.ProductRepository;
+import com.yas.product.repository.ProductStockRepository;
+import com.yas.product.repository.ProductStockRepository.StockQuantity;
 import com.yas.product.utils.Constants;
 import com.yas.product.viewmodel.ImageVm;
 import com.yas.product.viewmodel.product.ProductCheckoutListVm;
@@ -46,6 +48,7 @@ import com.yas.product.viewmodel.product.ProductProperties;
 import com.yas.product.viewmodel.product.ProductPutVm;
 import com.yas.product.viewmodel.product.ProductQuantityPostVm;
 import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
 import com.yas.product.viewmodel.product.ProductSaveVm;
 import com.yas.product.viewmodel.product.ProductSlugGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
@@ -60,17 +63,17 @@ import io.micrometer.common.util.StringUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.ListUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -92,6 +95,8 @@ public class ProductService {
     private final ProductOptionValueRepository productOptionValueRepository;
     private final ProductOptionCombinationRepository productOptionCombinationRepository;
     private final ProductRelatedRepository productRelatedRepository;
+    private final ProductDetailService productDetailService;
+    private final ProductStockRepository productStockRepository;
 
     public ProductService(ProductRepository productRepository,
                           MediaService mediaService,
@@ -102,7 +107,9 @@ public class ProductService {
                           ProductOptionRepository productOptionRepository,
                           ProductOptionValueRepository productOptionValueRepository,
                           ProductOptionCombinationRepository productOptionCombinationRepository,
-                          ProductRelatedRepository productRelatedRepository) {
+                          ProductRelatedRepository productRelatedRepository,
+                          ProductDetailService productDetailService,
+                          ProductStockRepository productStockRepository) {
         this.productRepository = productRepository;
         this.mediaService = mediaService;
         this.brandRepository = brandRepository;
@@ -113,6 +120,8 @@ public class ProductService {
         this.productOptionValueRepository = productOptionValueRepository;
         this.productOptionCombinationRepository = productOptionCombinationRepository;
         this.productRelatedRepository = productRelatedRepository;
+        this.productDetailService = productDetailService;
+        this.productStockRepository = productStockRepository;
     }
 
     public ProductGetDetailVm createProduct(ProductPostVm productPostVm) {
@@ -638,17 +647,18 @@ public class ProductService {
             .orElseThrow(() ->
                 new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, productId)
             );
-        List<ImageVm> productImageMedias = new ArrayList<>();
-        if (null != product.getProductImages()) {
-            for (ProductImage image : product.getProductImages()) {
-                productImageMedias.add(new ImageVm(image.getImageId(),
-                    mediaService.getMedia(image.getImageId()).url()));
-            }
-        }
+        List<ProductImage> productImages = Optional.ofNullable(product.getProductImages()).orElse(List.of());
+        List<Long> mediaIds = new ArrayList<>(productImages.stream().map(ProductImage::getImageId).toList());
+        mediaIds.add(product.getThumbnailMediaId());
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(mediaIds);
+
+        List<ImageVm> productImageMedias = productImages.stream()
+            .map(image -> new ImageVm(image.getImageId(), mediaUrls.getOrDefault(image.getImageId(), "")))
+            .toList();
         ImageVm thumbnailMedia = null;
         if (null != product.getThumbnailMediaId()) {
             thumbnailMedia = new ImageVm(product.getThumbnailMediaId(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url());
+                mediaUrls.getOrDefault(product.getThumbnailMediaId(), ""));
         }
         List<Category> categories = new ArrayList<>();
         if (null != product.getProductCategories()) {
@@ -716,12 +726,13 @@ public class ProductService {
             .findBySlug(brandSlug)
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.BRAND_NOT_FOUND, brandSlug));
         List<Product> products = productRepository.findAllByBrandAndIsPublishedTrueOrderByIdAsc(brand);
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url()));
+                thumbnailUrls.getOrDefault(product.getThumbnailMediaId(), "")));
         }
         return productThumbnailVms;
     }
@@ -737,12 +748,13 @@ public class ProductService {
         List<ProductCategory> productList = productCategoryPage.getContent();
         List<Product> products = productList.stream()
             .map(ProductCategory::getProduct).toList();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url()));
+                thumbnailUrls.getOrDefault(product.getThumbnailMediaId(), "")));
         }
         return new ProductListGetFromCategoryVm(
             productThumbnailVms,
@@ -756,26 +768,26 @@ public class ProductService {
 
     public List<ProductThumbnailGetVm> getFeaturedProductsById(List<Long> productIds) {
         List<Product> products = productRepository.findAllByIdIn(productIds);
-        return products.stream().map(product -> {
-
-            String thumbnailUrl = mediaService.getMedia(product.getThumbnailMediaId()).url();
-            if (StringUtils.isNotEmpty(thumbnailUrl) || Objects.isNull(product.getParent())) {
-                return new ProductThumbnailGetVm(
-                    product.getId(),
-                    product.getName(),
-                    product.getSlug(),
-                    thumbnailUrl,
-                    product.getPrice());
-            }
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
 
-            Optional<Product> parentProduct = productRepository.findById(product.getParent().getId());
+        // variations without their own thumbnail fall back to the parent's one, resolved in a second batch
+        List<Product> parentProducts = products.stream()
+            .filter(product -> StringUtils.isEmpty(thumbnailUrls.get(product.getThumbnailMediaId()))
+                && Objects.nonNull(product.getParent()))
+            .map(Product::getParent)
+            .toList();
+        Map<Long, String> parentThumbnailUrls = getThumbnailUrls(parentProducts);
 
+        return products.stream().map(product -> {
+            String thumbnailUrl = thumbnailUrls.getOrDefault(product.getThumbnailMediaId(), "");
+            if (StringUtils.isEmpty(thumbnailUrl) && Objects.nonNull(product.getParent())) {
+                thumbnailUrl = parentThumbnailUrls.getOrDefault(product.getParent().getThumbnailMediaId(), "");
+            }
             return new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                parentProduct.map(pr -> mediaService.getMedia(pr.getThumbnailMediaId()).url())
-                    .orElse(""),
+                thumbnailUrl,
                 product.getPrice());
         }).toList();
     }
@@ -785,12 +797,13 @@ public class ProductService {
         List<ProductThumbnailGetVm> productThumbnailVms = new ArrayList<>();
         Page<Product> productPage = productRepository.getFeaturedProduct(pageable);
         List<Product> products = productPage.getContent();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url(),
+                thumbnailUrls.getOrDefault(product.getThumbnailMediaId(), ""),
                 product.getPrice()));
         }
         return new ProductFeatureGetVm(productThumbnailVms, productPage.getTotalPages());
@@ -801,14 +814,15 @@ public class ProductService {
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, slug));
 
         Long productThumbnailMediaId = product.getThumbnailMediaId();
-        String productThumbnailUrl = mediaService.getMedia(productThumbnailMediaId).url();
-
-        List<String> productImageMediaUrls = new ArrayList<>();
-        if (CollectionUtils.isNotEmpty(product.getProductImages())) {
-            for (ProductImage image : product.getProductImages()) {
-                productImageMediaUrls.add(mediaService.getMedia(image.getImageId()).url());
-            }
-        }
+        List<ProductImage> productImages = Optional.ofNullable(product.getProductImages()).orElse(List.of());
+        List<Long> mediaIds = new ArrayList<>(productImages.stream().map(ProductImage::getImageId).toList());
+        mediaIds.add(productThumbnailMediaId);
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(mediaIds);
+
+        String productThumbnailUrl = mediaUrls.getOrDefault(productThumbnailMediaId, "");
+        List<String> productImageMediaUrls = productImages.stream()
+            .map(image -> mediaUrls.getOrDefault(image.getImageId(), ""))
+            .toList();
 
         List<ProductAttributeGroupGetVm> productAttributeGroupsVm = new ArrayList<>();
         List<ProductAttributeValue> productAttributeValues = product.getAttributeValues();
@@ -895,12 +909,13 @@ public class ProductService {
 
         List<ProductThumbnailGetVm> productThumbnailVms = new ArrayList<>();
         List<Product> products = productPage.getContent();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url(),
+                thumbnailUrls.getOrDefault(product.getThumbnailMediaId(), ""),
                 product.getPrice()));
         }
 
@@ -915,40 +930,7 @@ public class ProductService {
     }
 
     public List<ProductVariationGetVm> getProductVariationsByParentId(Long id) {
-        Product parentProduct = productRepository.findById(id)
-            .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, id));
-        if (Boolean.TRUE.equals(parentProduct.isHasOptions())) {
-            List<Product> productVariations
-                = parentProduct.getProducts().stream().filter(Product::isPublished).toList();
-
-            return productVariations.stream().map(product -> {
-                List<ProductOptionCombination> productOptionCombinations =
-                    productOptionCombinationRepository.findAllByProduct(product);
-                Map<Long, String> options = productOptionCombinations.stream().collect(Collectors.toMap(
-                    productOptionCombination -> productOptionCombination.getProductOption().getId(),
-                    ProductOptionCombination::getValue
-                ));
-                ImageVm image = null;
-                if (product.getThumbnailMediaId() != null) {
-                    image = new ImageVm(product.getThumbnailMediaId(),
-                        mediaService.getMedia(product.getThumbnailMediaId()).url());
-                }
-                return new ProductVariationGetVm(
-                    product.getId(),
-                    product.getName(),
-                    product.getSlug(),
-                    product.getSku(),
-                    product.getGtin(),
-                    product.getPrice(),
-                    image,
-                    product.getProductImages().stream()
-                        .map(productImage -> new ImageVm(productImage.getImageId(),
-                            mediaService.getMedia(productImage.getImageId()).url())).toList(),
-                    options
-                );
-            }).toList();
-        }
-        return Collections.emptyList();
+        return productDetailService.getProductVariations(id);
     }
 
     public List<ProductExportingDetailVm> exportProducts(String productName, String brandName) {
@@ -995,34 +977,7 @@ public class ProductService {
             .orElseThrow(() ->
                 new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, productId)
             );
-
-        Long thumbnailMediaId = null;
-        if (null != product.getThumbnailMediaId()) {
-            thumbnailMediaId = product.getThumbnailMediaId();
-        }
-        List<String> categoryNames = product.getProductCategories().stream().map(productCategory
-            -> productCategory.getCategory().getName()).toList();
-        List<String> attributeNames = product.getAttributeValues().stream().map(attributeValue
-            -> attributeValue.getProductAttribute().getName()).toList();
-
-        String brandName = null;
-        if (null != product.getBrand()) {
-            brandName = product.getBrand().getName();
-        }
-
-        return new ProductEsDetailVm(product.getId(),
-            product.getName(),
-            product.getSlug(),
-            product.getPrice(),
-            product.isPublished(),
-            product.isVisibleIndividually(),
-            product.isAllowedToOrder(),
-            product.isFeatured(),
-            thumbnailMediaId,
-            brandName,
-            categoryNames,
-            attributeNames
-        );
+        return ProductEsDetailVm.fromModel(product);
     }
 
     public List<ProductListVm> getRelatedProductsBackoffice(Long id) {
@@ -1053,17 +1008,18 @@ public class ProductService {
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, id));
         Page<ProductRelated> relatedProductsPage
             = productRelatedRepository.findAllByProduct(product, PageRequest.of(pageNo, pageSize));
-        List<ProductThumbnailGetVm> productThumbnailVms = relatedProductsPage.stream()
-            .filter(productRelated -> productRelated.getRelatedProduct().isPublished())
-            .map(productRelated -> {
-                Product relatedProduct = productRelated.getRelatedProduct();
-                return new ProductThumbnailGetVm(
-                    relatedProduct.getId(),
-                    relatedProduct.getName(),
-                    relatedProduct.getSlug(),
-                    mediaService.getMedia(relatedProduct.getThumbnailMediaId()).url(),
-                    relatedProduct.getPrice());
-            })
+        List<Product> relatedProducts = relatedProductsPage.stream()
+            .map(ProductRelated::getRelatedProduct)
+            .filter(Product::isPublished)
+            .toList();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(relatedProducts);
+        List<ProductThumbnailGetVm> productThumbnailVms = relatedProducts.stream()
+            .map(relatedProduct -> new ProductThumbnailGetVm(
+                relatedProduct.getId(),
+                relatedProduct.getName(),
+                relatedProduct.getSlug(),
+                thumbnailUrls.getOrDefault(relatedProduct.getThumbnailMediaId(), ""),
+                relatedProduct.getPrice()))
             .toList();
         return new ProductsGetVm(
             productThumbnailVms,
@@ -1095,67 +1051,75 @@ public class ProductService {
         productRepository.saveAll(products);
     }
 
-    private void partitionUpdateStockQuantityByCalculation(List<ProductQuantityPutVm> productQuantityItems,
-                                                           BiFunction<Long, Long, Long> calculation) {
-        var productIds = productQuantityItems.stream()
-            .map(ProductQuantityPutVm::productId)
+    /**
+     * Reserves stock for each item with a conditional update, all items being sent in one JDBC batch.
+     * The reservation is all-or-nothing: when an item does not exist or lacks stock, the whole batch is
+     * rolled back.
+     *
+     * @param productQuantityItems the positive quantities to subtract, several entries for a product are merged
+     * @return the result of each product, in the order the products first appear
+     * @throws BadRequestException when a quantity is not positive, or an item could not be reserved
+     */
+    public List<ProductQuantityResultVm> subtractStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
+        List<StockQuantity> quantities = mergeProductQuantityItems(productQuantityItems);
+        List<ProductQuantityResultVm> results =
+            toProductQuantityResults(quantities, productStockRepository.subtractStockQuantities(quantities));
+        List<Long> failedProductIds = results.stream()
+            .filter(result -> !result.success())
+            .map(ProductQuantityResultVm::productId)
             .toList();
-
-        var productQuantityItemMap = productQuantityItems.stream()
-            .collect(Collectors.toMap(
-                ProductQuantityPutVm::productId,
-                Function.identity(),
-                this::mergeProductQuantityItem
-            ));
-
-
-        List<Product> products = this.productRepository.findAllByIdIn(productIds);
-        products.forEach(product -> {
-            if (product.isStockTrackingEnabled()) {
-                long amount = getRemainAmountOfStockQuantity(productQuantityItemMap, product, calculation);
-                product.setStockQuantity(amount);
-            }
-        });
-        this.productRepository.saveAll(products);
-    }
-
-    public void subtractStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
-        ListUtils.partition(productQuantityItems, 5)
-            .forEach(it -> partitionUpdateStockQuantityByCalculation(it, this.subtractStockQuantity()));
-    }
-
-    private BiFunction<Long, Long, Long> subtractStockQuantity() {
-        return (totalQuantity, amount) -> {
-            long result = totalQuantity - amount;
-            return result < 0 ? 0 : result;
-        };
+        if (!failedProductIds.isEmpty()) {
+            throw new BadRequestException(Constants.ErrorCode.INSUFFICIENT_STOCK_QUANTITY, failedProductIds);
+        }
+        return results;
     }
 
     public List<ProductListVm> getProductByIds(List<Long> productIds) {
         return this.productRepository.findAllByIdIn(productIds).stream().map(ProductListVm::fromModel).toList();
     }
 
-    public void restoreStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
-        ListUtils.partition(productQuantityItems, 5)
-            .forEach(it -> partitionUpdateStockQuantityByCalculation(it, this.restoreStockQuantity()));
+    /**
+     * Adds stock back for each item, all items being sent in one JDBC batch.
+     *
+     * @param productQuantityItems the positive quantities to restore, several entries for a product are merged
+     * @return the result of each product, in the order the products first appear
+     * @throws BadRequestException when a quantity is not positive
+     */
+    public List<ProductQuantityResultVm> restoreStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
+        List<StockQuantity> quantities = mergeProductQuantityItems(productQuantityItems);
+        return toProductQuantityResults(quantities, productStockRepository.restoreStockQuantities(quantities));
     }
 
-    private BiFunction<Long, Long, Long> restoreStockQuantity() {
-        return Long::sum;
-    }
-
-    private Long getRemainAmountOfStockQuantity(Map<Long, ProductQuantityPutVm> productQuantityItemMap,
-                                                Product product, BiFunction<Long, Long, Long> calculation) {
-        Long stockQuantity = product.getStockQuantity();
-        var productItem = productQuantityItemMap.get(product.getId());
-        Long quantity = productItem.quantity();
-        return calculation.apply(stockQuantity, quantity);
+    private List<StockQuantity> mergeProductQuantityItems(List<ProductQuantityPutVm> productQuantityItems) {
+        // A negative quantity would move the stock the other way and still pass the stock guard.
+        productQuantityItems.stream()
+            .filter(item -> item.quantity() == null || item.quantity() <= 0)
+            .findFirst()
+            .ifPresent(item -> {
+                throw new BadRequestException(Constants.ErrorCode.INVALID_STOCK_QUANTITY, item.productId());
+            });
+        return productQuantityItems.stream()
+            .collect(Collectors.toMap(
+                ProductQuantityPutVm::productId,
+                ProductQuantityPutVm::quantity,
+                Long::sum,
+                LinkedHashMap::new
+            ))
+            .entrySet()
+            .stream()
+            .map(entry -> new StockQuantity(entry.getKey(), entry.getValue()))
+            .toList();
     }
 
-    private ProductQuantityPutVm mergeProductQuantityItem(ProductQuantityPutVm p1, ProductQuantityPutVm p2) {
-        var q1 = p1.quantity();
-        var q2 = p2.quantity();
-        return new ProductQuantityPutVm(p1.productId(), q1 + q2);
+    private List<ProductQuantityResultVm> toProductQuantityResults(List<StockQuantity> quantities,
+                                                                   int[] updatedRows) {
+        return IntStream.range(0, quantities.size())
+            .mapToObj(index -> new ProductQuantityResultVm(
+                quantities.get(index).productId(),
+                quantities.get(index).quantity(),
+                updatedRows[index] > 0
+            ))
+            .toList();
     }
 
     public List<ProductListVm> getProductByCategoryIds(List<Long> categoryIds) {
@@ -1169,10 +1133,11 @@ public class ProductService {
     public ProductGetCheckoutListVm getProductCheckoutList(int pageNo, int pageSize, List<Long> productIds) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
         Page<Product> productPage = productRepository.findAllPublishedProductsByIds(productIds, pageable);
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(productPage.getContent());
 
         List<ProductCheckoutListVm> productCheckoutListVms = productPage.getContent()
             .stream().map(product -> {
-                String thumbnailUrl = mediaService.getMedia(product.getThumbnailMediaId()).url();
+                String thumbnailUrl = thumbnailUrls.get(product.getThumbnailMediaId());
                 ProductCheckoutListVm productCheckoutListVm = ProductCheckoutListVm.fromModel(product);
                 if (StringUtils.isNotEmpty(thumbnailUrl)) {
                     return productCheckoutListVm.toBuilder().thumbnailUrl(thumbnailUrl).build();
@@ -1188,4 +1153,8 @@ public class ProductService {
             productPage.isLast()
         );
     }
+
+    private Map<Long, String> getThumbnailUrls(List<Product> products) {
+        return mediaService.getMediaUrlsByIds(products.stream().map(Product::getThumbnailMediaId).toList());
+    }
 }
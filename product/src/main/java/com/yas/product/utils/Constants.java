@@ -35,5 +35,7 @@ public final class Constants {
         public static final String PRODUCT_COMBINATION_PROCESSING_FAILED = "PRODUCT_COMBINATION_PROCESSING_FAILED";
         public static final String NO_MATCHING_PRODUCT_OPTIONS = "NO_MATCHING_PRODUCT_OPTIONS";
         public static final String MAKE_SURE_LENGTH_GREATER_THAN_WIDTH = "MAKE_SURE_LENGTH_GREATER_THAN_WIDTH";
+        public static final String INVALID_STOCK_QUANTITY = "INVALID_STOCK_QUANTITY";
+        public static final String INSUFFICIENT_STOCK_QUANTITY = "INSUFFICIENT_STOCK_QUANTITY";
     }
 }
@@ -1,6 +1,9 @@
 package com.yas.product.viewmodel.product;
 
+import com.yas.product.model.Brand;
+import com.yas.product.model.Product;
 import java.util.List;
+import java.util.Optional;
 
 public record ProductEsDetailVm(
         Long id,
@@ -15,4 +18,41 @@ public record ProductEsDetailVm(
         String brand,
         List<String> categories,
         List<String> attributes) {
+
+    /**
+     * Constructor used by JPQL projections, names are filled in afterward with {@link #withNames}.
+     */
+    public ProductEsDetailVm(Long id, String name, String slug, Double price, boolean isPublished,
+                             boolean isVisibleIndividually, boolean isAllowedToOrder, boolean isFeatured,
+                             Long thumbnailMediaId, String brand) {
+        this(id, name, slug, price, isPublished, isVisibleIndividually, isAllowedToOrder, isFeatured,
+            thumbnailMediaId, brand, List.of(), List.of());
+    }
+
+    public ProductEsDetailVm withNames(List<String> categories, List<String> attributes) {
+        return new ProductEsDetailVm(id, name, slug, price, isPublished, isVisibleIndividually, isAllowedToOrder,
+            isFeatured, thumbnailMediaId, brand, categories, attributes);
+    }
+
+    public static ProductEsDetailVm fromModel(Product product) {
+        List<String> categoryNames = product.getProductCategories().stream().map(productCategory
+            -> productCategory.getCategory().getName()).toList();
+        List<String> attributeNames = product.getAttributeValues().stream().map(attributeValue
+            -> attributeValue.getProductAttribute().getName()).toList();
+        String brandName = Optional.ofNullable(product.getBrand()).map(Brand::getName).orElse(null);
+
+        return new ProductEsDetailVm(product.getId(),
+            product.getName(),
+            product.getSlug(),
+            product.getPrice(),
+            product.isPublished(),
+            product.isVisibleIndividually(),
+            product.isAllowedToOrder(),
+            product.isFeatured(),
+            product.getThumbnailMediaId(),
+            brandName,
+            categoryNames,
+            attributeNames
+        );
+    }
 }
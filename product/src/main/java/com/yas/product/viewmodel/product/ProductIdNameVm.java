@@ -0,0 +1,7 @@
+package com.yas.product.viewmodel.product;
+
+/**
+ * A name attached to a product, such as one of its category or attribute names.
+ */
+public record ProductIdNameVm(Long productId, String name) {
+}
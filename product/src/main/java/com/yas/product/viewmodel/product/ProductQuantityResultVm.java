@@ -0,0 +1,11 @@
+package com.yas.product.viewmodel.product;
+
+/**
+ * Outcome of a stock update for a single product.
+ *
+ * @param productId the product id
+ * @param quantity  the requested quantity, merged when the product was listed several times
+ * @param success   {@code false} when the product does not exist or its stock is insufficient
+ */
+public record ProductQuantityResultVm(Long productId, Long quantity, boolean success) {
+}
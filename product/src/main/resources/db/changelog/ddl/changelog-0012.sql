@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset product:issue-cdc-column-filter-1
+-- The CDC update events carry the whole previous row, so that consumers can tell which columns changed.
+alter table product replica identity full;
@@ -0,0 +1,133 @@
+package com.yas.product.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.product.config.SecurityConfig;
+import com.yas.product.service.ProductDetailService;
+import com.yas.product.service.ProductEsDetailService;
+import com.yas.product.service.ProductService;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Tests for the NDJSON export of the product details for the search index, through the security filters.
+ *
+ * <p>Test Doubles Used:
+ *   - Mock: the product services, and the JwtDecoder which maps a bearer token to the roles of its user
+ */
+@WebMvcTest(controllers = ProductController.class)
+@Import(SecurityConfig.class)
+@DisplayName("ProductController ES Export Tests")
+class ProductControllerEsExportTest {
+
+    private static final String EXPORT_URL = "/backoffice/products-es";
+    private static final String ADMIN_TOKEN = "admin-token";
+    private static final String CUSTOMER_TOKEN = "customer-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductDetailService productDetailService;
+
+    @MockBean
+    private ProductEsDetailService productEsDetailService;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    @DisplayName("Should stream the catalog after the last id as one JSON product per line to an administrator")
+    void exportProductEsDetails_whenUserIsAdmin_thenProductsAreStreamedAsNdjson() throws Exception {
+        // Given
+        when(jwtDecoder.decode(ADMIN_TOKEN)).thenReturn(jwt(ADMIN_TOKEN, "ADMIN"));
+        doAnswer(invocation -> {
+            Consumer<List<ProductEsDetailVm>> chunkConsumer = invocation.getArgument(2);
+            chunkConsumer.accept(List.of(product(6L)));
+            chunkConsumer.accept(List.of(product(7L)));
+            return null;
+        }).when(productEsDetailService).exportProductEsDetailsAfter(eq(5L), eq(2), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get(EXPORT_URL)
+                .param("lastId", "5")
+                .param("limit", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(0), ProductEsDetailVm.class)).isEqualTo(product(6L));
+        assertThat(objectMapper.readValue(lines.get(1), ProductEsDetailVm.class)).isEqualTo(product(7L));
+    }
+
+    @Test
+    @DisplayName("Should reject an anonymous export of the catalog")
+    void exportProductEsDetails_whenAnonymous_thenUnauthorized() throws Exception {
+        mockMvc.perform(get(EXPORT_URL))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(productEsDetailService);
+    }
+
+    @Test
+    @DisplayName("Should forbid the export of the catalog to a user who is not an administrator")
+    void exportProductEsDetails_whenUserIsNotAdmin_thenForbidden() throws Exception {
+        // Given
+        when(jwtDecoder.decode(CUSTOMER_TOKEN)).thenReturn(jwt(CUSTOMER_TOKEN, "CUSTOMER"));
+
+        // When / Then
+        mockMvc.perform(get(EXPORT_URL).header(HttpHeaders.AUTHORIZATION, "Bearer " + CUSTOMER_TOKEN))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(productEsDetailService);
+    }
+
+    private static Jwt jwt(String token, String role) {
+        return Jwt.withTokenValue(token)
+            .header("alg", "none")
+            .subject("user")
+            .claim("realm_access", Map.of("roles", List.of(role)))
+            .build();
+    }
+
+    private static ProductEsDetailVm product(long id) {
+        return new ProductEsDetailVm(id, "Product " + id, "product-" + id, 10.0, true, true, true, false, null,
+            "Brand", List.of("Phones"), List.of("Color"));
+    }
+}
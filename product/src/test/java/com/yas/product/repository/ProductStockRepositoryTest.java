@@ -0,0 +1,136 @@
+package com.yas.product.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.yas.product.repository.ProductStockRepository.StockQuantity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Tests for ProductStockRepository against an in-memory H2 database.
+ *
+ * <p>Every call runs on its own auto-committed connection, the same way concurrent checkout requests
+ * reach the database, so lost updates would show up in the final stock quantities.
+ */
+@DisplayName("ProductStockRepository Tests")
+class ProductStockRepositoryTest {
+
+    private static final long TRACKED_PRODUCT_ID = 1L;
+    private static final long SECOND_TRACKED_PRODUCT_ID = 2L;
+    private static final long UNTRACKED_PRODUCT_ID = 3L;
+    private static final long MISSING_PRODUCT_ID = 99L;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductStockRepository productStockRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:product-stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table product (id bigint primary key, stock_quantity bigint default 0,"
+            + " stock_tracking_enabled boolean default true, last_modified_on timestamp(6))");
+        jdbcTemplate.update("insert into product (id, stock_quantity, stock_tracking_enabled) values (?, ?, ?)",
+            TRACKED_PRODUCT_ID, 1000L, true);
+        jdbcTemplate.update("insert into product (id, stock_quantity, stock_tracking_enabled) values (?, ?, ?)",
+            SECOND_TRACKED_PRODUCT_ID, 5000L, true);
+        jdbcTemplate.update("insert into product (id, stock_quantity, stock_tracking_enabled) values (?, ?, ?)",
+            UNTRACKED_PRODUCT_ID, 10L, false);
+        productStockRepository = new ProductStockRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table product");
+    }
+
+    @Test
+    @DisplayName("Should report per item results when subtracting stock in one batch")
+    void testSubtractStockQuantities_PerItemResults() {
+        // Given
+        List<StockQuantity> quantities = List.of(
+            new StockQuantity(TRACKED_PRODUCT_ID, 400L),
+            new StockQuantity(SECOND_TRACKED_PRODUCT_ID, 6000L),
+            new StockQuantity(UNTRACKED_PRODUCT_ID, 50L),
+            new StockQuantity(MISSING_PRODUCT_ID, 1L)
+        );
+
+        // When
+        int[] result = productStockRepository.subtractStockQuantities(quantities);
+
+        // Then
+        assertArrayEquals(new int[] {1, 0, 1, 0}, result);
+        assertEquals(600L, stockQuantityOf(TRACKED_PRODUCT_ID));
+        assertEquals(5000L, stockQuantityOf(SECOND_TRACKED_PRODUCT_ID));
+        assertEquals(10L, stockQuantityOf(UNTRACKED_PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("Should add stock back only for tracked products when restoring")
+    void testRestoreStockQuantities_PerItemResults() {
+        // Given
+        List<StockQuantity> quantities = List.of(
+            new StockQuantity(TRACKED_PRODUCT_ID, 25L),
+            new StockQuantity(UNTRACKED_PRODUCT_ID, 5L),
+            new StockQuantity(MISSING_PRODUCT_ID, 1L)
+        );
+
+        // When
+        int[] result = productStockRepository.restoreStockQuantities(quantities);
+
+        // Then
+        assertArrayEquals(new int[] {1, 1, 0}, result);
+        assertEquals(1025L, stockQuantityOf(TRACKED_PRODUCT_ID));
+        assertEquals(10L, stockQuantityOf(UNTRACKED_PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("Should never oversell nor lose updates under thousands of parallel subtracts")
+    void testSubtractStockQuantities_ConcurrentSubtracts() throws Exception {
+        // Given
+        int requests = 4000;
+        AtomicInteger firstProductSuccesses = new AtomicInteger();
+        AtomicInteger secondProductSuccesses = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    int[] result = productStockRepository.subtractStockQuantities(List.of(
+                        new StockQuantity(TRACKED_PRODUCT_ID, 1L),
+                        new StockQuantity(SECOND_TRACKED_PRODUCT_ID, 1L)
+                    ));
+                    firstProductSuccesses.addAndGet(result[0]);
+                    secondProductSuccesses.addAndGet(result[1]);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        // Then
+        assertEquals(1000, firstProductSuccesses.get());
+        assertEquals(0L, stockQuantityOf(TRACKED_PRODUCT_ID));
+        assertEquals(requests, secondProductSuccesses.get());
+        assertEquals(1000L, stockQuantityOf(SECOND_TRACKED_PRODUCT_ID));
+    }
+
+    private long stockQuantityOf(long productId) {
+        return jdbcTemplate.queryForObject("select stock_quantity from product where id = ?", Long.class, productId);
+    }
+}
@@ -0,0 +1,158 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yas.commonlibrary.config.ServiceUrlConfig;
+import com.yas.product.config.CacheConfig;
+import com.yas.product.viewmodel.NoFileMediaVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Tests for the media metadata cache of MediaService, through the Spring cache proxy.
+ *
+ * <p>Test Doubles Used:
+ *   - Stub: MockRestServiceServer, answering the calls to the media service
+ *   - Fake: the cache ticker, moved forward instead of waiting for the entries to expire
+ */
+@SpringJUnitConfig(MediaServiceCacheTest.Config.class)
+@DisplayName("MediaService Cache Tests")
+class MediaServiceCacheTest {
+
+    private static final String MEDIA_URL = "http://media";
+    private static final Duration EXPIRY = Duration.ofHours(6);
+    private static final AtomicLong TICKER = new AtomicLong();
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MockRestServiceServer mediaServer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        mediaServer.reset();
+        cacheManager.getCache(CacheConfig.MEDIA_CACHE).clear();
+    }
+
+    @Test
+    @DisplayName("Should fetch a media on a cache miss and serve it from the cache afterwards")
+    void getMedia_whenMediaIsRequestedTwice_thenMediaServiceIsCalledOnce() {
+        // Given
+        expectMedia(once(), 1L);
+
+        // When
+        NoFileMediaVm first = mediaService.getMedia(1L);
+        NoFileMediaVm second = mediaService.getMedia(1L);
+
+        // Then
+        mediaServer.verify();
+        assertThat(first.url()).isEqualTo("http://media/1.png");
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Should fetch a media again once its cache entry has expired")
+    void getMedia_whenEntryHasExpired_thenMediaIsFetchedAgain() {
+        // Given
+        expectMedia(times(2), 1L);
+        mediaService.getMedia(1L);
+
+        // When
+        TICKER.addAndGet(EXPIRY.plusSeconds(1).toNanos());
+        NoFileMediaVm media = mediaService.getMedia(1L);
+
+        // Then
+        mediaServer.verify();
+        assertThat(media.url()).isEqualTo("http://media/1.png");
+    }
+
+    @Test
+    @DisplayName("Should only fetch the media ids of a batch which are not cached yet, and cache them")
+    void getMediaUrlsByIds_whenSomeMediasAreCached_thenOnlyMissingOnesAreFetched() {
+        // Given
+        expectMedia(once(), 1L);
+        mediaService.getMedia(1L);
+        mediaServer.expect(once(), requestTo(Matchers.startsWith(MEDIA_URL + "/medias?")))
+            .andExpect(queryParam("ids", "2"))
+            .andRespond(withSuccess("""
+                [{"id":2,"url":"http://media/2.png"}]
+                """, MediaType.APPLICATION_JSON));
+        mediaServer.expect(never(), requestTo(MEDIA_URL + "/medias/2"));
+
+        // When
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(List.of(1L, 2L));
+        NoFileMediaVm cachedMedia = mediaService.getMedia(2L);
+
+        // Then
+        mediaServer.verify();
+        assertThat(mediaUrls).containsExactlyInAnyOrderEntriesOf(
+            Map.of(1L, "http://media/1.png", 2L, "http://media/2.png"));
+        assertThat(cachedMedia.url()).isEqualTo("http://media/2.png");
+    }
+
+    private void expectMedia(ExpectedCount count, long id) {
+        mediaServer.expect(count, requestTo(MEDIA_URL + "/medias/" + id))
+            .andRespond(withSuccess("""
+                {"id":%d,"url":"http://media/%d.png"}
+                """.formatted(id, id), MediaType.APPLICATION_JSON));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.MEDIA_CACHE);
+            cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(EXPIRY).ticker(TICKER::get));
+            return cacheManager;
+        }
+
+        @Bean
+        RestClient.Builder restClientBuilder() {
+            return RestClient.builder();
+        }
+
+        @Bean
+        MockRestServiceServer mediaServer(RestClient.Builder restClientBuilder) {
+            return MockRestServiceServer.bindTo(restClientBuilder).build();
+        }
+
+        @Bean
+        MediaService mediaService(RestClient.Builder restClientBuilder, MockRestServiceServer mediaServer,
+                                  CacheManager cacheManager) {
+            // The server is bound to the builder before the client is built, so that it answers its calls.
+            return new MediaService(restClientBuilder.build(), new ServiceUrlConfig(MEDIA_URL, "http://product"),
+                new SimpleMeterRegistry(), cacheManager);
+        }
+    }
+}
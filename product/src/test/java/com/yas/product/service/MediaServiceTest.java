@@ -0,0 +1,110 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.yas.commonlibrary.config.ServiceUrlConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Unit tests for the batch media url resolution of MediaService.
+ *
+ * <p>Test Doubles Used:
+ *   - Stub: MockRestServiceServer, answering the calls to the media service
+ */
+@DisplayName("MediaService Unit Tests")
+class MediaServiceTest {
+
+    private static final String MEDIA_URL = "http://media";
+
+    private MockRestServiceServer mediaServer;
+
+    private MediaService mediaService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        mediaServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mediaService = new MediaService(restClientBuilder.build(), new ServiceUrlConfig(MEDIA_URL, "http://product"),
+            new SimpleMeterRegistry(), new ConcurrentMapCacheManager());
+    }
+
+    @Test
+    @DisplayName("Should resolve the urls of distinct media ids with a single call to the media service")
+    void getMediaUrlsByIds_whenManyIds_thenMediaServiceIsCalledOnce() {
+        // Given
+        mediaServer.expect(once(), requestTo(Matchers.startsWith(MEDIA_URL + "/medias?")))
+            .andExpect(method(HttpMethod.GET))
+            .andExpect(queryParam("ids", "1", "2"))
+            .andRespond(withSuccess("""
+                [{"id":1,"url":"http://media/1.png"},{"id":2,"url":"http://media/2.png"}]
+                """, MediaType.APPLICATION_JSON));
+
+        // When
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(Arrays.asList(1L, 2L, null, 1L));
+
+        // Then
+        mediaServer.verify();
+        assertThat(mediaUrls).containsExactlyInAnyOrderEntriesOf(
+            Map.of(1L, "http://media/1.png", 2L, "http://media/2.png"));
+    }
+
+    @Test
+    @DisplayName("Should leave out the ids unknown to the media service")
+    void getMediaUrlsByIds_whenSomeIdsAreUnknown_thenTheyAreAbsent() {
+        // Given
+        mediaServer.expect(once(), requestTo(Matchers.startsWith(MEDIA_URL + "/medias?")))
+            .andRespond(withSuccess("""
+                [{"id":1,"url":"http://media/1.png"}]
+                """, MediaType.APPLICATION_JSON));
+
+        // When
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(List.of(1L, 3L));
+
+        // Then
+        assertThat(mediaUrls).containsExactly(Map.entry(1L, "http://media/1.png"));
+    }
+
+    @Test
+    @DisplayName("Should return no url when the media service knows none of the ids")
+    void getMediaUrlsByIds_whenNoIdIsKnown_thenResultIsEmpty() {
+        // Given
+        mediaServer.expect(once(), requestTo(Matchers.startsWith(MEDIA_URL + "/medias?")))
+            .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // When
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(List.of(3L, 4L));
+
+        // Then
+        assertThat(mediaUrls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not call the media service without media ids")
+    void getMediaUrlsByIds_whenNoId_thenMediaServiceIsNotCalled() {
+        // When
+        Map<Long, String> mediaUrls = mediaService.getMediaUrlsByIds(Arrays.asList(null, null));
+
+        // Then
+        mediaServer.verify();
+        assertThat(mediaUrls).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.yas.product.config.DatabaseAutoConfig;
+import com.yas.product.model.Product;
+import com.yas.product.model.ProductImage;
+import com.yas.product.model.ProductOption;
+import com.yas.product.model.ProductOptionCombination;
+import com.yas.product.repository.ProductOptionCombinationRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.product.ProductDetailInfoVm;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Counts the SQL statements of the storefront product detail against the H2 test database.
+ *
+ * <p>Lazy loading of the variations, their images or their option combinations would add statements
+ * per variation, so the count must not depend on the number of variations.
+ */
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    // Columns such as product_option_combination.value are H2 keywords
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DatabaseAutoConfig.class)
+@DisplayName("ProductDetailService Statement Count Tests")
+class ProductDetailServiceStatementCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductOptionCombinationRepository productOptionCombinationRepository;
+
+    private ProductDetailService productDetailService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        productDetailService = new ProductDetailService(
+            productRepository, mock(MediaService.class), productOptionCombinationRepository);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should load the product detail with the same number of statements for 1, 10 and 50 variations")
+    void getProductDetailById_whenVariationsGrow_thenStatementCountIsConstant() {
+        // Given
+        List<Long> parentIds = List.of(createProduct(1), createProduct(10), createProduct(50));
+
+        // When
+        List<Long> statementCounts = parentIds.stream()
+            .map(parentId -> countStatements(() -> {
+                ProductDetailInfoVm detail = productDetailService.getProductDetailById(parentId);
+                detail.getVariations().forEach(variation -> assertThat(variation.options()).hasSize(1));
+            }))
+            .toList();
+
+        // Then
+        assertThat(statementCounts.getFirst()).isPositive();
+        assertThat(statementCounts).containsOnly(statementCounts.getFirst());
+    }
+
+    @Test
+    @DisplayName("Should load the variations with the same number of statements for 1, 10 and 50 variations")
+    void getProductVariations_whenVariationsGrow_thenStatementCountIsConstant() {
+        // Given
+        List<Long> parentIds = List.of(createProduct(1), createProduct(10), createProduct(50));
+
+        // When
+        List<Long> statementCounts = parentIds.stream()
+            .map(parentId -> countStatements(() -> productDetailService.getProductVariations(parentId)))
+            .toList();
+
+        // Then
+        assertThat(statementCounts).containsOnly(statementCounts.getFirst());
+    }
+
+    /**
+     * Counts the statements prepared by the action, on an empty persistence context.
+     */
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long createProduct(int variationCount) {
+        ProductOption option = new ProductOption();
+        option.setName("Color");
+        entityManager.persist(option);
+
+        Product parent = product("Parent of " + variationCount);
+        parent.setHasOptions(true);
+        entityManager.persist(parent);
+        persistImage(parent);
+
+        for (int i = 0; i < variationCount; i++) {
+            Product variation = product("Variation %d of %d".formatted(i, variationCount));
+            variation.setParent(parent);
+            entityManager.persist(variation);
+            persistImage(variation);
+            persistImage(variation);
+
+            ProductOptionCombination combination = ProductOptionCombination.builder()
+                .product(variation)
+                .productOption(option)
+                .value("Color " + i)
+                .build();
+            entityManager.persist(combination);
+        }
+        return parent.getId();
+    }
+
+    private Product product(String name) {
+        return Product.builder()
+            .name(name)
+            .slug(name.toLowerCase().replace(' ', '-'))
+            .isPublished(true)
+            .thumbnailMediaId(1L)
+            .productImages(new ArrayList<>())
+            .build();
+    }
+
+    private void persistImage(Product product) {
+        ProductImage image = ProductImage.builder().imageId(2L).product(product).build();
+        entityManager.persist(image);
+    }
+}
@@ -0,0 +1,198 @@
+package com.yas.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.product.model.Product;
+import com.yas.product.model.ProductImage;
+import com.yas.product.model.ProductOption;
+import com.yas.product.model.ProductOptionCombination;
+import com.yas.product.repository.ProductOptionCombinationRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.product.ProductDetailInfoVm;
+import com.yas.product.viewmodel.product.ProductVariationGetVm;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for ProductDetailService.
+ *
+ * <p>Every repository method and the media batch call map to a fixed number of SQL statements
+ * or HTTP calls, so asserting their invocation count per request guards against per-variation
+ * queries creeping back in.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductDetailService Unit Tests")
+class ProductDetailServiceTest {
+
+    private static final long PARENT_ID = 1L;
+    private static final long OPTION_ID = 7L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private MediaService mediaService;
+
+    @Mock
+    private ProductOptionCombinationRepository productOptionCombinationRepository;
+
+    private ProductDetailService productDetailService;
+
+    @BeforeEach
+    void setUp() {
+        productDetailService = new ProductDetailService(productRepository, mediaService,
+                productOptionCombinationRepository);
+    }
+
+    @ParameterizedTest(name = "{0} variations")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("Should load product detail with a constant number of queries regardless of variation count")
+    void testGetProductDetailById_ConstantQueriesForVariations(int variationCount) {
+        // Given
+        Product parent = parentProduct();
+        List<Product> variations = variations(parent, variationCount);
+        stubVariations(parent, variations);
+
+        // When
+        ProductDetailInfoVm result = productDetailService.getProductDetailById(PARENT_ID);
+
+        // Then
+        assertEquals(variationCount, result.getVariations().size());
+        ProductVariationGetVm last = result.getVariations().get(variationCount - 1);
+        assertEquals("url-" + (1000 + variationCount + 1), last.thumbnail().url());
+        assertEquals("value-" + (variationCount + 1), last.options().get(OPTION_ID));
+        verifyConstantDataAccess();
+    }
+
+    @ParameterizedTest(name = "{0} variations")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("Should load variations with a constant number of queries regardless of variation count")
+    void testGetProductVariations_ConstantQueriesForVariations(int variationCount) {
+        // Given
+        Product parent = parentProduct();
+        List<Product> variations = variations(parent, variationCount);
+        stubVariations(parent, variations);
+
+        // When
+        List<ProductVariationGetVm> result = productDetailService.getProductVariations(PARENT_ID);
+
+        // Then
+        assertEquals(variationCount, result.size());
+        assertEquals(1, result.get(0).productImages().size());
+        assertEquals("url-" + (2000 + 2), result.get(0).productImages().get(0).url());
+        verifyConstantDataAccess();
+    }
+
+    @Test
+    @DisplayName("Should skip variation queries when product has no options")
+    void testGetProductVariations_NoOptions() {
+        // Given
+        Product parent = parentProduct();
+        parent.setHasOptions(false);
+        when(productRepository.findById(PARENT_ID)).thenReturn(Optional.of(parent));
+        when(mediaService.getMediaUrlsByIds(anyCollection())).thenReturn(Map.of());
+
+        // When
+        List<ProductVariationGetVm> result = productDetailService.getProductVariations(PARENT_ID);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(productRepository, never()).findAllByParentIdAndIsPublishedTrueOrderByIdAsc(anyLong());
+        verify(productOptionCombinationRepository, never()).findAllByProductIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when product does not exist")
+    void testGetProductVariations_ProductNotFound() {
+        // Given
+        when(productRepository.findById(PARENT_ID)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> productDetailService.getProductVariations(PARENT_ID));
+    }
+
+    private void stubVariations(Product parent, List<Product> variations) {
+        when(productRepository.findById(PARENT_ID)).thenReturn(Optional.of(parent));
+        when(productRepository.findAllByParentIdAndIsPublishedTrueOrderByIdAsc(PARENT_ID)).thenReturn(variations);
+        when(productOptionCombinationRepository.findAllByProductIdIn(anyCollection()))
+                .thenReturn(variations.stream().map(this::optionCombination).toList());
+        when(mediaService.getMediaUrlsByIds(anyCollection())).thenReturn(mediaUrls(variations));
+    }
+
+    private void verifyConstantDataAccess() {
+        verify(productRepository, times(1)).findById(PARENT_ID);
+        verify(productRepository, times(1)).findAllByParentIdAndIsPublishedTrueOrderByIdAsc(PARENT_ID);
+        verify(productOptionCombinationRepository, times(1)).findAllByProductIdIn(anyCollection());
+        verify(mediaService, times(1)).getMediaUrlsByIds(anyCollection());
+        verify(mediaService, never()).getMedia(any());
+        verifyNoMoreInteractions(productRepository, productOptionCombinationRepository, mediaService);
+    }
+
+    private Product parentProduct() {
+        return Product.builder()
+                .id(PARENT_ID)
+                .name("Parent")
+                .isPublished(true)
+                .hasOptions(true)
+                .build();
+    }
+
+    private List<Product> variations(Product parent, int count) {
+        return LongStream.rangeClosed(2, count + 1L)
+                .mapToObj(id -> {
+                    Product variation = Product.builder()
+                            .id(id)
+                            .name("Variation " + id)
+                            .isPublished(true)
+                            .thumbnailMediaId(1000 + id)
+                            .parent(parent)
+                            .build();
+                    variation.setProductImages(new ArrayList<>(List.of(
+                            ProductImage.builder().imageId(2000 + id).product(variation).build())));
+                    return variation;
+                })
+                .toList();
+    }
+
+    private ProductOptionCombination optionCombination(Product variation) {
+        ProductOption productOption = new ProductOption();
+        productOption.setId(OPTION_ID);
+        return ProductOptionCombination.builder()
+                .product(variation)
+                .productOption(productOption)
+                .value("value-" + variation.getId())
+                .build();
+    }
+
+    private Map<Long, String> mediaUrls(List<Product> variations) {
+        Map<Long, String> urls = new HashMap<>();
+        variations.forEach(variation -> {
+            urls.put(variation.getThumbnailMediaId(), "url-" + variation.getThumbnailMediaId());
+            variation.getProductImages().forEach(image -> urls.put(image.getImageId(), "url-" + image.getImageId()));
+        });
+        return urls;
+    }
+}
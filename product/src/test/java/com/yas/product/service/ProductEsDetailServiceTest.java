@@ -0,0 +1,111 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.product.repository.ProductAttributeValueRepository;
+import com.yas.product.repository.ProductCategoryRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import com.yas.product.viewmodel.product.ProductIdNameVm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Unit tests for the bulk export of ProductEsDetailService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductEsDetailService Unit Tests")
+class ProductEsDetailServiceTest {
+
+    private static final int CHUNK_SIZE = ProductEsDetailService.CHUNK_SIZE;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCategoryRepository productCategoryRepository;
+
+    @Mock
+    private ProductAttributeValueRepository productAttributeValueRepository;
+
+    @InjectMocks
+    private ProductEsDetailService productEsDetailService;
+
+    @Test
+    @DisplayName("Should page through the catalog by chunks from the last id, with the names of every product")
+    void exportProductEsDetailsAfter_whenCatalogSpansChunks_thenEveryChunkIsHandedOver() {
+        // Given
+        when(productRepository.findProductEsDetailsByIdGreaterThan(0L, PageRequest.of(0, CHUNK_SIZE)))
+            .thenReturn(products(1, CHUNK_SIZE));
+        when(productRepository.findProductEsDetailsByIdGreaterThan(CHUNK_SIZE, PageRequest.of(0, CHUNK_SIZE)))
+            .thenReturn(products(CHUNK_SIZE + 1, CHUNK_SIZE + 2));
+        when(productCategoryRepository.findCategoryNamesByProductIdIn(anyCollection()))
+            .thenReturn(List.of(new ProductIdNameVm(1L, "Phones")));
+        when(productAttributeValueRepository.findAttributeNamesByProductIdIn(anyCollection()))
+            .thenReturn(List.of(new ProductIdNameVm(1L, "Color")));
+        List<List<ProductEsDetailVm>> chunks = new ArrayList<>();
+
+        // When
+        productEsDetailService.exportProductEsDetailsAfter(null, null, chunks::add);
+
+        // Then
+        assertThat(chunks).extracting(List::size).containsExactly(CHUNK_SIZE, 2);
+        assertThat(chunks.getFirst().getFirst().categories()).containsExactly("Phones");
+        assertThat(chunks.getFirst().getFirst().attributes()).containsExactly("Color");
+        assertThat(chunks.getLast().getLast().id()).isEqualTo(CHUNK_SIZE + 2L);
+    }
+
+    @Test
+    @DisplayName("Should stop the export once the limit is reached")
+    void exportProductEsDetailsAfter_whenLimitIsGiven_thenExportStopsAtLimit() {
+        // Given
+        when(productRepository.findProductEsDetailsByIdGreaterThan(10L, PageRequest.of(0, 3)))
+            .thenReturn(products(11, 13));
+        List<List<ProductEsDetailVm>> chunks = new ArrayList<>();
+
+        // When
+        productEsDetailService.exportProductEsDetailsAfter(10L, 3, chunks::add);
+
+        // Then
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.getFirst()).extracting(ProductEsDetailVm::id).containsExactly(11L, 12L, 13L);
+        verify(productRepository, never()).findProductEsDetailsByIdGreaterThan(eq(13L), eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    @DisplayName("Should hand over nothing when no product follows the last id")
+    void exportProductEsDetailsAfter_whenNoProductFollows_thenNothingIsHandedOver() {
+        // Given
+        when(productRepository.findProductEsDetailsByIdGreaterThan(anyLong(), eq(PageRequest.of(0, CHUNK_SIZE))))
+            .thenReturn(List.of());
+        List<List<ProductEsDetailVm>> chunks = new ArrayList<>();
+
+        // When
+        productEsDetailService.exportProductEsDetailsAfter(99L, null, chunks::add);
+
+        // Then
+        assertThat(chunks).isEmpty();
+        verify(productCategoryRepository, never()).findCategoryNamesByProductIdIn(anyCollection());
+    }
+
+    private static List<ProductEsDetailVm> products(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId)
+            .mapToObj(id -> new ProductEsDetailVm(id, "Product " + id, "product-" + id, 10.0, true, true, true,
+                false, null, "Brand"))
+            .toList();
+    }
+}
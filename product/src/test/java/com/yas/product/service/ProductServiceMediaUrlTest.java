@@ -0,0 +1,73 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.product.model.Brand;
+import com.yas.product.model.Product;
+import com.yas.product.repository.BrandRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.product.ProductThumbnailVm;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for the media urls of the ProductService listings.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductService Media Url Unit Tests")
+class ProductServiceMediaUrlTest {
+
+    private static final String BRAND_SLUG = "apple";
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private BrandRepository brandRepository;
+
+    @Mock
+    private MediaService mediaService;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Should resolve the thumbnails of a listing with one media call, and an empty url when one is missing")
+    void getProductsByBrand_whenListingHasThumbnails_thenMediaIsCalledOnce() {
+        // Given
+        Brand brand = new Brand();
+        when(brandRepository.findBySlug(BRAND_SLUG)).thenReturn(Optional.of(brand));
+        when(productRepository.findAllByBrandAndIsPublishedTrueOrderByIdAsc(brand)).thenReturn(List.of(
+            product(1L, 11L), product(2L, 12L), product(3L, null)));
+        when(mediaService.getMediaUrlsByIds(anyCollection())).thenReturn(Map.of(11L, "http://media/11.png"));
+
+        // When
+        List<ProductThumbnailVm> thumbnails = productService.getProductsByBrand(BRAND_SLUG);
+
+        // Then
+        verify(mediaService, times(1)).getMediaUrlsByIds(Arrays.asList(11L, 12L, null));
+        assertThat(thumbnails).extracting(ProductThumbnailVm::thumbnailUrl)
+            .containsExactly("http://media/11.png", "", "");
+    }
+
+    private static Product product(Long id, Long thumbnailMediaId) {
+        return Product.builder()
+            .id(id)
+            .name("Product " + id)
+            .slug("product-" + id)
+            .thumbnailMediaId(thumbnailMediaId)
+            .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.yas.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.product.repository.ProductStockRepository;
+import com.yas.product.repository.ProductStockRepository.StockQuantity;
+import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for the stock quantity updates of ProductService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductService Stock Quantity Unit Tests")
+class ProductServiceStockQuantityTest {
+
+    @Mock
+    private ProductStockRepository productStockRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Should merge the items of a product and return the result of each product")
+    void subtractStockQuantity_whenAllItemsAreReserved_thenResultsAreReturned() {
+        // Given
+        when(productStockRepository.subtractStockQuantities(
+            List.of(new StockQuantity(1L, 3L), new StockQuantity(2L, 1L)))).thenReturn(new int[] {1, 1});
+
+        // When
+        List<ProductQuantityResultVm> results = productService.subtractStockQuantity(List.of(
+            new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 1L), new ProductQuantityPutVm(1L, 1L)));
+
+        // Then
+        assertThat(results).containsExactly(
+            new ProductQuantityResultVm(1L, 3L, true), new ProductQuantityResultVm(2L, 1L, true));
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when an item lacks stock, so that the transaction rolls back")
+    void subtractStockQuantity_whenItemLacksStock_thenBadRequestIsThrown() {
+        // Given
+        when(productStockRepository.subtractStockQuantities(anyList())).thenReturn(new int[] {1, 0});
+        List<ProductQuantityPutVm> items = List.of(new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 1L));
+
+        // When / Then
+        BadRequestException exception =
+            assertThrows(BadRequestException.class, () -> productService.subtractStockQuantity(items));
+        assertThat(exception.getMessage()).contains("[2]");
+    }
+
+    @Test
+    @DisplayName("Should reject a quantity which is not positive before updating the stock")
+    void subtractStockQuantity_whenQuantityIsNotPositive_thenBadRequestIsThrown() {
+        // Given
+        List<ProductQuantityPutVm> items = List.of(new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, -5L));
+
+        // When / Then
+        assertThrows(BadRequestException.class, () -> productService.subtractStockQuantity(items));
+        assertThrows(BadRequestException.class,
+            () -> productService.restoreStockQuantity(List.of(new ProductQuantityPutVm(1L, 0L))));
+        verify(productStockRepository, never()).subtractStockQuantities(anyList());
+        verify(productStockRepository, never()).restoreStockQuantities(anyList());
+    }
+}
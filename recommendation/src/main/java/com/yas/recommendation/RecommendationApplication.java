@@ -1,12 +1,18 @@
 package com.yas.recommendation;
 
+import com.yas.recommendation.configuration.EmbeddingIngestionConfiguration;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.HnswStoreConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(EmbeddingSearchConfiguration.class)
+@EnableConfigurationProperties({
+    EmbeddingSearchConfiguration.class,
+    EmbeddingIngestionConfiguration.class,
+    HnswStoreConfiguration.class
+})
 public class RecommendationApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.yas.recommendation.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batching of vector writes.
+ *
+ * @param batchSize     the maximum number of documents embedded with one model call
+ * @param maxWait       the maximum time a document waits for its batch to fill up
+ * @param queueCapacity the number of pending documents above which producers are blocked
+ */
+@ConfigurationProperties(prefix = "yas.recommendation.embedding-based.ingestion")
+public record EmbeddingIngestionConfiguration(int batchSize, Duration maxWait, int queueCapacity) {}
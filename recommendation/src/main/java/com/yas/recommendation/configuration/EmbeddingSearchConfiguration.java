@@ -2,5 +2,12 @@ package com.yas.recommendation.configuration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * Similarity search settings.
+ *
+ * @param similarityThreshold the minimum cosine similarity of a result, from -1 to 1
+ * @param topK                the maximum number of results
+ * @param efSearch            the HNSW candidate list size, raised to {@code topK} when lower
+ */
 @ConfigurationProperties(prefix = "yas.recommendation.embedding-based.search")
-public record EmbeddingSearchConfiguration(Double similarityThreshold, int topK) {}
+public record EmbeddingSearchConfiguration(Double similarityThreshold, int topK, int efSearch) {}
@@ -0,0 +1,19 @@
+package com.yas.recommendation.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-process HNSW vector store settings, used when the store type is {@code hnsw}.
+ *
+ * @param path             the directory of the index snapshots
+ * @param m                the number of links per node and layer
+ * @param efConstruction   the candidate list size when inserting
+ * @param snapshotInterval the delay between two snapshots of a modified index
+ * @param maxDeletedRatio  the ratio of deleted nodes above which a snapshot is rebuilt on startup
+ */
+@ConfigurationProperties(prefix = "yas.recommendation.embedding-based.store.hnsw")
+public record HnswStoreConfiguration(
+    Path path, int m, int efConstruction, Duration snapshotInterval, double maxDeletedRatio
+) {}
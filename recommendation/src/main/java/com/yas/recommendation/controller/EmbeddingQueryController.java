@@ -3,10 +3,12 @@ package com.yas.recommendation.controller;
 import com.yas.recommendation.vector.common.query.VectorQuery;
 import com.yas.recommendation.vector.product.document.ProductDocument;
 import com.yas.recommendation.viewmodel.RelatedProductVm;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -16,6 +18,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("embedding")
 public class EmbeddingQueryController {
 
+    private static final int MAX_BATCH_PRODUCTS = 50;
+
     private final VectorQuery<ProductDocument, RelatedProductVm> relatedProductSearch;
 
     public EmbeddingQueryController(VectorQuery<ProductDocument, RelatedProductVm> relatedProductSearch) {
@@ -26,4 +30,17 @@ public class EmbeddingQueryController {
     public List<RelatedProductVm> searchProduct(@PathVariable("id") Long productId) {
         return relatedProductSearch.similaritySearch(productId);
     }
+
+    /**
+     * Finds the products customers also like for a whole basket, with one similarity search.
+     *
+     * @param productIds the IDs of the basket products
+     * @return the products most similar to the basket overall, scored and nearest first,
+     *      without the basket products
+     */
+    @GetMapping("/product/similarity")
+    public List<RelatedProductVm> searchProducts(
+            @RequestParam("ids") @Size(min = 1, max = MAX_BATCH_PRODUCTS) List<Long> productIds) {
+        return relatedProductSearch.similaritySearch(productIds);
+    }
 }
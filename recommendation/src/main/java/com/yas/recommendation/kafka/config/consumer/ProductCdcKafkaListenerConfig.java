@@ -2,12 +2,21 @@ package com.yas.recommendation.kafka.config.consumer;
 
 import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessageDeserializer;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConstants;
+import org.springframework.util.backoff.FixedBackOff;
 
 /**
  * Product CDC kafka listener, support convert product cdc message to java object.
@@ -18,8 +27,16 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
 
     public static final String PRODUCT_CDC_LISTENER_CONTAINER_FACTORY = "productCdcListenerContainerFactory";
 
-    public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
-        super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties);
+    public static final String PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY = "productCdcBatchListenerContainerFactory";
+
+    /**
+     * Backoff between the attempts of a failed record, as {@link com.yas.commonlibrary.kafka.cdc.RetrySupportDql}.
+     */
+    private static final long RETRY_INTERVAL_MS = 6000;
+    private static final long RETRY_ATTEMPTS = 3;
+
+    public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties, MeterRegistry meterRegistry) {
+        super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties, meterRegistry);
     }
 
     @Bean(name = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
@@ -28,4 +45,37 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
         return super.kafkaListenerContainerFactory();
     }
 
+    /**
+     * Reads all the columns, compared by the change filter of the consumer, with the before row.
+     */
+    @Override
+    protected Deserializer<ProductCdcMessage> valueDeserializer() {
+        return new ProductCdcMessageDeserializer(true);
+    }
+
+    @Override
+    protected Long getEventTimestamp(ProductCdcMessage value) {
+        return value.getTsMs();
+    }
+
+    /**
+     * Listener container factory delivering the whole poll result at once to batch listeners. The first
+     * failed record of a batch, reported by a {@link org.springframework.kafka.listener.BatchListenerFailedException},
+     * is retried with a backoff, then published to the dead letter topic of its topic.
+     *
+     * @param kafkaTemplate the template publishing to the dead letter topic
+     * @return a batch {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    @Bean(name = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<ProductMsgKey, ProductCdcMessage> batchListenerContainerFactory(
+        KafkaTemplate<Object, Object> kafkaTemplate
+    ) {
+        var factory = super.batchKafkaListenerContainerFactory();
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, (consumerRecord, e) ->
+            new TopicPartition(consumerRecord.topic() + RetryTopicConstants.DEFAULT_DLT_SUFFIX, -1));
+        factory.setCommonErrorHandler(
+            new DefaultErrorHandler(recoverer, new FixedBackOff(RETRY_INTERVAL_MS, RETRY_ATTEMPTS)));
+        return factory;
+    }
+
 }
\ No newline at end of file
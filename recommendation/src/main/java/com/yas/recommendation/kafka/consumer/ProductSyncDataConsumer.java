@@ -1,44 +1,74 @@
 package com.yas.recommendation.kafka.consumer;
 
-import static com.yas.recommendation.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
+import static com.yas.recommendation.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
 
 import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
-import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
+import com.yas.commonlibrary.kafka.cdc.CdcChangeFilter;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
-import jakarta.validation.Valid;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Headers;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
 /**
  * Product synchronize data consumer for pgvector.
+ *
+ * <p>CDC events are consumed in batches: updates which only change the stock quantity are dropped, the events
+ * of a product are collapsed to the latest one, and the writes of all the products are submitted to the
+ * {@link com.yas.recommendation.vector.common.store.VectorIngestionPipeline} before waiting for them, so that
+ * they are embedded together. The first failed product fails the batch from its record, which the error handler
+ * retries, then sends to the dead letter topic.
  */
 @Component
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
 
+    /**
+     * Columns of the product table which the product document is not built from.
+     */
+    public static final Set<String> IGNORED_COLUMNS = Set.of("stock_quantity");
+
     private final ProductSyncService productSyncService;
+    private final CdcChangeFilter changeFilter;
 
-    public ProductSyncDataConsumer(ProductSyncService productSyncService) {
+    public ProductSyncDataConsumer(ProductSyncService productSyncService, MeterRegistry meterRegistry) {
         this.productSyncService = productSyncService;
+        this.changeFilter = new CdcChangeFilter("product-sync-recommendation", IGNORED_COLUMNS, meterRegistry);
     }
 
     @KafkaListener(
         id = "product-sync-recommendation",
         groupId = "product-sync",
         topics = "${product.topic.name}",
-        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY
     )
-    @RetrySupportDql(listenerContainerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
-    public void processMessage(
-        @Header(KafkaHeaders.RECEIVED_KEY) ProductMsgKey key,
-        @Payload(required = false) @Valid ProductCdcMessage productCdcMessage,
-        @Headers MessageHeaders headers
-    ) {
-        processMessage(key, productCdcMessage, headers, productSyncService::sync);
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> relevantRecords = records.stream()
+            .filter(consumerRecord -> changeFilter.isRelevant(consumerRecord.value()))
+            .toList();
+
+        // Only submits the writes, the products are fetched in parallel and embedded in the same batches.
+        Map<ConsumerRecord<ProductMsgKey, ProductCdcMessage>, CompletableFuture<Void>> writes =
+            new ConcurrentHashMap<>();
+        processBatch(relevantRecords, true, consumerRecord ->
+            writes.put(consumerRecord, productSyncService.sync(consumerRecord.key(), consumerRecord.value())));
+
+        relevantRecords.stream().filter(writes::containsKey).forEach(consumerRecord -> {
+            try {
+                writes.get(consumerRecord).join();
+            } catch (CompletionException e) {
+                throw new BatchListenerFailedException(
+                    "Failed to write the vector of product %s".formatted(consumerRecord.key().getId()),
+                    e.getCause(), consumerRecord);
+            }
+        });
+        LOGGER.debug("## Batch processed - {} products", writes.size());
     }
 }
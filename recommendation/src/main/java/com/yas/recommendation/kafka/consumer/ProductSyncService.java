@@ -5,6 +5,7 @@ import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -25,21 +26,27 @@ public class ProductSyncService {
      * Synchronize Product Data to VectorDb based on Product CDC message.
      *
      * @param productCdcMessage {@link ProductCdcMessage} CDC message.
+     * @return a future completed once the product vector is written
      */
-    public void sync(ProductMsgKey key, ProductCdcMessage productCdcMessage) {
+    public CompletableFuture<Void> sync(ProductMsgKey key, ProductCdcMessage productCdcMessage) {
         boolean isHardDeleteEvent = productCdcMessage == null || DELETE.equals(productCdcMessage.getOp());
         if (isHardDeleteEvent) {
             log.warn("Having hard delete event for product: '{}'", key.getId());
-            productVectorSyncService.deleteProductVector(key.getId());
-        } else if (productCdcMessage.getAfter() != null) {
-            var operation = productCdcMessage.getOp();
-            var product = productCdcMessage.getAfter();
-            switch (operation) {
-                case CREATE, READ -> productVectorSyncService.createProductVector(product);
-                case UPDATE -> productVectorSyncService.updateProductVector(product);
-                default -> log.warn("Unsupported operation '{}' for product: '{}'", operation, product.getId());
-            }
+            return productVectorSyncService.deleteProductVector(key.getId());
+        }
+        if (productCdcMessage.getAfter() == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        var operation = productCdcMessage.getOp();
+        var product = productCdcMessage.getAfter();
+        return switch (operation) {
+            case CREATE, READ -> productVectorSyncService.createProductVector(product);
+            case UPDATE -> productVectorSyncService.updateProductVector(product);
+            default -> {
+                log.warn("Unsupported operation '{}' for product: '{}'", operation, product.getId());
+                yield CompletableFuture.completedFuture(null);
+            }
+        };
     }
 
 }
@@ -0,0 +1,518 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+
+/**
+ * Hierarchical Navigable Small World graph over cosine distance.
+ *
+ * <p>Vectors are normalized and kept off-heap in {@link MappedVectorStorage}, the graph and the documents
+ * are kept on heap. Updating a document with a new vector inserts a new node and marks the previous one
+ * deleted, deleted nodes are still traversed but never returned. The graph is persisted with
+ * {@link #save()}, and reloaded by {@link #open} unless too many nodes are deleted. A discarded snapshot is
+ * deleted, since the vectors of the rebuilt index overwrite the ones it refers to.</p>
+ *
+ * <p>Searches run concurrently, writes are exclusive.</p>
+ */
+@Slf4j
+final class HnswIndex implements Closeable {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_LINKS = new int[0];
+    private static final String VECTORS_FILE = "vectors.bin";
+    private static final String INDEX_FILE = "index.bin";
+
+    private final Path directory;
+    private final MappedVectorStorage vectors;
+    private final ObjectMapper objectMapper;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet deleted = new BitSet();
+    private final Map<String, Integer> nodes = new HashMap<>();
+    private int[] levels = new int[INITIAL_CAPACITY];
+    private int[][][] links = new int[INITIAL_CAPACITY][][];
+    private Document[] documents = new Document[INITIAL_CAPACITY];
+    private String[] versions = new String[INITIAL_CAPACITY];
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private HnswIndex(Path directory, int dimensions, int m, int efConstruction, ObjectMapper objectMapper)
+        throws IOException {
+        this.directory = directory;
+        this.vectors = new MappedVectorStorage(directory.resolve(VECTORS_FILE), dimensions);
+        this.objectMapper = objectMapper;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * Opens the index stored in a directory, or an empty index when there is no usable snapshot.
+     *
+     * @param directory       the snapshot directory, created if missing
+     * @param dimensions      the vector dimensions
+     * @param m               the number of links per node and layer, doubled on the bottom layer
+     * @param efConstruction  the candidate list size when inserting
+     * @param maxDeletedRatio the ratio of deleted nodes above which a snapshot is discarded
+     * @param objectMapper    the mapper of the document metadata
+     * @return the index
+     */
+    static HnswIndex open(Path directory, int dimensions, int m, int efConstruction, double maxDeletedRatio,
+                          ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        HnswIndex index = new HnswIndex(directory, dimensions, m, efConstruction, objectMapper);
+        index.load(maxDeletedRatio);
+        return index;
+    }
+
+    /**
+     * Inserts or replaces a document. When the vector is unchanged, only the document is replaced.
+     *
+     * @param document  the document
+     * @param embedding the document vector
+     * @param version   an opaque version of the document, to detect stale documents
+     */
+    void upsert(Document document, float[] embedding, String version) {
+        if (embedding.length != vectors.dimensions()) {
+            throw new IllegalArgumentException("Expected %d dimensions but got %d for document %s"
+                .formatted(vectors.dimensions(), embedding.length, document.getId()));
+        }
+        float[] vector = normalize(embedding);
+        lock.writeLock().lock();
+        try {
+            Integer existing = nodes.get(document.getId());
+            if (existing != null && Arrays.equals(vectors.get(existing), vector)) {
+                documents[existing] = document;
+                versions[existing] = version;
+                return;
+            }
+            if (existing != null) {
+                markDeleted(existing);
+            }
+            int node = size;
+            ensureCapacity(node + 1);
+            vectors.set(node, vector);
+            documents[node] = document;
+            versions[node] = version;
+            nodes.put(document.getId(), node);
+            size++;
+            link(node, vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param docId the document ID
+     * @return true if the document was indexed
+     */
+    boolean remove(String docId) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.remove(docId);
+            if (node == null) {
+                return false;
+            }
+            markDeleted(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the nearest documents of a vector.
+     *
+     * @param query  the query vector
+     * @param k      the maximum number of documents
+     * @param ef     the candidate list size, raised to {@code k} when lower
+     * @param filter the documents to keep
+     * @return the nearest documents, nearest first
+     */
+    List<Neighbor> search(float[] query, int k, int ef, Predicate<Document> filter) {
+        float[] vector = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int nearest = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                nearest = closest(vector, nearest, level);
+            }
+            return sorted(searchLayer(vector, nearest, Math.max(ef, k), 0)).stream()
+                .filter(candidate -> !deleted.get(candidate.node()))
+                .map(candidate -> new Neighbor(documents[candidate.node()], candidate.distance()))
+                .filter(neighbor -> filter.test(neighbor.document()))
+                .limit(k)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the normalized vector of a document, or null if it is not indexed.
+     */
+    float[] getVector(String docId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(docId);
+            return node == null ? null : vectors.get(node);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the version of each indexed document.
+     */
+    Map<String, String> getVersions() {
+        lock.readLock().lock();
+        try {
+            Map<String, String> result = new HashMap<>(nodes.size());
+            nodes.forEach((docId, node) -> result.put(docId, versions[node]));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the vectors and the graph to the index directory. The graph file is replaced atomically.
+     */
+    void save() throws IOException {
+        lock.readLock().lock();
+        try {
+            vectors.force();
+            Path temporaryFile = directory.resolve(INDEX_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(vectors.dimensions());
+                out.writeInt(m);
+                out.writeInt(size);
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (int node = 0; node < size; node++) {
+                    writeNode(out, node);
+                }
+            }
+            Files.move(temporaryFile, directory.resolve(INDEX_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        vectors.close();
+    }
+
+    private void link(int node, float[] vector) {
+        int level = (int) Math.floor(-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        levels[node] = level;
+        links[node] = new int[level + 1][];
+        Arrays.fill(links[node], NO_LINKS);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int nearest = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            nearest = closest(vector, nearest, layer);
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> candidates = sorted(searchLayer(vector, nearest, efConstruction, layer));
+            // Prefer live neighbors, deleted ones only keep the node reachable when nothing else is close.
+            int[] selected = candidates.stream()
+                .filter(candidate -> !deleted.get(candidate.node()))
+                .limit(m)
+                .mapToInt(Candidate::node)
+                .toArray();
+            if (selected.length == 0) {
+                selected = candidates.stream().limit(m).mapToInt(Candidate::node).toArray();
+            }
+            links[node][layer] = selected;
+            for (int neighbor : selected) {
+                addLink(neighbor, node, layer);
+            }
+            nearest = candidates.getFirst().node();
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    private void addLink(int from, int to, int layer) {
+        int maxLinks = layer == 0 ? 2 * m : m;
+        int[] current = links[from][layer];
+        if (current.length < maxLinks) {
+            int[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = to;
+            links[from][layer] = updated;
+            return;
+        }
+        float[] base = vectors.get(from);
+        links[from][layer] = IntStream.concat(Arrays.stream(current), IntStream.of(to))
+            .boxed()
+            .sorted(Comparator.comparingDouble(node -> distance(base, node)))
+            .limit(maxLinks)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private int closest(float[] vector, int start, int layer) {
+        int nearest = start;
+        float nearestDistance = distance(vector, nearest);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : links[nearest][layer]) {
+                float neighborDistance = distance(vector, neighbor);
+                if (neighborDistance < nearestDistance) {
+                    nearest = neighbor;
+                    nearestDistance = neighborDistance;
+                    improved = true;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private PriorityQueue<Candidate> searchLayer(float[] vector, int start, int ef, int layer) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(
+            Comparator.comparingDouble(Candidate::distance).reversed());
+        Candidate first = new Candidate(start, distance(vector, start));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+        while (!candidates.isEmpty()) {
+            Candidate candidate = candidates.poll();
+            if (results.size() >= ef && candidate.distance() > results.peek().distance()) {
+                break;
+            }
+            for (int neighbor : links[candidate.node()][layer]) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float neighborDistance = distance(vector, neighbor);
+                if (results.size() < ef || neighborDistance < results.peek().distance()) {
+                    Candidate next = new Candidate(neighbor, neighborDistance);
+                    candidates.add(next);
+                    results.add(next);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private float distance(float[] vector, int node) {
+        return 1 - vectors.dot(node, vector);
+    }
+
+    private void markDeleted(int node) {
+        deleted.set(node);
+        documents[node] = null;
+        versions[node] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        vectors.ensureCapacity(capacity);
+        if (capacity > levels.length) {
+            int newLength = Math.max(capacity, levels.length * 2);
+            levels = Arrays.copyOf(levels, newLength);
+            links = Arrays.copyOf(links, newLength);
+            documents = Arrays.copyOf(documents, newLength);
+            versions = Arrays.copyOf(versions, newLength);
+        }
+    }
+
+    private void load(double maxDeletedRatio) throws IOException {
+        Path file = directory.resolve(INDEX_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || in.readInt() != vectors.dimensions() || in.readInt() != m) {
+                log.info("HNSW snapshot in {} was built with other settings, rebuilding", directory);
+                reset();
+                return;
+            }
+            int count = in.readInt();
+            int entry = in.readInt();
+            int max = in.readInt();
+            ensureCapacity(count);
+            for (int node = 0; node < count; node++) {
+                readNode(in, node);
+            }
+            size = count;
+            entryPoint = entry;
+            maxLevel = max;
+        } catch (IOException e) {
+            log.warn("Cannot read HNSW snapshot in {}, rebuilding", directory, e);
+            reset();
+            return;
+        }
+        if (size > 0 && deleted.cardinality() > maxDeletedRatio * size) {
+            log.info("HNSW snapshot in {} has {} deleted nodes out of {}, rebuilding",
+                directory, deleted.cardinality(), size);
+            reset();
+        }
+    }
+
+    /**
+     * Empties the index and deletes its snapshot. The vector slots are then written again from the first one,
+     * so the previous graph must not be reloaded over them if the index stops before its next snapshot.
+     */
+    private void reset() throws IOException {
+        Files.deleteIfExists(directory.resolve(INDEX_FILE));
+        deleted.clear();
+        nodes.clear();
+        Arrays.fill(documents, null);
+        Arrays.fill(versions, null);
+        size = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+    }
+
+    private void writeNode(DataOutputStream out, int node) throws IOException {
+        out.writeInt(levels[node]);
+        for (int[] layerLinks : links[node]) {
+            out.writeInt(layerLinks.length);
+            for (int neighbor : layerLinks) {
+                out.writeInt(neighbor);
+            }
+        }
+        boolean isLive = !deleted.get(node);
+        out.writeBoolean(isLive);
+        if (isLive) {
+            Document document = documents[node];
+            writeString(out, document.getId());
+            writeString(out, document.getContent());
+            writeString(out, objectMapper.writeValueAsString(document.getMetadata()));
+            out.writeBoolean(versions[node] != null);
+            if (versions[node] != null) {
+                writeString(out, versions[node]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readNode(DataInputStream in, int node) throws IOException {
+        levels[node] = in.readInt();
+        links[node] = new int[levels[node] + 1][];
+        for (int layer = 0; layer <= levels[node]; layer++) {
+            int[] layerLinks = new int[in.readInt()];
+            for (int i = 0; i < layerLinks.length; i++) {
+                layerLinks[i] = in.readInt();
+            }
+            links[node][layer] = layerLinks;
+        }
+        if (!in.readBoolean()) {
+            deleted.set(node);
+            return;
+        }
+        String docId = readString(in);
+        String content = readString(in);
+        Map<String, Object> metadata = objectMapper.readValue(readString(in), Map.class);
+        documents[node] = new Document(docId, content, metadata);
+        versions[node] = in.readBoolean() ? readString(in) : null;
+        nodes.put(docId, node);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector.clone();
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static List<Candidate> sorted(PriorityQueue<Candidate> candidates) {
+        List<Candidate> result = new ArrayList<>(candidates);
+        result.sort(Comparator.comparingDouble(Candidate::distance));
+        return result;
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    /**
+     * A search result.
+     *
+     * @param document the indexed document
+     * @param distance the cosine distance to the query, from 0 to 2
+     */
+    record Neighbor(Document document, float distance) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.HnswStoreConfiguration;
+import com.yas.recommendation.vector.common.query.NearestNeighborSearch;
+import com.yas.recommendation.vector.common.store.VectorDocumentRepository;
+import com.yas.recommendation.vector.common.store.VectorDocumentsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vector store serving similarity searches from an in-process HNSW index, without a database round trip.
+ *
+ * <p>The pgvector table stays the source of truth, written by the ingestion pipeline. The index is a copy:
+ * on startup, it is loaded from the last local snapshot and synchronized with the table by comparing
+ * metadata hashes, then it follows the {@link VectorDocumentsChangedEvent}s. Snapshots are written
+ * periodically and on shutdown. Selected with {@code yas.recommendation.embedding-based.store.type=hnsw}.</p>
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = NearestNeighborSearch.STORE_TYPE_PROPERTY, havingValue = "hnsw")
+public class HnswVectorStore implements VectorStore, NearestNeighborSearch, DisposableBean {
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+    private static final String DISTANCE_METADATA = "distance";
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorDocumentRepository vectorDocumentRepository;
+    private final EmbeddingSearchConfiguration searchConfiguration;
+    private final HnswStoreConfiguration storeConfiguration;
+    private final HnswIndex index;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("hnsw-vector-store").daemon().factory());
+    private final Lock synchronizationLock = new ReentrantLock();
+    private final AtomicBoolean isModified = new AtomicBoolean();
+
+    public HnswVectorStore(
+            EmbeddingModel embeddingModel,
+            VectorDocumentRepository vectorDocumentRepository,
+            EmbeddingSearchConfiguration searchConfiguration,
+            HnswStoreConfiguration storeConfiguration,
+            ObjectMapper objectMapper,
+            @Value("${spring.ai.vectorstore.pgvector.dimensions}") int dimensions
+    ) throws IOException {
+        this.embeddingModel = embeddingModel;
+        this.vectorDocumentRepository = vectorDocumentRepository;
+        this.searchConfiguration = searchConfiguration;
+        this.storeConfiguration = storeConfiguration;
+        this.index = HnswIndex.open(
+            storeConfiguration.path(),
+            dimensions,
+            storeConfiguration.m(),
+            storeConfiguration.efConstruction(),
+            storeConfiguration.maxDeletedRatio(),
+            objectMapper
+        );
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("HNSW vector store opened with {} documents from {}", index.size(), storeConfiguration.path());
+        scheduler.execute(this::synchronize);
+        long interval = storeConfiguration.snapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Brings the index up to date with the pgvector table: documents missing from the table are removed,
+     * and new or changed documents are loaded.
+     */
+    public void synchronize() {
+        try {
+            Map<String, String> storedVersions = new HashMap<>();
+            vectorDocumentRepository.forEachMetadataHash(storedVersions::put);
+            Map<String, String> indexedVersions = index.getVersions();
+
+            List<String> removedIds = indexedVersions.keySet().stream()
+                .filter(docId -> !storedVersions.containsKey(docId))
+                .toList();
+            List<String> staleIds = storedVersions.entrySet().stream()
+                .filter(entry -> !indexedVersions.containsKey(entry.getKey())
+                    || !Objects.equals(indexedVersions.get(entry.getKey()), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+
+            remove(removedIds);
+            for (int from = 0; from < staleIds.size(); from += LOAD_CHUNK_SIZE) {
+                load(staleIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, staleIds.size())));
+            }
+            log.info("HNSW vector store synchronized, {} documents loaded, {} removed, {} indexed",
+                staleIds.size(), removedIds.size(), index.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to synchronize the HNSW vector store with pgvector", e);
+        }
+    }
+
+    /**
+     * Applies the changes written to the pgvector table. Runs before the other listeners,
+     * so that they see the updated index.
+     *
+     * @param event the changed documents
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onVectorDocumentsChanged(VectorDocumentsChangedEvent event) {
+        remove(event.deletedIds());
+        load(event.updatedIds());
+    }
+
+    /**
+     * Embeds and indexes documents. They are only kept in the index, the pgvector table is written
+     * by the ingestion pipeline.
+     */
+    @Override
+    public void add(List<Document> documents) {
+        List<float[]> embeddings = embeddingModel.embed(documents.stream()
+            .map(document -> document.getFormattedContent(MetadataMode.EMBED))
+            .toList());
+        for (int i = 0; i < documents.size(); i++) {
+            index.upsert(documents.get(i), embeddings.get(i), null);
+        }
+        isModified.set(true);
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> idList) {
+        boolean isRemoved = idList.stream().map(index::remove).reduce(false, Boolean::logicalOr);
+        isModified.set(true);
+        return Optional.of(isRemoved);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] query = embeddingModel.embed(request.getQuery());
+        List<HnswIndex.Neighbor> neighbors = index.search(
+            query,
+            request.getTopK(),
+            searchConfiguration.efSearch(),
+            MetadataFilter.of(request.getFilterExpression())
+        );
+        return toDocuments(neighbors, request.getSimilarityThreshold());
+    }
+
+    @Override
+    public List<Document> findNeighbors(String docId) {
+        float[] vector = index.getVector(docId);
+        if (vector == null) {
+            return List.of();
+        }
+        List<HnswIndex.Neighbor> neighbors = index.search(
+            vector,
+            searchConfiguration.topK(),
+            searchConfiguration.efSearch(),
+            document -> !document.getId().equals(docId)
+        );
+        return toDocuments(neighbors, searchConfiguration.similarityThreshold());
+    }
+
+    @Override
+    public List<Document> findNeighbors(Collection<String> docIds) {
+        Set<String> excludedIds = Set.copyOf(docIds);
+        // The indexed vectors are normalized, so their mean ranks documents by average cosine similarity.
+        float[] centroid = null;
+        for (String docId : excludedIds) {
+            float[] vector = index.getVector(docId);
+            if (vector == null) {
+                continue;
+            }
+            if (centroid == null) {
+                centroid = new float[vector.length];
+            }
+            for (int i = 0; i < vector.length; i++) {
+                centroid[i] += vector[i];
+            }
+        }
+        if (centroid == null) {
+            return List.of();
+        }
+        List<HnswIndex.Neighbor> neighbors = index.search(
+            centroid,
+            searchConfiguration.topK(),
+            searchConfiguration.efSearch() + excludedIds.size(),
+            document -> !excludedIds.contains(document.getId())
+        );
+        return toDocuments(neighbors, searchConfiguration.similarityThreshold());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("HNSW vector store tasks did not complete before shutdown");
+        }
+        snapshot();
+        index.close();
+    }
+
+    private void load(List<String> docIds) {
+        if (docIds.isEmpty()) {
+            return;
+        }
+        // Loading and applying is serialized, so that an older copy never overwrites a newer one.
+        synchronizationLock.lock();
+        try {
+            vectorDocumentRepository.findByIds(docIds).forEach(storedVector ->
+                index.upsert(storedVector.document(), storedVector.embedding(), storedVector.metadataHash()));
+            isModified.set(true);
+        } finally {
+            synchronizationLock.unlock();
+        }
+    }
+
+    private void remove(List<String> docIds) {
+        if (docIds.isEmpty()) {
+            return;
+        }
+        synchronizationLock.lock();
+        try {
+            docIds.forEach(index::remove);
+            isModified.set(true);
+        } finally {
+            synchronizationLock.unlock();
+        }
+    }
+
+    private void snapshot() {
+        if (!isModified.getAndSet(false)) {
+            return;
+        }
+        try {
+            index.save();
+        } catch (IOException | RuntimeException e) {
+            isModified.set(true);
+            log.error("Failed to write the HNSW vector store snapshot to {}", storeConfiguration.path(), e);
+        }
+    }
+
+    private static List<Document> toDocuments(List<HnswIndex.Neighbor> neighbors, double similarityThreshold) {
+        return neighbors.stream()
+            .filter(neighbor -> 1 - neighbor.distance() >= similarityThreshold)
+            .map(neighbor -> {
+                Map<String, Object> metadata = new HashMap<>(neighbor.document().getMetadata());
+                metadata.put(DISTANCE_METADATA, neighbor.distance());
+                metadata.put(SCORE_METADATA, 1 - neighbor.distance());
+                return new Document(neighbor.document().getId(), neighbor.document().getContent(), metadata);
+            })
+            .toList();
+    }
+}
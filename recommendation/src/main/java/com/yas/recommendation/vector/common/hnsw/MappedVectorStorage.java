@@ -0,0 +1,100 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size float vectors kept off-heap in a memory-mapped file. The file is mapped in chunks,
+ * so that it can grow past the 2 GB limit of a single mapping. Slots are never moved, and only reused
+ * once the index they belong to has discarded its snapshot.
+ */
+final class MappedVectorStorage implements Closeable {
+
+    private static final int VECTORS_PER_CHUNK = 16_384;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final long chunkBytes;
+    private final List<MappedByteBuffer> mappedChunks = new ArrayList<>();
+    private final List<FloatBuffer> chunks = new ArrayList<>();
+
+    MappedVectorStorage(Path file, int dimensions) throws IOException {
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dimensions = dimensions;
+        this.chunkBytes = (long) VECTORS_PER_CHUNK * dimensions * Float.BYTES;
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Maps the file up to the given number of slots. Must be called before reading or writing the slots,
+     * and not concurrently with reads.
+     */
+    void ensureCapacity(int slots) {
+        int requiredChunks = (slots + VECTORS_PER_CHUNK - 1) / VECTORS_PER_CHUNK;
+        try {
+            while (chunks.size() < requiredChunks) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                    chunks.size() * chunkBytes, chunkBytes);
+                chunk.order(ByteOrder.LITTLE_ENDIAN);
+                mappedChunks.add(chunk);
+                chunks.add(chunk.asFloatBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map vector storage", e);
+        }
+    }
+
+    void set(int slot, float[] vector) {
+        chunk(slot).put(offset(slot), vector);
+    }
+
+    float[] get(int slot) {
+        float[] vector = new float[dimensions];
+        chunk(slot).get(offset(slot), vector);
+        return vector;
+    }
+
+    float dot(int slot, float[] vector) {
+        FloatBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += chunk.get(offset + i) * vector[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Writes the mapped vectors to disk.
+     */
+    void force() {
+        mappedChunks.forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private FloatBuffer chunk(int slot) {
+        return chunks.get(slot / VECTORS_PER_CHUNK);
+    }
+
+    private int offset(int slot) {
+        return (slot % VECTORS_PER_CHUNK) * dimensions;
+    }
+}
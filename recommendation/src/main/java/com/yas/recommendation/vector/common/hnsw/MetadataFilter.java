@@ -0,0 +1,135 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+/**
+ * Evaluates vector store filter expressions against document metadata.
+ * Supports equality, comparison, membership and boolean operators. Expressions are validated when parsed,
+ * so that an unsupported one is rejected before any document is searched.
+ */
+final class MetadataFilter {
+
+    private MetadataFilter() {
+    }
+
+    /**
+     * Parses a filter expression.
+     *
+     * @param expression the filter expression, null to keep every document
+     * @return the documents to keep
+     * @throws IllegalArgumentException if the expression cannot be evaluated against the metadata
+     */
+    static Predicate<Document> of(Filter.Expression expression) {
+        if (expression == null) {
+            return document -> true;
+        }
+        validate(expression);
+        return document -> test(expression, document.getMetadata());
+    }
+
+    private static void validate(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group) {
+            validate(group.content());
+            return;
+        }
+        if (!(operand instanceof Filter.Expression expression)) {
+            throw new IllegalArgumentException("Filter operand %s is not an expression".formatted(operand));
+        }
+        switch (expression.type()) {
+            case AND, OR -> {
+                validate(expression.left());
+                validate(expression.right());
+            }
+            case NOT -> validate(expression.left());
+            case EQ, NE -> requireValue(expression);
+            case GT, GTE, LT, LTE -> {
+                Object value = requireValue(expression);
+                if (!(value instanceof Number || value instanceof String)) {
+                    throw new IllegalArgumentException("Filter operator %s needs a number or a string value"
+                        .formatted(expression.type()));
+                }
+            }
+            case IN, NIN -> {
+                if (!(requireValue(expression) instanceof Collection<?>)) {
+                    throw new IllegalArgumentException("Filter operator %s needs a list of values"
+                        .formatted(expression.type()));
+                }
+            }
+            default -> throw new IllegalArgumentException(
+                "Filter operator %s is not supported by the HNSW vector store".formatted(expression.type()));
+        }
+    }
+
+    private static Object requireValue(Filter.Expression expression) {
+        if (!(expression.left() instanceof Filter.Key) || !(expression.right() instanceof Filter.Value value)) {
+            throw new IllegalArgumentException("Filter operator %s needs a metadata key and a value"
+                .formatted(expression.type()));
+        }
+        return value.value();
+    }
+
+    private static boolean test(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return test(group.content(), metadata);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> test(expression.left(), metadata) && test(expression.right(), metadata);
+            case OR -> test(expression.left(), metadata) || test(expression.right(), metadata);
+            case NOT -> !test(expression.left(), metadata);
+            case EQ -> matches(metadata, expression);
+            case NE -> !matches(metadata, expression);
+            case GT -> compares(metadata, expression, result -> result > 0);
+            case GTE -> compares(metadata, expression, result -> result >= 0);
+            case LT -> compares(metadata, expression, result -> result < 0);
+            case LTE -> compares(metadata, expression, result -> result <= 0);
+            case IN -> isIn(metadata, expression);
+            case NIN -> !isIn(metadata, expression);
+        };
+    }
+
+    private static boolean matches(Map<String, Object> metadata, Filter.Expression expression) {
+        return areEqual(metadata.get(((Filter.Key) expression.left()).key()),
+            ((Filter.Value) expression.right()).value());
+    }
+
+    /**
+     * Compares the metadata value to the expression value. Missing values and values of another type never match.
+     */
+    private static boolean compares(Map<String, Object> metadata, Filter.Expression expression,
+                                    IntPredicate isMatching) {
+        Object actual = metadata.get(((Filter.Key) expression.left()).key());
+        Object expected = ((Filter.Value) expression.right()).value();
+        if (actual instanceof Number actualNumber && expected instanceof Number expectedNumber) {
+            return isMatching.test(toBigDecimal(actualNumber).compareTo(toBigDecimal(expectedNumber)));
+        }
+        if (actual instanceof String actualString && expected instanceof String expectedString) {
+            return isMatching.test(actualString.compareTo(expectedString));
+        }
+        return false;
+    }
+
+    private static boolean isIn(Map<String, Object> metadata, Filter.Expression expression) {
+        Object actual = metadata.get(((Filter.Key) expression.left()).key());
+        Collection<?> values = (Collection<?>) ((Filter.Value) expression.right()).value();
+        return values.stream().anyMatch(value -> areEqual(actual, value));
+    }
+
+    private static boolean areEqual(Object actual, Object expected) {
+        if (actual instanceof Number actualNumber && expected instanceof Number expectedNumber) {
+            return toBigDecimal(actualNumber).compareTo(toBigDecimal(expectedNumber)) == 0;
+        }
+        return Objects.equals(actual, expected);
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        return new BigDecimal(number.toString());
+    }
+}
@@ -2,60 +2,107 @@ package com.yas.recommendation.vector.common.query;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
-import com.yas.recommendation.vector.common.document.BaseDocument;
-import com.yas.recommendation.vector.common.document.DocumentMetadata;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 import org.springframework.ai.document.Document;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Jdbc Vector service support native query vector search for document.
+ *
+ * <p>Nearest neighbors are found by ordering on the distance to the bound query vector with a limit,
+ * the only form which lets Postgres scan the HNSW index. The similarity threshold is applied
+ * to the limited result afterwards.</p>
  */
 @Service
-class JdbcVectorService {
+@ConditionalOnProperty(
+    name = NearestNeighborSearch.STORE_TYPE_PROPERTY, havingValue = "pgvector", matchIfMissing = true
+)
+class JdbcVectorService implements NearestNeighborSearch {
 
-    public static final String DEFAULT_DOCID_PREFIX = "PRODUCT";
-
-    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
-    private String vectorTableName;
+    private static final String DISTANCE = "distance";
 
     /* Using JdbcTemplate to keep consistency with Spring AI implementation, instead of using JPA, JdbcClient */
     private final JdbcTemplate jdbcClient;
+    private final TransactionTemplate transactionTemplate;
     private final DocumentRowMapper documentRowMapper;
     private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private final String vectorTableName;
 
     public JdbcVectorService(
             JdbcTemplate jdbcClient,
+            PlatformTransactionManager transactionManager,
             ObjectMapper objectMapper,
-            EmbeddingSearchConfiguration embeddingSearchConfiguration
+            EmbeddingSearchConfiguration embeddingSearchConfiguration,
+            @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}") String vectorTableName
     ) {
         this.jdbcClient = jdbcClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
         this.documentRowMapper = new DocumentRowMapper(objectMapper);
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
+        this.vectorTableName = vectorTableName;
     }
 
-    public <D extends BaseDocument> List<Document> similarityProduct(Long id, Class<D> docType) {
-        String docIdPrefix = getDocIdPrefix(docType);
-        UUID idStr = generateUuid(docIdPrefix, id);
+    @Override
+    public List<Document> findNeighbors(String docId) {
+        UUID idStr = UUID.fromString(docId);
+        return transactionTemplate.execute(status -> {
+            setEfSearch(1);
+            return jdbcClient.query(getSimilarityQuery(), getPreparedStatementSetter(idStr), this::mapNeighbor);
+        });
+    }
 
-        return jdbcClient.query(getFormattedQuery(), getPreparedStatementSetter(idStr), documentRowMapper);
+    @Override
+    public List<Document> findNeighbors(Collection<String> docIds) {
+        List<UUID> ids = docIds.stream().distinct().map(UUID::fromString).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Object> params = new ArrayList<>(ids);
+        params.addAll(ids);
+        params.add(embeddingSearchConfiguration.topK());
+        params.add(1 - embeddingSearchConfiguration.similarityThreshold());
+        return transactionTemplate.execute(status -> {
+            setEfSearch(ids.size());
+            return jdbcClient.query(getCentroidSimilarityQuery(ids.size()), ps -> {
+                for (int i = 0; i < params.size(); i++) {
+                    StatementCreatorUtils.setParameterValue(ps, i + 1, Integer.MIN_VALUE, params.get(i));
+                }
+            }, this::mapNeighbor);
+        });
     }
 
-    private String getDocIdPrefix(Class<?> docType) {
-        return Optional.ofNullable(docType)
-                .map(dt -> dt.getAnnotation(DocumentMetadata.class))
-                .map(DocumentMetadata::docIdPrefix)
-                .orElse(DEFAULT_DOCID_PREFIX);
+    /**
+     * Sets the candidate list size of the HNSW scan for the current transaction only. It bounds the number
+     * of results, and the excluded documents are filtered out of the candidates.
+     */
+    private void setEfSearch(int excludedCount) {
+        int efSearch = Math.max(embeddingSearchConfiguration.efSearch(),
+                embeddingSearchConfiguration.topK() + excludedCount);
+        jdbcClient.queryForObject("SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                String.valueOf(efSearch));
     }
 
-    private UUID generateUuid(String docIdPrefix, Long id) {
-        return UUID.nameUUIDFromBytes("%s-%s".formatted(docIdPrefix, id).getBytes());
+    private Document mapNeighbor(ResultSet rs, int rowNum) throws SQLException {
+        Document document = documentRowMapper.mapRow(rs, rowNum);
+        Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+        metadata.put(SCORE_METADATA, 1 - rs.getDouble(DISTANCE));
+        return new Document(document.getId(), document.getContent(), metadata);
     }
 
     private PreparedStatementSetter getPreparedStatementSetter(UUID idStr) {
@@ -63,39 +110,78 @@ class JdbcVectorService {
             StatementCreatorUtils.setParameterValue(ps, 1, Integer.MIN_VALUE, idStr);
             StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE, idStr);
             StatementCreatorUtils.setParameterValue(ps, 3, Integer.MIN_VALUE,
-                    embeddingSearchConfiguration.similarityThreshold());
-            StatementCreatorUtils.setParameterValue(ps, 4, Integer.MIN_VALUE,
                     embeddingSearchConfiguration.topK());
+            StatementCreatorUtils.setParameterValue(ps, 4, Integer.MIN_VALUE,
+                    1 - embeddingSearchConfiguration.similarityThreshold());
         };
     }
 
-    private String getFormattedQuery() {
+    /**
+     * The query vector is an uncorrelated subquery, evaluated once before the scan, so the ORDER BY
+     * distance with LIMIT is served by the HNSW index. The cosine similarity threshold is applied
+     * as a distance bound on the nearest rows.
+     */
+    String getSimilarityQuery() {
         return """
-                WITH entity AS (
+                SELECT
+                    nearest.id,
+                    nearest.content,
+                    nearest.metadata,
+                    nearest.distance
+                FROM (
                     SELECT
-                        id,
-                        content,
-                        metadata,
-                        embedding
+                        vs.id,
+                        vs.content,
+                        vs.metadata,
+                        vs.embedding <=> (SELECT embedding FROM %1$s WHERE id = ?) AS distance
                     FROM
-                        %s
+                        %1$s vs
                     WHERE
-                        id = ?
-                )
-                SELECT
-                    vs.id,
-                    vs.content,
-                    vs.metadata,
-                    (vs.embedding <=> entity.embedding) AS similarity
-                FROM
-                    vector_store vs
-                JOIN
-                    entity ON true
-                WHERE vs.id <> ? AND (vs.embedding <=> entity.embedding) > ?
+                        vs.id <> ?
+                    ORDER BY
+                        distance
+                    LIMIT ?
+                ) nearest
+                WHERE
+                    nearest.distance <= ?
                 ORDER BY
-                    similarity
-                LIMIT ?
+                    nearest.distance
                 """.formatted(vectorTableName);
     }
-}
 
+    /**
+     * Same as the similarity query, with the mean of the normalized embeddings of several documents
+     * as the query vector. The cosine distance to the mean ranks documents by their average similarity
+     * to the given documents.
+     */
+    String getCentroidSimilarityQuery(int docCount) {
+        String placeholders = String.join(", ", Collections.nCopies(docCount, "?"));
+        return """
+                SELECT
+                    nearest.id,
+                    nearest.content,
+                    nearest.metadata,
+                    nearest.distance
+                FROM (
+                    SELECT
+                        vs.id,
+                        vs.content,
+                        vs.metadata,
+                        vs.embedding <=> (
+                            SELECT avg(l2_normalize(embedding)) FROM %1$s WHERE id IN (%2$s)
+                        ) AS distance
+                    FROM
+                        %1$s vs
+                    WHERE
+                        vs.id NOT IN (%2$s)
+                    ORDER BY
+                        distance
+                    LIMIT ?
+                ) nearest
+                WHERE
+                    nearest.distance <= ?
+                ORDER BY
+                    nearest.distance
+                """.formatted(vectorTableName, placeholders);
+    }
+}
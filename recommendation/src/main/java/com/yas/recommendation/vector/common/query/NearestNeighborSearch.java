@@ -0,0 +1,37 @@
+package com.yas.recommendation.vector.common.query;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.ai.document.Document;
+
+/**
+ * Finds the stored documents closest to a stored document, backed by the configured vector store.
+ */
+public interface NearestNeighborSearch {
+
+    String STORE_TYPE_PROPERTY = "yas.recommendation.embedding-based.store.type";
+
+    /**
+     * Metadata key of the cosine similarity between a neighbor document and the query.
+     */
+    String SCORE_METADATA = "score";
+
+    /**
+     * Finds the nearest neighbors of a stored document, within the configured top K and similarity threshold.
+     *
+     * @param docId the vector document ID
+     * @return the neighbor documents nearest first, without the document itself,
+     *      or an empty list when the document is not stored
+     */
+    List<Document> findNeighbors(String docId);
+
+    /**
+     * Finds the nearest neighbors of the centroid of stored documents, within the configured top K
+     * and similarity threshold, with one index search.
+     *
+     * @param docIds the vector document IDs, those not stored are ignored
+     * @return the neighbor documents nearest first, without the given documents,
+     *      or an empty list when none of the documents is stored
+     */
+    List<Document> findNeighbors(Collection<String> docIds);
+}
@@ -0,0 +1,89 @@
+package com.yas.recommendation.vector.common.query;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.yas.recommendation.vector.common.store.VectorDocumentsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the nearest neighbors of each document, so that similarity requests are a key lookup.
+ *
+ * <p>When vectors change, the entries of the changed documents and the entries listing one of them as
+ * a neighbor are recomputed in the background, while the previous neighbors are still served.
+ * Entries are also recomputed once they are older than {@code refreshAfter}, which picks up documents
+ * that became close to an entry without being listed in it. Deleted documents are evicted.</p>
+ */
+@Slf4j
+@Component
+class SimilarityNeighborCache implements DisposableBean {
+
+    private static final String CACHE_NAME = "similarityNeighbors";
+
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LoadingCache<String, List<Document>> neighbors;
+
+    SimilarityNeighborCache(
+            NearestNeighborSearch nearestNeighborSearch,
+            MeterRegistry meterRegistry,
+            @Value("${yas.recommendation.embedding-based.search.neighborCache.maxSize:10000}") long maxSize,
+            @Value("${yas.recommendation.embedding-based.search.neighborCache.refreshAfter:10m}")
+            Duration refreshAfter
+    ) {
+        this.neighbors = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(nearestNeighborSearch::findNeighbors);
+        CaffeineCacheMetrics.monitor(meterRegistry, neighbors, CACHE_NAME);
+    }
+
+    /**
+     * Returns the nearest neighbors of a document, computing them on the first request.
+     *
+     * @param docId the vector document ID
+     * @return the neighbor documents, nearest first
+     */
+    public List<Document> getNeighbors(String docId) {
+        return neighbors.get(docId);
+    }
+
+    /**
+     * Marks the entries affected by changed vectors as stale.
+     *
+     * @param event the changed documents
+     */
+    @EventListener
+    public void onVectorDocumentsChanged(VectorDocumentsChangedEvent event) {
+        neighbors.invalidateAll(event.deletedIds());
+
+        Set<String> changedIds = new HashSet<>(event.updatedIds());
+        changedIds.addAll(event.deletedIds());
+        Set<String> staleIds = new HashSet<>();
+        neighbors.asMap().forEach((docId, documents) -> {
+            if (changedIds.contains(docId) || documents.stream().map(Document::getId).anyMatch(changedIds::contains)) {
+                staleIds.add(docId);
+            }
+        });
+        log.debug("Refreshing {} similarity entries after {} vector changes", staleIds.size(), changedIds.size());
+        neighbors.refreshAll(staleIds);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -2,8 +2,11 @@ package com.yas.recommendation.vector.common.query;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.vector.common.document.BaseDocument;
+import com.yas.recommendation.vector.common.document.DefaultIdGenerator;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.springframework.ai.document.Document;
@@ -18,8 +21,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 public abstract class VectorQuery<D extends BaseDocument, P> {
 
+    public static final String DEFAULT_DOCID_PREFIX = "PRODUCT";
+
     private ObjectMapper objectMapper;
-    private JdbcVectorService jdbcVectorService;
+    private SimilarityNeighborCache similarityNeighborCache;
+    private NearestNeighborSearch nearestNeighborSearch;
 
     @Getter
     private final Class<D> docType;
@@ -47,7 +53,20 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
      *      result will not include specified product.
      */
     public List<P> similaritySearch(Long id) {
-        return toResult(jdbcVectorService.similarityProduct(id, this.getDocType()));
+        String docId = getDocId(id);
+        return toResult(similarityNeighborCache.getNeighbors(docId));
+    }
+
+    /**
+     * Performs one similarity search for several products stored in db, such as the products of a cart.
+     *
+     * @param ids the IDs of the products for which to perform the similarity search.
+     * @return a list of product results that are the most similar to the specified products overall,
+     *      nearest first, result will not include the specified products.
+     */
+    public List<P> similaritySearch(Collection<Long> ids) {
+        List<String> docIds = ids.stream().distinct().map(this::getDocId).toList();
+        return toResult(nearestNeighborSearch.findNeighbors(docIds));
     }
 
     /**
@@ -64,13 +83,25 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
             .toList();
     }
 
+    private String getDocId(Long id) {
+        String docIdPrefix = Optional.ofNullable(docType.getAnnotation(DocumentMetadata.class))
+            .map(DocumentMetadata::docIdPrefix)
+            .orElse(DEFAULT_DOCID_PREFIX);
+        return new DefaultIdGenerator(docIdPrefix, id).generateId();
+    }
+
     @Autowired
     private void setObjectMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
     @Autowired
-    private void setJdbcVectorService(JdbcVectorService jdbcVectorService) {
-        this.jdbcVectorService = jdbcVectorService;
+    private void setNearestNeighborSearch(NearestNeighborSearch nearestNeighborSearch) {
+        this.nearestNeighborSearch = nearestNeighborSearch;
+    }
+
+    @Autowired
+    private void setSimilarityNeighborCache(SimilarityNeighborCache similarityNeighborCache) {
+        this.similarityNeighborCache = similarityNeighborCache;
     }
 }
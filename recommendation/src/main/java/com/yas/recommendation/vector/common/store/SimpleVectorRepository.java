@@ -6,8 +6,12 @@ import com.yas.recommendation.vector.common.document.BaseDocument;
 import com.yas.recommendation.vector.common.document.DefaultIdGenerator;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
 import com.yas.recommendation.vector.common.formatter.DocumentFormatter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.SneakyThrows;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.id.IdGenerator;
@@ -30,9 +34,11 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
 
     public static final String FIELD_ID = "id";
     public static final String TYPE_METADATA = "type";
+    public static final String CONTENT_HASH_METADATA = "contentHash";
 
     private ObjectMapper objectMapper;
     private EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private VectorIngestionPipeline vectorIngestionPipeline;
 
     private final Class<D> docType;
     private final VectorStore vectorStore;
@@ -62,43 +68,35 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
      * and then formats the fetched document before saving it to the database.
      *
      * @param entityId the ID of the entity to fetch and add to the vector database
+     * @return a future completed once the document is stored, see {@link VectorIngestionPipeline#upsert}
      */
-    @lombok.SneakyThrows
-    public void add(Long entityId) {
-        final var entity = getEntity(entityId);
-        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
-
-        D document = docType.getDeclaredConstructor().newInstance();
-        document.setContent(documentFormatter.format(entityContentMap, documentMetadata.contentFormat(), objectMapper));
-
-        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
-        document.setMetadata(entityContentMap);
-
-        final IdGenerator idGenerator = getIdGenerator(entityId);
-        vectorStore.add(List.of(document.toDocument(idGenerator)));
+    public CompletableFuture<Void> add(Long entityId) {
+        final D document = buildDocument(entityId);
+        return vectorIngestionPipeline.upsert(document.toDocument(getIdGenerator(entityId)));
     }
 
     /**
      * Deletes a record from the vector store based on the provided entity ID.
      *
      * @param entityId the ID of the entity to be deleted from the vector store
+     * @return a future completed once the document is deleted, see {@link VectorIngestionPipeline#delete}
      */
-    public void delete(Long entityId) {
+    public CompletableFuture<Void> delete(Long entityId) {
         IdGenerator idGenerator = getIdGenerator(entityId);
         var docId = idGenerator.generateId();
-        vectorStore.delete(List.of(docId));
+        return vectorIngestionPipeline.delete(docId);
     }
 
     /**
      * Updates a record in the vector store for the given entity ID.
-     * The method first deletes the existing record by invoking {@link #delete(Long)}
-     * and then adds a new record using {@link #add(Long)}.
+     * The record is replaced through {@link VectorIngestionPipeline}, which only re-embeds it
+     * when the formatted content changed since the last embedding, for example not after a stock change.
      *
      * @param entityId the ID of the entity to be updated in the vector store
+     * @return a future completed once the document is stored
      */
-    public void update(Long entityId) {
-        delete(entityId);
-        add(entityId);
+    public CompletableFuture<Void> update(Long entityId) {
+        return add(entityId);
     }
 
     /**
@@ -124,6 +122,27 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
                 .toList();
     }
 
+    /**
+     * Fetches the entity and formats it as a document. The metadata holds the entity fields,
+     * and a hash of the formatted content to detect whether the embedding is stale.
+     *
+     * @param entityId the ID of the entity to fetch
+     * @return the document to store
+     */
+    @SneakyThrows
+    protected D buildDocument(Long entityId) {
+        final var entity = getEntity(entityId);
+        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
+
+        D document = docType.getDeclaredConstructor().newInstance();
+        document.setContent(documentFormatter.format(entityContentMap, documentMetadata.contentFormat(), objectMapper));
+
+        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
+        entityContentMap.put(CONTENT_HASH_METADATA, hash(document.getContent()));
+        document.setMetadata(entityContentMap);
+        return document;
+    }
+
     public IdGenerator getIdGenerator(Long entityId) {
         return new DefaultIdGenerator(documentMetadata.docIdPrefix(), entityId);
     }
@@ -141,11 +160,22 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         return baseDocument;
     }
 
+    @SneakyThrows
+    private static String hash(String content) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Autowired
     private void setObjectMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
+    @Autowired
+    private void setVectorIngestionPipeline(VectorIngestionPipeline vectorIngestionPipeline) {
+        this.vectorIngestionPipeline = vectorIngestionPipeline;
+    }
+
     @Autowired
     private void setEmbeddingSearchConfiguration(EmbeddingSearchConfiguration embeddingSearchConfiguration) {
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
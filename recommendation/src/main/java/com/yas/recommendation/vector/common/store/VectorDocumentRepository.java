@@ -0,0 +1,210 @@
+package com.yas.recommendation.vector.common.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import lombok.SneakyThrows;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+/**
+ * Reads and writes vector documents of the pgvector table in bulk, with embeddings computed beforehand.
+ */
+@Repository
+public class VectorDocumentRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String vectorTableName;
+
+    public VectorDocumentRepository(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}") String vectorTableName
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.vectorTableName = vectorTableName;
+    }
+
+    /**
+     * Finds a metadata value of stored vectors.
+     *
+     * @param docIds the vector document IDs
+     * @param key    the metadata key
+     * @return the metadata value by document ID, vectors without the key are left out
+     */
+    public Map<String, String> findMetadataValues(Collection<String> docIds, String key) {
+        Map<String, String> values = new HashMap<>();
+        if (docIds.isEmpty()) {
+            return values;
+        }
+        List<Object> params = new ArrayList<>(docIds.size() + 1);
+        params.add(key);
+        params.addAll(docIds);
+        jdbcTemplate.query(
+            "SELECT id::text AS id, metadata ->> ? AS value FROM %s WHERE id IN (%s)"
+                .formatted(vectorTableName, placeholders(docIds.size(), "?::uuid")),
+            rs -> {
+                if (rs.getString("value") != null) {
+                    values.put(rs.getString("id"), rs.getString("value"));
+                }
+            },
+            params.toArray()
+        );
+        return values;
+    }
+
+    /**
+     * Reads the hash of the metadata of every stored vector, to compare stored vectors with a copy.
+     *
+     * @param consumer receives each document ID with its metadata hash
+     */
+    public void forEachMetadataHash(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(
+            "SELECT id::text AS id, md5(metadata::text) AS hash FROM %s".formatted(vectorTableName),
+            rs -> {
+                consumer.accept(rs.getString("id"), rs.getString("hash"));
+            }
+        );
+    }
+
+    /**
+     * Finds stored vectors with their embedding.
+     *
+     * @param docIds the vector document IDs
+     * @return the stored vectors, missing documents are left out
+     */
+    public List<StoredVector> findByIds(Collection<String> docIds) {
+        if (docIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            """
+            SELECT id::text AS id, content, metadata::text AS metadata, md5(metadata::text) AS hash,
+                embedding::text AS embedding
+            FROM %s WHERE id IN (%s)
+            """.formatted(vectorTableName, placeholders(docIds.size(), "?::uuid")),
+            (rs, rowNum) -> new StoredVector(
+                new Document(rs.getString("id"), rs.getString("content"), fromJson(rs.getString("metadata"))),
+                fromVectorLiteral(rs.getString("embedding")),
+                rs.getString("hash")
+            ),
+            docIds.toArray()
+        );
+    }
+
+    /**
+     * Replaces the metadata of stored vectors, keeping their content and embedding.
+     *
+     * @param documents the documents holding the new metadata
+     */
+    public void updateMetadata(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "UPDATE %s SET metadata = ?::json WHERE id = ?::uuid".formatted(vectorTableName),
+            documents.stream()
+                .map(document -> new Object[] {toJson(document.getMetadata()), document.getId()})
+                .toList()
+        );
+    }
+
+    /**
+     * Inserts or replaces vectors with one multi-row statement.
+     *
+     * @param documents  the documents to store
+     * @param embeddings the embedding of each document, in the same order
+     */
+    public void upsert(List<Document> documents, List<float[]> embeddings) {
+        Assert.isTrue(documents.size() == embeddings.size(), "Each document must have an embedding");
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<Object> params = new ArrayList<>(documents.size() * 4);
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            params.add(document.getId());
+            params.add(document.getContent());
+            params.add(toJson(document.getMetadata()));
+            params.add(toVectorLiteral(embeddings.get(i)));
+        }
+        jdbcTemplate.update(
+            """
+            INSERT INTO %s (id, content, metadata, embedding) VALUES %s
+            ON CONFLICT (id) DO UPDATE
+            SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, embedding = EXCLUDED.embedding
+            """.formatted(vectorTableName, placeholders(documents.size(), "(?::uuid, ?, ?::json, ?::vector)")),
+            params.toArray()
+        );
+    }
+
+    /**
+     * Deletes stored vectors.
+     *
+     * @param docIds the vector document IDs
+     */
+    public void delete(Collection<String> docIds) {
+        if (docIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+            "DELETE FROM %s WHERE id IN (%s)".formatted(vectorTableName, placeholders(docIds.size(), "?::uuid")),
+            docIds.toArray()
+        );
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> fromJson(String metadata) {
+        return objectMapper.readValue(metadata, Map.class);
+    }
+
+    @SneakyThrows
+    private String toJson(Map<String, Object> metadata) {
+        return objectMapper.writeValueAsString(metadata);
+    }
+
+    private static String placeholders(int count, String placeholder) {
+        return String.join(", ", Collections.nCopies(count, placeholder));
+    }
+
+    private static String toVectorLiteral(float[] embedding) {
+        StringBuilder literal = new StringBuilder("[");
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(embedding[i]);
+        }
+        return literal.append(']').toString();
+    }
+
+    private static float[] fromVectorLiteral(String literal) {
+        String[] values = literal.substring(1, literal.length() - 1).split(",");
+        float[] embedding = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            embedding[i] = Float.parseFloat(values[i]);
+        }
+        return embedding;
+    }
+
+    /**
+     * A stored vector.
+     *
+     * @param document     the document with its content and metadata
+     * @param embedding    the embedding of the document
+     * @param metadataHash the hash of the stored metadata
+     */
+    public record StoredVector(Document document, float[] embedding, String metadataHash) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.yas.recommendation.vector.common.store;
+
+import java.util.List;
+
+/**
+ * Published after a vector batch is written.
+ *
+ * @param updatedIds the IDs of the documents inserted or updated, with or without a new embedding
+ * @param deletedIds the IDs of the documents deleted
+ */
+public record VectorDocumentsChangedEvent(List<String> updatedIds, List<String> deletedIds) {
+}
@@ -0,0 +1,239 @@
+package com.yas.recommendation.vector.common.store;
+
+import static com.yas.recommendation.vector.common.store.SimpleVectorRepository.CONTENT_HASH_METADATA;
+
+import com.yas.recommendation.configuration.EmbeddingIngestionConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batches vector writes between the CDC consumers and the vector table.
+ *
+ * <p>Writes are queued and flushed by a single worker once {@code batchSize} documents are pending
+ * or the oldest one has waited {@code maxWait}. Each flush embeds all changed documents with one model call
+ * and stores them with one multi-row insert. Documents whose content hash matches the stored vector only
+ * get their metadata refreshed. The queue is bounded, so producers block while the model is slow.
+ * A {@link VectorDocumentsChangedEvent} is published after each written batch.</p>
+ *
+ * <p>Writes go through a single worker in submission order, so a delete is never overtaken by an earlier
+ * write of the same document. Each write returns a future completed once its batch is stored, or failed
+ * with the error of its batch: the CDC consumer submits the writes of a whole poll, then waits for all of them,
+ * so that a failed write goes to the error handler instead of being lost with the committed offset.</p>
+ */
+@Slf4j
+@Component
+public class VectorIngestionPipeline {
+
+    private static final String METRIC_PREFIX = "yas.recommendation.embedding.ingestion";
+    private static final long POLL_TIMEOUT_MS = 1000;
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorDocumentRepository vectorDocumentRepository;
+    private final EmbeddingIngestionConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<VectorOperation> queue;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public VectorIngestionPipeline(
+            EmbeddingModel embeddingModel,
+            VectorDocumentRepository vectorDocumentRepository,
+            EmbeddingIngestionConfiguration configuration,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.embeddingModel = embeddingModel;
+        this.vectorDocumentRepository = vectorDocumentRepository;
+        this.configuration = configuration;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(configuration.queueCapacity());
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Documents written per vector batch")
+                .register(meterRegistry);
+        meterRegistry.gauge(METRIC_PREFIX + ".queue", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("vector-ingestion").daemon().start(this::run);
+    }
+
+    /**
+     * Stops accepting new batches and waits until the pending writes are flushed.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join();
+        failPending();
+    }
+
+    /**
+     * Queues a document to be embedded and stored, blocking while the queue is full.
+     *
+     * @param document the document to store, its metadata should hold a content hash
+     * @return a future completed once the document is stored, or failed with the error of its batch
+     */
+    public CompletableFuture<Void> upsert(Document document) {
+        return enqueue(new VectorOperation(document.getId(), document, new CompletableFuture<>()));
+    }
+
+    /**
+     * Queues the deletion of a stored vector, blocking while the queue is full.
+     *
+     * @param docId the vector document ID
+     * @return a future completed once the vector is deleted, or failed with the error of its batch
+     */
+    public CompletableFuture<Void> delete(String docId) {
+        return enqueue(new VectorOperation(docId, null, new CompletableFuture<>()));
+    }
+
+    private CompletableFuture<Void> enqueue(VectorOperation operation) {
+        if (!running) {
+            throw new IllegalStateException("Vector ingestion is stopped, can't write " + operation.docId());
+        }
+        try {
+            queue.put(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing vector document " + operation.docId(), e);
+        }
+        return operation.result();
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<VectorOperation> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Vector ingestion stopped with {} pending documents", queue.size());
+                failPending();
+                return;
+            }
+        }
+    }
+
+    private void failPending() {
+        List<VectorOperation> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        IllegalStateException stopped = new IllegalStateException("Vector ingestion stopped");
+        pending.forEach(operation -> operation.result().completeExceptionally(stopped));
+    }
+
+    private List<VectorOperation> nextBatch() throws InterruptedException {
+        VectorOperation first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<VectorOperation> batch = new ArrayList<>(configuration.batchSize());
+        batch.add(first);
+        long deadline = System.nanoTime() + configuration.maxWait().toNanos();
+        while (batch.size() < configuration.batchSize()) {
+            long remaining = deadline - System.nanoTime();
+            VectorOperation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void flush(List<VectorOperation> batch) {
+        // Keep the last operation of each document, the earlier ones are outdated.
+        Map<String, Document> latest = new LinkedHashMap<>();
+        batch.forEach(operation -> {
+            latest.remove(operation.docId());
+            latest.put(operation.docId(), operation.document());
+        });
+        List<String> deletedIds = latest.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Document> documents = latest.values().stream().filter(Objects::nonNull).toList();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            vectorDocumentRepository.delete(deletedIds);
+
+            Map<String, String> storedHashes = vectorDocumentRepository.findMetadataValues(
+                    documents.stream().map(Document::getId).toList(), CONTENT_HASH_METADATA);
+            List<Document> unchanged = new ArrayList<>();
+            List<Document> changed = new ArrayList<>();
+            documents.forEach(document -> {
+                Object hash = document.getMetadata().get(CONTENT_HASH_METADATA);
+                boolean isUnchanged = hash != null && hash.equals(storedHashes.get(document.getId()));
+                (isUnchanged ? unchanged : changed).add(document);
+            });
+
+            vectorDocumentRepository.updateMetadata(unchanged);
+            if (!changed.isEmpty()) {
+                List<float[]> embeddings = embeddingModel.embed(changed.stream()
+                        .map(document -> document.getFormattedContent(MetadataMode.EMBED))
+                        .toList());
+                vectorDocumentRepository.upsert(changed, embeddings);
+            }
+
+            eventPublisher.publishEvent(new VectorDocumentsChangedEvent(
+                    documents.stream().map(Document::getId).toList(), deletedIds));
+            countDocuments("deleted", deletedIds.size());
+            countDocuments("unchanged", unchanged.size());
+            countDocuments("embedded", changed.size());
+            batch.forEach(operation -> operation.result().complete(null));
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.error("Failed to write vector documents {}", latest.keySet(), e);
+            countDocuments("failed", latest.size());
+            batch.forEach(operation -> operation.result().completeExceptionally(e));
+        } finally {
+            sample.stop(Timer.builder(METRIC_PREFIX + ".batch")
+                    .description("Time to embed and write a vector batch")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            batchSizeSummary.record(latest.size());
+        }
+    }
+
+    private void countDocuments(String result, int count) {
+        Counter.builder(METRIC_PREFIX + ".documents")
+                .description("Vector documents written, by result")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * A pending write, a {@code null} document means the vector is deleted.
+     */
+    private record VectorOperation(String docId, Document document, CompletableFuture<Void> result) {
+    }
+}
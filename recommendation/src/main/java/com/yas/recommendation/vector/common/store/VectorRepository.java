@@ -2,6 +2,7 @@ package com.yas.recommendation.vector.common.store;
 
 import com.yas.recommendation.vector.common.document.BaseDocument;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface VectorRepository<D extends BaseDocument, E> {
 
@@ -9,10 +10,10 @@ public interface VectorRepository<D extends BaseDocument, E> {
 
     E getEntity(Long entityId);
 
-    void add(Long entityId);
+    CompletableFuture<Void> add(Long entityId);
 
-    void delete(Long entityId);
+    CompletableFuture<Void> delete(Long entityId);
 
-    void update(Long entityId);
+    CompletableFuture<Void> update(Long entityId);
 
 }
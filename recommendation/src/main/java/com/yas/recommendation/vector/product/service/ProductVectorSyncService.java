@@ -2,13 +2,15 @@ package com.yas.recommendation.vector.product.service;
 
 import com.yas.commonlibrary.kafka.cdc.message.Product;
 import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 /**
  * Service class responsible for synchronizing product vector data.
  * Provides methods to create, update, and delete product vectors
- * in response to changes in product data.
+ * in response to changes in product data. Each method returns a future completed once the vector
+ * is written, so that the writes of several products can be submitted before waiting for them.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,10 +22,11 @@ public class ProductVectorSyncService {
      *
      * @param product {@link Product} the product to be synchronized.
      */
-    public void createProductVector(Product product) {
+    public CompletableFuture<Void> createProductVector(Product product) {
         if (product.isPublished()) {
-            productVectorRepository.add(product.getId());
+            return productVectorRepository.add(product.getId());
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -31,12 +34,11 @@ public class ProductVectorSyncService {
      *
      * @param product {@link Product} the product to be synchronized.
      */
-    public void updateProductVector(Product product) {
+    public CompletableFuture<Void> updateProductVector(Product product) {
         if (product.isPublished()) {
-            productVectorRepository.update(product.getId());
-        } else {
-            productVectorRepository.delete(product.getId());
+            return productVectorRepository.update(product.getId());
         }
+        return productVectorRepository.delete(product.getId());
     }
 
     /**
@@ -44,8 +46,8 @@ public class ProductVectorSyncService {
      *
      * @param productId The unique identifier of the product whose vector is to be deleted.
      */
-    public void deleteProductVector(Long productId) {
-        productVectorRepository.delete(productId);
+    public CompletableFuture<Void> deleteProductVector(Long productId) {
+        return productVectorRepository.delete(productId);
     }
 
 }
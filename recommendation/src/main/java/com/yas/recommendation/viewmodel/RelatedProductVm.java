@@ -35,6 +35,8 @@ public class RelatedProductVm {
 
     private String slug;
 
+    private Double score;
+
     public RelatedProductVm() {
         // This default constructor.
     }
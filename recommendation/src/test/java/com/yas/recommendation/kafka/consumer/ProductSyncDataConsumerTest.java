@@ -0,0 +1,169 @@
+package com.yas.recommendation.kafka.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.configuration.EmbeddingIngestionConfiguration;
+import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.common.store.VectorDocumentRepository;
+import com.yas.recommendation.vector.common.store.VectorIngestionPipeline;
+import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import com.yas.recommendation.viewmodel.ProductDetailVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for ProductSyncDataConsumer, from the CDC records down to the ingestion pipeline.
+ *
+ * <p>Test Doubles Used:
+ *   - Stub: EmbeddingModel, records the size of each model call instead of calling a remote endpoint
+ *   - Mock: ProductService, VectorStore and VectorDocumentRepository
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSyncDataConsumer Unit Tests")
+class ProductSyncDataConsumerTest {
+
+    private static final String TOPIC = "dbproduct.public.product";
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private VectorStore vectorStore;
+
+    @Mock
+    private VectorDocumentRepository vectorDocumentRepository;
+
+    private final StubEmbeddingModel embeddingModel = new StubEmbeddingModel();
+
+    private VectorIngestionPipeline pipeline;
+
+    private ProductSyncDataConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pipeline = new VectorIngestionPipeline(
+            embeddingModel,
+            vectorDocumentRepository,
+            new EmbeddingIngestionConfiguration(64, Duration.ofMillis(500), 128),
+            meterRegistry,
+            event -> { }
+        );
+        pipeline.start();
+
+        ProductVectorRepository productVectorRepository = new ProductVectorRepository(vectorStore, productService);
+        ReflectionTestUtils.setField(productVectorRepository, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(productVectorRepository, "vectorIngestionPipeline", pipeline);
+        consumer = new ProductSyncDataConsumer(
+            new ProductSyncService(new ProductVectorSyncService(productVectorRepository)), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("Should embed the products of a batch with one model call, after collapsing their events")
+    void processMessages_whenBatchOfProducts_thenProductsAreEmbeddedOnce() {
+        // Given
+        when(productService.getProductDetail(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+        List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records = new ArrayList<>();
+        LongStream.rangeClosed(1, 10).forEach(id -> records.add(consumerRecord(records.size(), id)));
+        LongStream.rangeClosed(1, 5).forEach(id -> records.add(consumerRecord(records.size(), id)));
+
+        // When
+        consumer.processMessages(records);
+
+        // Then
+        assertThat(embeddingModel.callSizes).containsExactly(10);
+        verify(vectorDocumentRepository, times(1)).upsert(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should fail the batch from the first product whose vector could not be written")
+    void processMessages_whenWriteFails_thenBatchFailsAtFirstRecord() {
+        // Given
+        when(productService.getProductDetail(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+        doThrow(new IllegalStateException("pgvector is down"))
+            .when(vectorDocumentRepository).upsert(anyList(), anyList());
+        List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records = List.of(
+            consumerRecord(0, 1L), consumerRecord(1, 2L));
+
+        // When
+        BatchListenerFailedException exception =
+            assertThrows(BatchListenerFailedException.class, () -> consumer.processMessages(records));
+
+        // Then
+        assertThat(exception.getRecord()).isSameAs(records.getFirst());
+        assertThat(exception).hasRootCauseMessage("pgvector is down");
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord(long offset, long productId) {
+        ProductCdcMessage message = ProductCdcMessage.builder()
+            .op(Operation.CREATE)
+            .after(Product.builder().id(productId).isPublished(true).build())
+            .build();
+        return new ConsumerRecord<>(TOPIC, 0, offset, new ProductMsgKey(productId), message);
+    }
+
+    private static ProductDetailVm product(long id) {
+        return new ProductDetailVm(id, "Product " + id, null, null, null, null, null, "product-" + id,
+            true, true, false, true, false, 10.0, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Local embedding model returning a zero vector per text.
+     */
+    private static class StubEmbeddingModel implements EmbeddingModel {
+
+        private final List<Integer> callSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            callSizes.add(request.getInstructions().size());
+            return new EmbeddingResponse(IntStream.range(0, request.getInstructions().size())
+                .mapToObj(i -> new Embedding(new float[1], i))
+                .toList());
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return new float[1];
+        }
+    }
+}
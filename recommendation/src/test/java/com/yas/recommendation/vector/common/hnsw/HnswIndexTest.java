@@ -0,0 +1,229 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int VECTOR_COUNT = 2_000;
+    private static final int TOP_K = 10;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(42);
+    private final List<HnswIndex> openedIndexes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (HnswIndex index : openedIndexes) {
+            index.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Search should find most of the exact nearest neighbors")
+    void search_whenIndexIsBuilt_thenRecallIsHigh() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        List<float[]> vectors = randomVectors(VECTOR_COUNT);
+        for (int i = 0; i < vectors.size(); i++) {
+            index.upsert(document(i), vectors.get(i), null);
+        }
+
+        // When
+        int found = 0;
+        int expected = 0;
+        for (int query = 0; query < 50; query++) {
+            float[] vector = randomVector();
+            Set<String> exact = exactNeighbors(vectors, vector);
+            found += (int) index.search(vector, TOP_K, 64, document -> true).stream()
+                .map(neighbor -> neighbor.document().getId())
+                .filter(exact::contains)
+                .count();
+            expected += exact.size();
+        }
+
+        // Then
+        assertTrue(found >= expected * 0.9, "recall %d/%d".formatted(found, expected));
+    }
+
+    @Test
+    @DisplayName("Removed documents should not be returned")
+    void remove_whenDocumentIsIndexed_thenItIsNotReturned() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        float[] vector = randomVector();
+        index.upsert(document(1), vector, "v1");
+        index.upsert(document(2), randomVector(), "v1");
+
+        // When
+        boolean isRemoved = index.remove("doc-1");
+
+        // Then
+        assertTrue(isRemoved);
+        assertFalse(index.remove("doc-1"));
+        assertNull(index.getVector("doc-1"));
+        assertEquals(1, index.size());
+        assertTrue(index.search(vector, TOP_K, 16, document -> true).stream()
+            .noneMatch(neighbor -> neighbor.document().getId().equals("doc-1")));
+    }
+
+    @Test
+    @DisplayName("Filtered documents should be skipped")
+    void search_whenFilterIsGiven_thenOnlyMatchingDocumentsAreReturned() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        for (int i = 0; i < 100; i++) {
+            index.upsert(document(i), randomVector(), null);
+        }
+
+        // When
+        List<HnswIndex.Neighbor> neighbors = index.search(randomVector(), TOP_K, 100, HnswIndexTest::hasEvenId);
+
+        // Then
+        assertEquals(TOP_K, neighbors.size());
+        assertTrue(neighbors.stream().allMatch(neighbor -> hasEvenId(neighbor.document())));
+    }
+
+    @Test
+    @DisplayName("A saved index should be reopened with the same documents and neighbors")
+    void save_whenIndexIsReopened_thenDocumentsAreRestored() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        for (int i = 0; i < 200; i++) {
+            index.upsert(document(i), randomVector(), "v" + i);
+        }
+        index.remove("doc-0");
+        float[] query = randomVector();
+        List<HnswIndex.Neighbor> expected = index.search(query, TOP_K, 32, document -> true);
+
+        // When
+        index.save();
+        index.close();
+        openedIndexes.remove(index);
+        HnswIndex reopened = open(0.25);
+
+        // Then
+        assertEquals(199, reopened.size());
+        assertEquals("v7", reopened.getVersions().get("doc-7"));
+        assertEquals(
+            expected.stream().map(neighbor -> neighbor.document().getId()).toList(),
+            reopened.search(query, TOP_K, 32, document -> true).stream()
+                .map(neighbor -> neighbor.document().getId())
+                .toList()
+        );
+    }
+
+    @Test
+    @DisplayName("A snapshot with too many deleted documents should be discarded")
+    void open_whenDeletedRatioIsExceeded_thenIndexIsEmpty() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        for (int i = 0; i < 10; i++) {
+            index.upsert(document(i), randomVector(), null);
+        }
+        IntStream.range(0, 5).forEach(i -> index.remove("doc-" + i));
+        index.save();
+        index.close();
+        openedIndexes.remove(index);
+
+        // When
+        HnswIndex reopened = open(0.25);
+
+        // Then
+        assertEquals(0, reopened.size());
+    }
+
+    @Test
+    @DisplayName("A discarded snapshot should not be reloaded over the vectors written after it")
+    void open_whenRebuiltIndexStopsBeforeSnapshot_thenDiscardedSnapshotIsNotReloaded() throws IOException {
+        // Given
+        HnswIndex index = open(0.25);
+        for (int i = 0; i < 10; i++) {
+            index.upsert(document(i), randomVector(), null);
+        }
+        IntStream.range(0, 5).forEach(i -> index.remove("doc-" + i));
+        index.save();
+        index.close();
+        openedIndexes.remove(index);
+        HnswIndex rebuilt = open(0.25);
+        rebuilt.upsert(document(100), randomVector(), null);
+
+        // When
+        rebuilt.close();
+        openedIndexes.remove(rebuilt);
+        HnswIndex reopened = open(1.0);
+
+        // Then
+        assertFalse(Files.exists(directory.resolve("index.bin")));
+        assertEquals(0, reopened.size());
+    }
+
+    private HnswIndex open(double maxDeletedRatio) throws IOException {
+        HnswIndex index = HnswIndex.open(directory, DIMENSIONS, 16, 100, maxDeletedRatio, new ObjectMapper());
+        openedIndexes.add(index);
+        return index;
+    }
+
+    private Set<String> exactNeighbors(List<float[]> vectors, float[] query) {
+        return IntStream.range(0, vectors.size()).boxed()
+            .sorted(Comparator.comparingDouble(i -> cosineDistance(vectors.get(i), query)))
+            .limit(TOP_K)
+            .map(i -> "doc-" + i)
+            .collect(Collectors.toSet());
+    }
+
+    private static double cosineDistance(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return 1 - dot / Math.sqrt(normA * normB);
+    }
+
+    private List<float[]> randomVectors(int count) {
+        return IntStream.range(0, count).mapToObj(i -> randomVector()).toList();
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = random.nextFloat() - 0.5f;
+        }
+        return vector;
+    }
+
+    private static boolean hasEvenId(Document document) {
+        return (Integer) document.getMetadata().get("id") % 2 == 0;
+    }
+
+    private static Document document(int id) {
+        return new Document("doc-" + id, "product " + id, Map.of("id", id));
+    }
+}
@@ -0,0 +1,70 @@
+package com.yas.recommendation.vector.common.hnsw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+class MetadataFilterTest {
+
+    private final FilterExpressionBuilder builder = new FilterExpressionBuilder();
+
+    private final List<Document> documents = List.of(
+        new Document("doc-1", "product 1", Map.of("price", 10, "brand", "acme")),
+        new Document("doc-2", "product 2", Map.of("price", 25.5, "brand", "globex")),
+        new Document("doc-3", "product 3", Map.of("brand", "initech"))
+    );
+
+    @Test
+    @DisplayName("Comparison operators should keep the documents whose value is in range")
+    void of_whenComparisonOperators_thenDocumentsInRangeAreKept() {
+        // Given
+        Filter.Expression expression = builder.and(builder.gte("price", 10), builder.lt("price", 25.5)).build();
+
+        // When
+        List<String> docIds = filter(MetadataFilter.of(expression));
+
+        // Then
+        assertEquals(List.of("doc-1"), docIds);
+    }
+
+    @Test
+    @DisplayName("Comparison operators should compare strings and skip documents without the value")
+    void of_whenStringComparison_thenMissingValuesAreSkipped() {
+        // Given
+        Filter.Expression expression = builder.or(builder.gt("brand", "b"), builder.lte("price", 10)).build();
+
+        // When
+        List<String> docIds = filter(MetadataFilter.of(expression));
+
+        // Then
+        assertEquals(List.of("doc-1", "doc-2", "doc-3"), docIds);
+        assertEquals(List.of(), filter(MetadataFilter.of(builder.gt("price", 100).build())));
+    }
+
+    @Test
+    @DisplayName("An expression the metadata cannot be compared to should be rejected when parsed")
+    void of_whenComparedToAList_thenExpressionIsRejected() {
+        // Given
+        Filter.Expression expression = new Filter.Expression(Filter.ExpressionType.GT,
+            new Filter.Key("price"), new Filter.Value(List.of(10, 20)));
+
+        // When
+        IllegalArgumentException exception =
+            assertThrows(IllegalArgumentException.class, () -> MetadataFilter.of(expression));
+
+        // Then
+        assertEquals("Filter operator GT needs a number or a string value", exception.getMessage());
+    }
+
+    private List<String> filter(Predicate<Document> predicate) {
+        return documents.stream().filter(predicate).map(Document::getId).toList();
+    }
+}
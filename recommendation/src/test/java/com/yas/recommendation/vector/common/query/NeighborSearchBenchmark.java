@@ -0,0 +1,149 @@
+package com.yas.recommendation.vector.common.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.HnswStoreConfiguration;
+import com.yas.recommendation.vector.common.hnsw.HnswVectorStore;
+import com.yas.recommendation.vector.common.store.VectorDocumentRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * JMH comparison of the neighbor search through pgvector and through the in-process HNSW vector store,
+ * over the same synthetic vectors.
+ *
+ * <p>Not part of the regular test run. Build the test classes, then run {@link #main(String[])}
+ * from the IDE or with the test classpath. Requires Docker.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class NeighborSearchBenchmark {
+
+    private static final String TABLE = "vector_store";
+    private static final int TOP_K = 10;
+    private static final int EF_SEARCH = 40;
+    private static final int SAMPLE_IDS = 1_000;
+
+    @Param({"128"})
+    int dimensions;
+
+    @Param({"100000"})
+    int vectorCount;
+
+    private PostgreSQLContainer<?> postgres;
+    private Path indexDirectory;
+    private JdbcVectorService jdbcVectorService;
+    private HnswVectorStore hnswVectorStore;
+    private List<String> ids;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NeighborSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("pgvector/pgvector:pg16").asCompatibleSubstituteFor("postgres")
+        );
+        postgres.start();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()
+        );
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        seed(jdbcTemplate);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        EmbeddingSearchConfiguration searchConfiguration = new EmbeddingSearchConfiguration(-1.0, TOP_K, EF_SEARCH);
+        jdbcVectorService = new JdbcVectorService(
+            jdbcTemplate, new DataSourceTransactionManager(dataSource), objectMapper, searchConfiguration, TABLE
+        );
+        indexDirectory = Files.createTempDirectory("hnsw-benchmark");
+        // The embedding model is only used to embed query texts, not by the neighbor search.
+        hnswVectorStore = new HnswVectorStore(
+            null,
+            new VectorDocumentRepository(jdbcTemplate, objectMapper, TABLE),
+            searchConfiguration,
+            new HnswStoreConfiguration(indexDirectory, 16, 100, Duration.ofMinutes(5), 0.25),
+            objectMapper,
+            dimensions
+        );
+        hnswVectorStore.synchronize();
+        ids = jdbcTemplate.queryForList(
+            "SELECT id::text FROM %s ORDER BY random() LIMIT %d".formatted(TABLE, SAMPLE_IDS), String.class
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        hnswVectorStore.destroy();
+        postgres.stop();
+        try (Stream<Path> files = Files.walk(indexDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<?> pgvector() {
+        return jdbcVectorService.findNeighbors(randomId());
+    }
+
+    @Benchmark
+    public List<?> hnsw() {
+        return hnswVectorStore.findNeighbors(randomId());
+    }
+
+    private String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("""
+            CREATE TABLE %s (id uuid PRIMARY KEY, content text, metadata json, embedding vector(%d))
+            """.formatted(TABLE, dimensions));
+        // The WHERE clause correlates the array subquery, so that each row gets its own random vector.
+        jdbcTemplate.execute("""
+            INSERT INTO %s (id, content, metadata, embedding)
+            SELECT gen_random_uuid(), 'product ' || g, json_build_object('id', g),
+                (SELECT array_agg(random() - 0.5)::real[] FROM generate_series(1, %d) WHERE g > 0)::vector
+            FROM generate_series(1, %d) g
+            """.formatted(TABLE, dimensions, vectorCount));
+        jdbcTemplate.execute("""
+            SET maintenance_work_mem = '2GB';
+            CREATE INDEX %1$s_embedding_idx ON %1$s USING hnsw (embedding vector_cosine_ops)
+            """.formatted(TABLE));
+        jdbcTemplate.execute("ANALYZE " + TABLE);
+    }
+}
@@ -0,0 +1,183 @@
+package com.yas.recommendation.vector.common.query;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Benchmark of the similarity query over synthetic vectors, against the former CTE and JOIN query.
+ *
+ * <p>Not part of the regular test run, start it with
+ * {@code mvn -pl recommendation test -Dtest=SimilarityQueryBenchmark}. Requires Docker.
+ * The vector dimensions and number of timed queries can be set with the {@code benchmark.dimensions}
+ * and {@code benchmark.queries} system properties. Plans and latency percentiles are logged.</p>
+ */
+@Slf4j
+@DisplayName("Similarity query benchmark")
+class SimilarityQueryBenchmark {
+
+    private static final String TABLE = "vector_store";
+    private static final int DIMENSIONS = Integer.getInteger("benchmark.dimensions", 128);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 200);
+    private static final int LEGACY_QUERIES = 10;
+    private static final int TOP_K = 10;
+    private static final int BASKET_SIZE = 5;
+
+    private static final String LEGACY_QUERY = """
+            WITH entity AS (
+                SELECT id, content, metadata, embedding FROM vector_store WHERE id = ?
+            )
+            SELECT vs.id, vs.content, vs.metadata, (vs.embedding <=> entity.embedding) AS similarity
+            FROM vector_store vs
+            JOIN entity ON true
+            WHERE vs.id <> ? AND (vs.embedding <=> entity.embedding) > ?
+            ORDER BY similarity
+            LIMIT ?
+            """;
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+        DockerImageName.parse("pgvector/pgvector:pg16").asCompatibleSubstituteFor("postgres")
+    );
+
+    private static JdbcTemplate jdbcTemplate;
+    private static JdbcVectorService jdbcVectorService;
+
+    @BeforeAll
+    static void setUp() {
+        POSTGRES.start();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcVectorService = new JdbcVectorService(
+            jdbcTemplate,
+            new DataSourceTransactionManager(dataSource),
+            new ObjectMapper(),
+            new EmbeddingSearchConfiguration(-1.0, TOP_K, 40),
+            TABLE
+        );
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        POSTGRES.stop();
+    }
+
+    @ParameterizedTest(name = "{0} vectors")
+    @ValueSource(ints = {100_000, 1_000_000})
+    void benchmarkSimilarityQuery(int vectorCount) {
+        // Given
+        seed(vectorCount);
+        List<String> ids = jdbcTemplate.queryForList(
+            "SELECT id::text FROM %s ORDER BY random() LIMIT %d".formatted(TABLE, QUERIES), String.class
+        );
+
+        // When
+        String plan = explain(jdbcVectorService.getSimilarityQuery(), ids.getFirst(), ids.getFirst(), TOP_K, 2.0);
+        String legacyPlan = explain(LEGACY_QUERY, ids.getFirst(), ids.getFirst(), 0.0, TOP_K);
+        List<String> basket = ids.subList(0, BASKET_SIZE);
+        List<Object> centroidParams = new ArrayList<>(basket);
+        centroidParams.addAll(basket);
+        centroidParams.add(TOP_K);
+        centroidParams.add(2.0);
+        String centroidPlan = explain(jdbcVectorService.getCentroidSimilarityQuery(BASKET_SIZE),
+            centroidParams.toArray());
+        log.info("{} vectors, similarity query plan:\n{}", vectorCount, plan);
+        log.info("{} vectors, basket similarity query plan:\n{}", vectorCount, centroidPlan);
+        log.info("{} vectors, former query plan:\n{}", vectorCount, legacyPlan);
+
+        ids.stream().limit(20).forEach(jdbcVectorService::findNeighbors);
+        long[] latencies = ids.stream()
+            .mapToLong(id -> time(() -> jdbcVectorService.findNeighbors(id)))
+            .toArray();
+        long[] basketLatencies = ids.stream()
+            .limit(QUERIES / BASKET_SIZE)
+            .mapToLong(id -> time(() -> jdbcVectorService.findNeighbors(randomBasket(ids))))
+            .toArray();
+        long[] legacyLatencies = ids.stream()
+            .limit(LEGACY_QUERIES)
+            .mapToLong(id -> time(() -> jdbcTemplate.queryForList(LEGACY_QUERY, toUuid(id), toUuid(id), 0.0, TOP_K)))
+            .toArray();
+        log.info("{} vectors, similarity query latency {}", vectorCount, percentiles(latencies));
+        log.info("{} vectors, basket similarity query latency {}", vectorCount, percentiles(basketLatencies));
+        log.info("{} vectors, former query latency {}", vectorCount, percentiles(legacyLatencies));
+
+        // Then
+        assertTrue(plan.contains("Index Scan using %s_embedding_idx".formatted(TABLE)), plan);
+        assertTrue(centroidPlan.contains("Index Scan using %s_embedding_idx".formatted(TABLE)), centroidPlan);
+    }
+
+    private static void seed(int vectorCount) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("""
+            CREATE TABLE %s (id uuid PRIMARY KEY, content text, metadata json, embedding vector(%d))
+            """.formatted(TABLE, DIMENSIONS));
+        // The WHERE clause correlates the array subquery, so that each row gets its own random vector.
+        jdbcTemplate.execute("""
+            INSERT INTO %s (id, content, metadata, embedding)
+            SELECT gen_random_uuid(), 'product ' || g, json_build_object('id', g),
+                (SELECT array_agg(random() - 0.5)::real[] FROM generate_series(1, %d) WHERE g > 0)::vector
+            FROM generate_series(1, %d) g
+            """.formatted(TABLE, DIMENSIONS, vectorCount));
+        // Each statement may run on a new connection, so the setting is sent with the index creation.
+        jdbcTemplate.execute("""
+            SET maintenance_work_mem = '2GB';
+            CREATE INDEX %1$s_embedding_idx ON %1$s USING hnsw (embedding vector_cosine_ops)
+            """.formatted(TABLE));
+        jdbcTemplate.execute("ANALYZE " + TABLE);
+    }
+
+    private static String explain(String query, Object... params) {
+        Object[] args = Arrays.stream(params)
+            .map(param -> param instanceof String id ? toUuid(id) : param)
+            .toArray();
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN ANALYZE " + query, String.class, args));
+    }
+
+    private static List<String> randomBasket(List<String> ids) {
+        List<String> shuffled = new ArrayList<>(ids);
+        Collections.shuffle(shuffled);
+        return shuffled.subList(0, BASKET_SIZE);
+    }
+
+    private static UUID toUuid(String id) {
+        return UUID.fromString(id);
+    }
+
+    private static long time(Runnable query) {
+        long start = System.nanoTime();
+        query.run();
+        return System.nanoTime() - start;
+    }
+
+    private static String percentiles(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        List<String> values = new ArrayList<>();
+        for (double percentile : new double[] {0.5, 0.95, 0.99}) {
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+            values.add("p%d=%.2fms".formatted((int) (percentile * 100),
+                sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        return String.join(", ", values);
+    }
+}
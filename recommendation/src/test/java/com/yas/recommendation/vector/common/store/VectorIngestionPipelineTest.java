@@ -0,0 +1,191 @@
+package com.yas.recommendation.vector.common.store;
+
+import static com.yas.recommendation.vector.common.store.SimpleVectorRepository.CONTENT_HASH_METADATA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.recommendation.configuration.EmbeddingIngestionConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * Unit tests for VectorIngestionPipeline.
+ *
+ * <p>Test Doubles Used:
+ *   - Stub: EmbeddingModel, records the size of each model call instead of calling a remote endpoint
+ *   - Mock: VectorDocumentRepository, verifies the batched writes
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VectorIngestionPipeline Unit Tests")
+class VectorIngestionPipelineTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private VectorDocumentRepository vectorDocumentRepository;
+
+    private StubEmbeddingModel embeddingModel;
+
+    private VectorIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = new StubEmbeddingModel();
+        pipeline = new VectorIngestionPipeline(
+            embeddingModel,
+            vectorDocumentRepository,
+            new EmbeddingIngestionConfiguration(BATCH_SIZE, Duration.ofMillis(200), 16),
+            new SimpleMeterRegistry(),
+            event -> { }
+        );
+        pipeline.start();
+    }
+
+    @Test
+    @DisplayName("Should embed documents with one model call per batch")
+    void testUpsert_EmbedsOncePerBatch() throws InterruptedException {
+        // Given
+        List<Document> documents = IntStream.range(0, 5)
+            .mapToObj(i -> document("doc-" + i, "hash-" + i))
+            .toList();
+
+        // When
+        documents.forEach(pipeline::upsert);
+        pipeline.stop();
+
+        // Then
+        assertEquals(List.of(2, 2, 1), embeddingModel.callSizes);
+        verify(vectorDocumentRepository, times(3)).upsert(anyList(), anyList());
+        verify(vectorDocumentRepository).upsert(eq(documents.subList(0, 2)), anyList());
+    }
+
+    @Test
+    @DisplayName("Should only refresh metadata when the content hash is unchanged")
+    void testUpsert_UnchangedContent_SkipsEmbedding() throws InterruptedException {
+        // Given
+        Document document = document("doc-1", "hash-1");
+        when(vectorDocumentRepository.findMetadataValues(anyList(), eq(CONTENT_HASH_METADATA)))
+            .thenReturn(Map.of("doc-1", "hash-1"));
+
+        // When
+        pipeline.upsert(document);
+        pipeline.stop();
+
+        // Then
+        assertEquals(List.of(), embeddingModel.callSizes);
+        verify(vectorDocumentRepository).updateMetadata(List.of(document));
+        verify(vectorDocumentRepository, never()).upsert(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep only the last write of a document within a batch")
+    void testDelete_AfterUpsertInSameBatch_OnlyDeletes() throws InterruptedException {
+        // Given
+        Document document = document("doc-1", "hash-1");
+
+        // When
+        pipeline.upsert(document);
+        pipeline.delete("doc-1");
+        pipeline.stop();
+
+        // Then
+        assertEquals(List.of(), embeddingModel.callSizes);
+        verify(vectorDocumentRepository).delete(List.of("doc-1"));
+        verify(vectorDocumentRepository, never()).upsert(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should complete the write of each document once its batch is stored")
+    void testUpsert_CompletesOnceStored() {
+        // Given
+        Document document = document("doc-1", "hash-1");
+
+        // When
+        CompletableFuture<Void> write = pipeline.upsert(document);
+
+        // Then
+        write.join();
+        verify(vectorDocumentRepository).upsert(eq(List.of(document)), anyList());
+    }
+
+    @Test
+    @DisplayName("Should fail the writes of a failed batch, so that the consumer can retry them")
+    void testUpsert_FailedBatch_FailsWrites() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("pgvector is down");
+        doThrow(failure).when(vectorDocumentRepository).upsert(anyList(), anyList());
+
+        // When
+        CompletableFuture<Void> upsert = pipeline.upsert(document("doc-1", "hash-1"));
+        CompletableFuture<Void> delete = pipeline.delete("doc-2");
+
+        // Then
+        CompletionException exception = assertThrows(CompletionException.class, upsert::join);
+        assertThat(exception).hasCause(failure);
+        assertThrows(CompletionException.class, delete::join);
+    }
+
+    @Test
+    @DisplayName("Should reject writes once stopped")
+    void testUpsert_AfterStop_IsRejected() throws InterruptedException {
+        // Given
+        pipeline.stop();
+        Document document = document("doc-1", "hash-1");
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> pipeline.upsert(document));
+    }
+
+    private static Document document(String id, String contentHash) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(CONTENT_HASH_METADATA, contentHash);
+        return new Document(id, "content of " + id, metadata);
+    }
+
+    /**
+     * Local embedding model returning a zero vector per text.
+     */
+    private static class StubEmbeddingModel implements EmbeddingModel {
+
+        private final List<Integer> callSizes = new ArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            callSizes.add(request.getInstructions().size());
+            return new EmbeddingResponse(IntStream.range(0, request.getInstructions().size())
+                .mapToObj(i -> new Embedding(new float[1], i))
+                .toList());
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return new float[1];
+        }
+    }
+}
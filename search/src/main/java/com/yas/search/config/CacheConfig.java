@@ -0,0 +1,16 @@
+package com.yas.search.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process caches of the search service.
+ * Cache sizing and expiry are configured through the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCT_SEARCH_CACHE = "productSearch";
+    public static final String PRODUCT_FACETS_CACHE = "productFacets";
+}
@@ -8,6 +8,9 @@ public class ProductField {
     public static final String CATEGORIES = "categories";
     public static final String ATTRIBUTES = "attributes";
     public static final String CREATE_ON = "createdOn";
+    public static final String NAME_SUGGEST = "nameSuggest";
+    public static final String CATEGORY_CONTEXT = "category";
+    public static final String ALL_CATEGORIES = "_all";
 
     private ProductField() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
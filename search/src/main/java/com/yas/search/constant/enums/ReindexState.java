@@ -0,0 +1,8 @@
+package com.yas.search.constant.enums;
+
+public enum ReindexState {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
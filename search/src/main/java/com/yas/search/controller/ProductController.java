@@ -3,6 +3,7 @@ package com.yas.search.controller;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.ProductCriteriaDto;
 import com.yas.search.service.ProductService;
+import com.yas.search.viewmodel.ProductFacetVm;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameListVm;
 import org.springframework.http.ResponseEntity;
@@ -28,14 +29,31 @@ public class ProductController {
                                                                @RequestParam(required = false) Double minPrice,
                                                                @RequestParam(required = false) Double maxPrice,
                                                                @RequestParam(defaultValue = "DEFAULT")
-                                                               SortType sortType) {
+                                                               SortType sortType,
+                                                               @RequestParam(defaultValue = "true")
+                                                               boolean facets) {
         return ResponseEntity.ok(productService.findProductAdvance(
-            new ProductCriteriaDto(keyword, page, size, brand, category, attribute, minPrice, maxPrice, sortType)
+            new ProductCriteriaDto(keyword, page, size, brand, category, attribute, minPrice, maxPrice, sortType),
+            facets
         ));
     }
 
+    @GetMapping("/storefront/catalog-search/facets")
+    public ResponseEntity<ProductFacetVm> findProductFacets(@RequestParam(defaultValue = "") String keyword,
+                                                            @RequestParam(required = false) String brand,
+                                                            @RequestParam(required = false) String category,
+                                                            @RequestParam(required = false) String attribute,
+                                                            @RequestParam(required = false) Double minPrice,
+                                                            @RequestParam(required = false) Double maxPrice) {
+        return ResponseEntity.ok(new ProductFacetVm(productService.getFacets(
+            new ProductCriteriaDto(keyword, null, null, brand, category, attribute, minPrice, maxPrice, null)
+        )));
+    }
+
     @GetMapping("/storefront/search_suggest")
-    public ResponseEntity<ProductNameListVm> productSearchAutoComplete(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.autoCompleteProductName(keyword));
+    public ResponseEntity<ProductNameListVm> productSearchAutoComplete(@RequestParam String keyword,
+                                                                       @RequestParam(required = false)
+                                                                       String category) {
+        return ResponseEntity.ok(productService.autoCompleteProductName(keyword, category));
     }
 }
@@ -2,7 +2,10 @@ package com.yas.search.kafka.config.consumer;
 
 import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessageDeserializer;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,8 +21,10 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
 
     public static final String PRODUCT_CDC_LISTENER_CONTAINER_FACTORY = "productCdcListenerContainerFactory";
 
-    public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
-        super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties);
+    public static final String PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY = "productCdcBatchListenerContainerFactory";
+
+    public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties, MeterRegistry meterRegistry) {
+        super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties, meterRegistry);
     }
 
     @Bean(name = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
@@ -28,4 +33,27 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
         return super.kafkaListenerContainerFactory();
     }
 
+    /**
+     * Reads all the columns, compared by the change filter of the consumer, with the before row.
+     */
+    @Override
+    protected Deserializer<ProductCdcMessage> valueDeserializer() {
+        return new ProductCdcMessageDeserializer(true);
+    }
+
+    @Override
+    protected Long getEventTimestamp(ProductCdcMessage value) {
+        return value.getTsMs();
+    }
+
+    /**
+     * Listener container factory delivering the whole poll result at once to batch listeners.
+     *
+     * @return a batch {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    @Bean(name = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<ProductMsgKey, ProductCdcMessage> batchListenerContainerFactory() {
+        return super.batchKafkaListenerContainerFactory();
+    }
+
 }
\ No newline at end of file
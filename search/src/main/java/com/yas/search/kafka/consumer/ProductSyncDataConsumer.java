@@ -1,16 +1,26 @@
 package com.yas.search.kafka.consumer;
 
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
 import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
 
 import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.CdcChangeFilter;
 import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.search.service.ProductSyncDataService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
-import lombok.extern.slf4j.Slf4j;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -20,21 +30,63 @@ import org.springframework.stereotype.Service;
 
 /**
  * Product synchronize data consumer for elasticsearch.
+ *
+ * <p>CDC events are consumed in batches: events of a product are collapsed to the latest one and the whole
+ * batch is written with a single bulk request. Products which fail are republished to the sync failed topic,
+ * consumed one record at a time with the usual retry and dead letter topics. Updates which only change
+ * the stock quantity are dropped first.
  */
-@Slf4j
 @Service
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
 
+    /**
+     * Columns of the product table which the product document is not built from.
+     */
+    public static final Set<String> IGNORED_COLUMNS = Set.of("stock_quantity");
+
     private final ProductSyncDataService productSyncDataService;
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final String syncFailedTopic;
+    private final CdcChangeFilter changeFilter;
 
-    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService) {
+    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService,
+                                   KafkaTemplate<Object, Object> kafkaTemplate,
+                                   @Value("${product.sync.failed-topic.name}") String syncFailedTopic,
+                                   MeterRegistry meterRegistry) {
         this.productSyncDataService = productSyncDataService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.syncFailedTopic = syncFailedTopic;
+        this.changeFilter = new CdcChangeFilter("product-sync-es", IGNORED_COLUMNS, meterRegistry);
     }
 
     @KafkaListener(
-        id = "product-sync-es",
+        id = "product-sync-es-batch",
         groupId = "product-sync-search",
         topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        LOGGER.debug("## Received batch of {} records", records.size());
+        Map<Long, ConsumerRecord<ProductMsgKey, ProductCdcMessage>> latestRecords = new LinkedHashMap<>();
+        compact(records.stream().filter(consumerRecord -> changeFilter.isRelevant(consumerRecord.value())).toList())
+            .forEach((key, consumerRecord) -> latestRecords.put(key.getId(), consumerRecord));
+
+        Map<Long, Operation> operations = new LinkedHashMap<>();
+        latestRecords.forEach((id, consumerRecord) -> operations.put(id, getOperation(consumerRecord.value())));
+
+        Set<Long> failedIds = productSyncDataService.syncProducts(operations);
+        failedIds.forEach(id -> {
+            ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord = latestRecords.get(id);
+            LOGGER.warn("Product '{}' failed to synchronize, sending it to '{}'", id, syncFailedTopic);
+            kafkaTemplate.send(syncFailedTopic, consumerRecord.key(), consumerRecord.value()).join();
+        });
+        LOGGER.debug("## Batch processed - {} products, {} failed", operations.size(), failedIds.size());
+    }
+
+    @KafkaListener(
+        id = "product-sync-es",
+        groupId = "product-sync-search-failed",
+        topics = "${product.sync.failed-topic.name}",
         containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY
     )
     @RetrySupportDql(listenerContainerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
@@ -49,7 +101,7 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
     public void sync(ProductMsgKey key, ProductCdcMessage productCdcMessage) {
         boolean isHardDeleteEvent = productCdcMessage == null || DELETE.equals(productCdcMessage.getOp());
         if (isHardDeleteEvent) {
-            log.warn("Having hard delete event for product: '{}'", key.getId());
+            LOGGER.warn("Having hard delete event for product: '{}'", key.getId());
             productSyncDataService.deleteProduct(key.getId());
         } else {
             var operation = productCdcMessage.getOp();
@@ -57,8 +109,17 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
             switch (operation) {
                 case CREATE, READ -> productSyncDataService.createProduct(productId);
                 case UPDATE -> productSyncDataService.updateProduct(productId);
-                default -> log.warn("Unsupported operation '{}' for product: '{}'", operation, productId);
+                default -> LOGGER.warn("Unsupported operation '{}' for product: '{}'", operation, productId);
             }
         }
     }
+
+    @Override
+    protected boolean isReadable(ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord) {
+        return super.isReadable(consumerRecord) && consumerRecord.key().getId() != null;
+    }
+
+    private static Operation getOperation(ProductCdcMessage productCdcMessage) {
+        return productCdcMessage == null ? DELETE : productCdcMessage.getOp();
+    }
 }
@@ -1,17 +1,23 @@
 package com.yas.search.model;
 
+import com.yas.search.constant.ProductField;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionContext;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 @Document(indexName = "product")
 @Setting(settingPath = "esconfig/elastic-analyzer.json")
@@ -41,4 +47,28 @@ public class Product {
     private List<String> attributes;
     @Field(type = FieldType.Date)
     private ZonedDateTime createdOn;
+    @CompletionField(maxInputLength = 100, contexts = {
+        @CompletionContext(name = ProductField.CATEGORY_CONTEXT, type = CompletionContext.ContextMappingType.CATEGORY)
+    })
+    private Completion nameSuggest;
+
+    /**
+     * Builds the autocomplete suggestion of a product, only published products are suggested.
+     *
+     * <p>A completion field with contexts must always be queried with a context, so the suggestion is indexed
+     * under {@link ProductField#ALL_CATEGORIES} in addition to its categories, which unfiltered queries use.
+     */
+    public static Completion nameSuggestOf(String name, Boolean isPublished, List<String> categories) {
+        if (!Boolean.TRUE.equals(isPublished) || name == null) {
+            return null;
+        }
+        List<String> contexts = new ArrayList<>();
+        contexts.add(ProductField.ALL_CATEGORIES);
+        if (categories != null) {
+            contexts.addAll(categories);
+        }
+        Completion completion = new Completion(new String[]{name});
+        completion.setContexts(Map.of(ProductField.CATEGORY_CONTEXT, contexts));
+        return completion;
+    }
 }
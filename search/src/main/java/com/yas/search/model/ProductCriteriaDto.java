@@ -1,6 +1,10 @@
 package com.yas.search.model;
 
 import com.yas.search.constant.enums.SortType;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 public record ProductCriteriaDto(String keyword,
                                  Integer page,
@@ -11,4 +15,45 @@ public record ProductCriteriaDto(String keyword,
                                  Double minPrice,
                                  Double maxPrice,
                                  SortType sortType) {
+
+    /**
+     * Returns the criteria in a canonical form, so that requests leading to the same search are equal.
+     * The keyword whitespace is collapsed, and filter values, matched case-insensitively, are lower-cased,
+     * deduplicated and sorted.
+     *
+     * @return the normalized criteria
+     */
+    public ProductCriteriaDto normalize() {
+        return new ProductCriteriaDto(
+            StringUtils.normalizeSpace(StringUtils.defaultString(keyword)),
+            page,
+            size,
+            normalizeValues(brand),
+            normalizeValues(category),
+            normalizeValues(attribute),
+            minPrice,
+            maxPrice,
+            sortType
+        );
+    }
+
+    /**
+     * Returns the criteria without paging and sorting, which do not change the facet counts.
+     *
+     * @return the criteria identifying a facets query
+     */
+    public ProductCriteriaDto withoutPaging() {
+        return new ProductCriteriaDto(keyword, null, null, brand, category, attribute, minPrice, maxPrice, null);
+    }
+
+    private static String normalizeValues(String values) {
+        if (StringUtils.isBlank(values)) {
+            return null;
+        }
+        return Arrays.stream(values.split(","))
+            .map(value -> value.toLowerCase(Locale.ROOT))
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
 }
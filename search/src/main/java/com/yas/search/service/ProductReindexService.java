@@ -0,0 +1,351 @@
+package com.yas.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.commonlibrary.utils.AuthenticationUtils;
+import com.yas.search.config.CacheConfig;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.enums.ReindexState;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductEsDetailVm;
+import com.yas.search.viewmodel.ReindexStatusVm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the product index from a full export of the product service without search downtime.
+ *
+ * <p>Documents are loaded into a fresh {@code product_v{n}} index, with refresh and replicas disabled, by
+ * concurrent bulk requests. Once loaded, the {@code product} alias is moved to it in one atomic request and
+ * the previous indices are deleted. The CDC sync listeners are paused meanwhile, so changes made during the
+ * load are applied to the new index when they resume instead of being lost in the old one. The search
+ * result caches are cleared once the alias is moved, since they hold results of the previous index.
+ */
+@Slf4j
+@Service
+public class ProductReindexService {
+
+    static final String ALIAS = "product";
+    private static final String INDEX_PREFIX = ALIAS + "_v";
+    private static final String SYNC_LISTENER_ID_PREFIX = "product-sync-es";
+    private static final String METRIC_PREFIX = "yas.search.reindex";
+    private static final Duration PAUSE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ProductSyncDataService productSyncDataService;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final int batchSize;
+    private final String replicas;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final AtomicLong failedDocuments = new AtomicLong();
+    private final Counter indexedCounter;
+    private final Counter failedCounter;
+    private volatile ReindexState state = ReindexState.IDLE;
+    private volatile String index;
+    private volatile Instant startedOn;
+    private volatile Instant finishedOn;
+
+    public ProductReindexService(ElasticsearchOperations elasticsearchOperations,
+                                 ElasticsearchClient elasticsearchClient,
+                                 ProductSyncDataService productSyncDataService,
+                                 KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+                                 CacheManager cacheManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${search.reindex.concurrency:4}") int concurrency,
+                                 @Value("${search.reindex.batch-size:1000}") int batchSize,
+                                 @Value("${search.reindex.replicas:1}") String replicas) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.productSyncDataService = productSyncDataService;
+        this.kafkaListenerEndpointRegistry = kafkaListenerEndpointRegistry;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.replicas = replicas;
+
+        this.indexedCounter = Counter.builder(METRIC_PREFIX + ".documents")
+            .description("Documents written by product reindexing")
+            .tag("outcome", "indexed")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".documents")
+            .description("Documents written by product reindexing")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".running", running, value -> value.get() ? 1 : 0)
+            .description("Whether a product reindex is running")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".progress", indexedDocuments, AtomicLong::get)
+            .description("Documents indexed by the current or last product reindex")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".throughput", this, ProductReindexService::getDocumentsPerSecond)
+            .description("Documents indexed per second by the current or last product reindex")
+            .baseUnit("documents/s")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts a full reindex in the background.
+     *
+     * @return the status of the started reindex
+     * @throws BadRequestException if a reindex is already running
+     */
+    public ReindexStatusVm startReindex() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException(MessageCode.REINDEX_ALREADY_RUNNING);
+        }
+        indexedDocuments.set(0);
+        failedDocuments.set(0);
+        index = null;
+        startedOn = Instant.now();
+        finishedOn = null;
+        state = ReindexState.RUNNING;
+        // The export is a backoffice endpoint, it is called with the token of the administrator
+        String jwt = AuthenticationUtils.extractJwt();
+        Thread.ofVirtual().name("product-reindex").start(() -> reindex(jwt));
+        return getStatus();
+    }
+
+    public ReindexStatusVm getStatus() {
+        return new ReindexStatusVm(
+            index,
+            state.name(),
+            indexedDocuments.get(),
+            failedDocuments.get(),
+            getDocumentsPerSecond(),
+            toZonedDateTime(startedOn),
+            toZonedDateTime(finishedOn)
+        );
+    }
+
+    private void reindex(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<MessageListenerContainer> syncContainers = kafkaListenerEndpointRegistry.getListenerContainers()
+            .stream()
+            .filter(container -> container.getListenerId() != null
+                && container.getListenerId().startsWith(SYNC_LISTENER_ID_PREFIX))
+            .toList();
+        boolean isSwapped = false;
+        try {
+            pause(syncContainers);
+            index = nextIndexName();
+            log.info("Reindexing products into '{}'", index);
+            createIndex(index);
+            load(index, jwt);
+            if (failedDocuments.get() > 0) {
+                throw new IllegalStateException(failedDocuments.get() + " documents failed to be indexed");
+            }
+            openIndex(index);
+            List<String> previousIndices = swapAlias(index);
+            isSwapped = true;
+            evictSearchCaches();
+            deletePrevious(previousIndices);
+            state = ReindexState.COMPLETED;
+            log.info("Reindexed {} products into '{}'", indexedDocuments.get(), index);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = ReindexState.FAILED;
+            log.error("Product reindex was interrupted", e);
+        } catch (Exception e) {
+            state = ReindexState.FAILED;
+            log.error("Product reindex into '{}' failed", index, e);
+        } finally {
+            if (!isSwapped && index != null) {
+                deleteQuietly(index);
+            }
+            syncContainers.forEach(MessageListenerContainer::resume);
+            finishedOn = Instant.now();
+            sample.stop(Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Duration of product reindexing")
+                .tag("outcome", state.name().toLowerCase())
+                .register(meterRegistry));
+            running.set(false);
+        }
+    }
+
+    private void pause(List<MessageListenerContainer> containers) throws InterruptedException {
+        containers.forEach(MessageListenerContainer::pause);
+        Instant deadline = Instant.now().plus(PAUSE_TIMEOUT);
+        while (!containers.stream().allMatch(container -> !container.isRunning() || container.isContainerPaused())) {
+            if (Instant.now().isAfter(deadline)) {
+                throw new IllegalStateException("Product sync listeners did not pause in time");
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private String nextIndexName() throws IOException {
+        int version = elasticsearchClient.indices().get(g -> g.index(INDEX_PREFIX + "*"))
+            .result()
+            .keySet()
+            .stream()
+            .map(name -> name.substring(INDEX_PREFIX.length()))
+            .filter(suffix -> suffix.matches("\\d+"))
+            .mapToInt(Integer::parseInt)
+            .max()
+            .orElse(0);
+        return INDEX_PREFIX + (version + 1);
+    }
+
+    private void createIndex(String name) {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(name));
+        Settings settings = indexOperations.createSettings(Product.class).flatten();
+        settings.put("index.refresh_interval", "-1");
+        settings.put("index.number_of_replicas", "0");
+        indexOperations.create(settings, indexOperations.createMapping(Product.class));
+    }
+
+    private void load(String name, String jwt) {
+        Semaphore inFlightBatches = new Semaphore(concurrency);
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<ProductEsDetailVm> batch = new ArrayList<>(batchSize);
+            productSyncDataService.streamAllProductEsDetails(jwt, productEsDetailVm -> {
+                batch.add(productEsDetailVm);
+                if (batch.size() >= batchSize) {
+                    submit(writers, inFlightBatches, name, List.copyOf(batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                submit(writers, inFlightBatches, name, List.copyOf(batch));
+            }
+        }
+    }
+
+    private void submit(ExecutorService writers, Semaphore inFlightBatches, String name,
+                        List<ProductEsDetailVm> batch) {
+        // Blocks the export stream while enough bulk requests are in flight
+        inFlightBatches.acquireUninterruptibly();
+        writers.execute(() -> {
+            try {
+                bulkIndex(name, batch);
+            } finally {
+                inFlightBatches.release();
+            }
+        });
+    }
+
+    private void bulkIndex(String name, List<ProductEsDetailVm> batch) {
+        List<IndexQuery> indexQueries = batch.stream()
+            .map(productEsDetailVm -> new IndexQueryBuilder()
+                .withId(String.valueOf(productEsDetailVm.id()))
+                .withObject(ProductSyncDataService.toProduct(productEsDetailVm))
+                .build())
+            .toList();
+        int failed;
+        try {
+            elasticsearchOperations.bulkIndex(indexQueries, IndexCoordinates.of(name));
+            failed = 0;
+        } catch (BulkFailureException e) {
+            log.error("Failed to index {} of {} products", e.getFailedDocuments().size(), batch.size(), e);
+            failed = e.getFailedDocuments().size();
+        } catch (Exception e) {
+            log.error("Failed to index {} products", batch.size(), e);
+            failed = batch.size();
+        }
+        indexedDocuments.addAndGet((long) batch.size() - failed);
+        indexedCounter.increment((double) batch.size() - failed);
+        failedDocuments.addAndGet(failed);
+        failedCounter.increment(failed);
+    }
+
+    private void openIndex(String name) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p
+            .index(name)
+            .settings(s -> s
+                .refreshInterval(t -> t.time("1s"))
+                .numberOfReplicas(replicas)
+            )
+        );
+        elasticsearchClient.indices().refresh(r -> r.index(name));
+    }
+
+    private List<String> swapAlias(String name) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(a -> a.add(add -> add.index(name).alias(ALIAS))));
+
+        List<String> previousIndices = new ArrayList<>();
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(ALIAS)).value()) {
+            previousIndices.addAll(elasticsearchClient.indices().getAlias(g -> g.name(ALIAS)).result().keySet());
+            previousIndices.forEach(previous -> actions.add(Action.of(a -> a
+                .remove(remove -> remove.index(previous).alias(ALIAS)))));
+        } else if (elasticsearchClient.indices().exists(e -> e.index(ALIAS)).value()) {
+            // The index created before aliases were used has the alias name, drop it in the same request
+            actions.add(Action.of(a -> a.removeIndex(remove -> remove.index(ALIAS))));
+        }
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        return previousIndices;
+    }
+
+    private void evictSearchCaches() {
+        Stream.of(CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE)
+            .map(cacheManager::getCache)
+            .filter(Objects::nonNull)
+            .forEach(Cache::clear);
+    }
+
+    private void deletePrevious(List<String> previousIndices) throws IOException {
+        if (!previousIndices.isEmpty()) {
+            elasticsearchClient.indices().delete(d -> d.index(previousIndices));
+        }
+    }
+
+    private void deleteQuietly(String name) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(name).ignoreUnavailable(true));
+        } catch (Exception e) {
+            log.warn("Failed to delete index '{}'", name, e);
+        }
+    }
+
+    private double getDocumentsPerSecond() {
+        Instant start = startedOn;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedOn == null ? Instant.now() : finishedOn;
+        double seconds = Duration.between(start, end).toMillis() / 1000d;
+        return seconds == 0 ? 0 : indexedDocuments.get() / seconds;
+    }
+
+    private static ZonedDateTime toZonedDateTime(Instant instant) {
+        return instant == null ? null : instant.atZone(ZoneId.systemDefault());
+    }
+}
@@ -1,10 +1,12 @@
 package com.yas.search.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
-import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
-import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import com.yas.search.config.CacheConfig;
 import com.yas.search.constant.ProductField;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.Product;
@@ -13,65 +15,130 @@ import com.yas.search.viewmodel.ProductGetVm;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameGetVm;
 import com.yas.search.viewmodel.ProductNameListVm;
-import java.util.ArrayList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.common.unit.Fuzziness;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHitSupport;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchPage;
-import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ProductService {
+    private static final String SEARCH_METRIC = "yas.search.product.search";
+    private static final String NAME_SUGGESTION = "name-suggestion";
+    private static final String TERMS_AGGREGATION = "values";
+    private static final Map<String, String> FACET_FIELDS = Map.of(
+            "categories", ProductField.CATEGORIES,
+            "attributes", ProductField.ATTRIBUTES,
+            "brands", ProductField.BRAND
+    );
+
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final int suggestSize;
 
-    public ProductService(ElasticsearchOperations elasticsearchOperations) {
+    public ProductService(ElasticsearchOperations elasticsearchOperations, ElasticsearchClient elasticsearchClient,
+                          CacheManager cacheManager, MeterRegistry meterRegistry,
+                          @Value("${search.suggest.size:10}") int suggestSize) {
         this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.suggestSize = suggestSize;
     }
 
-    public ProductListGetVm findProductAdvance(ProductCriteriaDto productCriteria) {
-        NativeQueryBuilder nativeQuery = NativeQuery.builder()
-                .withAggregation("categories", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.CATEGORIES))))
-                .withAggregation("attributes", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.ATTRIBUTES))))
-                .withAggregation("brands", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.BRAND))))
-                .withQuery(q -> q
-                        .bool(b -> b
-                                .should(s -> s
-                                        .multiMatch(m -> m
-                                                .fields(ProductField.NAME, ProductField.BRAND, ProductField.CATEGORIES)
-                                                .query(productCriteria.keyword())
-                                                .fuzziness(Fuzziness.ONE.asString())
-                                        )
-                                )
-                        )
-                )
-                .withPageable(PageRequest.of(productCriteria.page(), productCriteria.size()));
+    /**
+     * Searches products, serving repeated criteria from a short-lived result cache.
+     * Hits and facets are queried and cached separately, so pages fetched without facets cost only the hit query.
+     *
+     * @param productCriteria the search criteria
+     * @param includeFacets   whether to add the brand, category and attribute facets
+     * @return a page of products, with the facets when requested
+     */
+    public ProductListGetVm findProductAdvance(ProductCriteriaDto productCriteria, boolean includeFacets) {
+        ProductCriteriaDto criteria = productCriteria.normalize();
+        ProductListGetVm result = cached(CacheConfig.PRODUCT_SEARCH_CACHE, criteria, "hits",
+                () -> searchProducts(criteria));
+        if (!includeFacets) {
+            return result;
+        }
+        return new ProductListGetVm(
+                result.products(),
+                result.pageNo(),
+                result.pageSize(),
+                result.totalElements(),
+                result.totalPages(),
+                result.isLast(),
+                getFacets(criteria));
+    }
 
+    /**
+     * Counts the matching products per brand, category and attribute. The count of each facet applies
+     * the filters of the other facets, so that customers can see what selecting another value would give.
+     *
+     * @param productCriteria the search criteria, paging and sorting are ignored
+     * @return the value counts of each facet
+     */
+    public Map<String, Map<String, Long>> getFacets(ProductCriteriaDto productCriteria) {
+        ProductCriteriaDto criteria = productCriteria.normalize().withoutPaging();
+        return cached(CacheConfig.PRODUCT_FACETS_CACHE, criteria, "facets", () -> searchFacets(criteria));
+    }
 
-        nativeQuery.withFilter(f -> f
-                .bool(b -> {
-                    extractedTermsFilter(productCriteria.brand(), ProductField.BRAND, b);
-                    extractedTermsFilter(productCriteria.category(), ProductField.CATEGORIES, b);
-                    extractedTermsFilter(productCriteria.attribute(), ProductField.ATTRIBUTES, b);
-                    extractedRange(productCriteria.minPrice(), productCriteria.maxPrice(), b);
-                    b.must(m -> m.term(t -> t.field(ProductField.IS_PUBLISHED).value(true)));
-                    return b;
-                })
-        );
+    /**
+     * Returns the cached value of {@code key}, or searches and caches it. The cache is cleared whenever
+     * a product is synchronized.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String cacheName, ProductCriteriaDto key, String query, Supplier<T> search) {
+        Timer searchTimer = Timer.builder(SEARCH_METRIC)
+                .description("Product searches sent to Elasticsearch on a result cache miss")
+                .tag("query", query)
+                .register(meterRegistry);
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper cachedResult = cache == null ? null : cache.get(key);
+        if (cachedResult != null) {
+            Counter.builder(SEARCH_METRIC + ".saved")
+                    .description("Estimated search time saved by result cache hits, from the mean miss latency")
+                    .baseUnit("seconds")
+                    .tag("query", query)
+                    .register(meterRegistry)
+                    .increment(searchTimer.mean(TimeUnit.SECONDS));
+            return (T) cachedResult.get();
+        }
+
+        T result = searchTimer.record(search);
+        if (cache != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private ProductListGetVm searchProducts(ProductCriteriaDto productCriteria) {
+        NativeQueryBuilder nativeQuery = NativeQuery.builder()
+                .withQuery(keywordQuery(productCriteria))
+                .withFilter(postFilter(productCriteria, null))
+                .withPageable(PageRequest.of(productCriteria.page(), productCriteria.size()));
 
         if (productCriteria.sortType() == SortType.PRICE_ASC) {
             nativeQuery.withSort(Sort.by(Sort.Direction.ASC, ProductField.PRICE));
@@ -94,7 +161,66 @@ public class ProductService {
                 productPage.getTotalElements(),
                 productPage.getTotalPages(),
                 productPage.isLast(),
-                getAggregations(searchHitsResult));
+                Map.of());
+    }
+
+    private Map<String, Map<String, Long>> searchFacets(ProductCriteriaDto productCriteria) {
+        NativeQueryBuilder nativeQuery = NativeQuery.builder()
+                .withQuery(keywordQuery(productCriteria))
+                .withMaxResults(0);
+        FACET_FIELDS.forEach((name, field) -> nativeQuery.withAggregation(name, Aggregation.of(a -> a
+                .filter(postFilter(productCriteria, field))
+                .aggregations(TERMS_AGGREGATION, terms -> terms.terms(ta -> ta.field(field))))));
+
+        SearchHits<Product> searchHits = elasticsearchOperations.search(nativeQuery.build(), Product.class);
+        Map<String, Map<String, Long>> facets = new HashMap<>();
+        if (searchHits.hasAggregations()) {
+            ((List<ElasticsearchAggregation>) searchHits.getAggregations().aggregations()) //NOSONAR
+                    .forEach(elsAgg -> {
+                        Map<String, Long> facet = new HashMap<>();
+                        elsAgg.aggregation().getAggregate().filter().aggregations().get(TERMS_AGGREGATION)
+                                .sterms().buckets().array()
+                                .forEach(bucket -> facet.put(bucket.key().stringValue(), bucket.docCount()));
+                        facets.put(elsAgg.aggregation().getName(), facet);
+                    });
+        }
+        return facets;
+    }
+
+    private Query keywordQuery(ProductCriteriaDto productCriteria) {
+        return Query.of(q -> q
+                .bool(b -> b
+                        .should(s -> s
+                                .multiMatch(m -> m
+                                        .fields(ProductField.NAME, ProductField.BRAND, ProductField.CATEGORIES)
+                                        .query(productCriteria.keyword())
+                                        .fuzziness(Fuzziness.ONE.asString())
+                                )
+                        )
+                )
+        );
+    }
+
+    /**
+     * Builds the filter applied to hits. Facets reuse it without the filter on their own field.
+     */
+    private Query postFilter(ProductCriteriaDto productCriteria, String excludedField) {
+        return Query.of(f -> f
+                .bool(b -> {
+                    if (!ProductField.BRAND.equals(excludedField)) {
+                        extractedTermsFilter(productCriteria.brand(), ProductField.BRAND, b);
+                    }
+                    if (!ProductField.CATEGORIES.equals(excludedField)) {
+                        extractedTermsFilter(productCriteria.category(), ProductField.CATEGORIES, b);
+                    }
+                    if (!ProductField.ATTRIBUTES.equals(excludedField)) {
+                        extractedTermsFilter(productCriteria.attribute(), ProductField.ATTRIBUTES, b);
+                    }
+                    extractedRange(productCriteria.minPrice(), productCriteria.maxPrice(), b);
+                    b.must(m -> m.term(t -> t.field(ProductField.IS_PUBLISHED).value(true)));
+                    return b;
+                })
+        );
     }
 
     private void extractedTermsFilter(String fieldValues, String productField, BoolQuery.Builder b) {
@@ -129,41 +255,47 @@ public class ProductService {
         }
     }
 
-    private Map<String, Map<String, Long>> getAggregations(SearchHits<Product> searchHits) {
-        List<org.springframework.data.elasticsearch.client.elc.Aggregation> aggregations = new ArrayList<>();
-        if (searchHits.hasAggregations()) {
-            ((List<ElasticsearchAggregation>) searchHits.getAggregations().aggregations()) //NOSONAR
-                    .forEach(elsAgg -> aggregations.add(elsAgg.aggregation()));
+    /**
+     * Suggests product names starting with {@code keyword} from the completion field, tolerating typos.
+     * Only the suggestion text is fetched, no hit nor document source.
+     *
+     * @param keyword  the prefix typed by the customer
+     * @param category an optional category name restricting the suggestions
+     * @return at most {@code search.suggest.size} distinct product names
+     */
+    public ProductNameListVm autoCompleteProductName(final String keyword, final String category) {
+        if (StringUtils.isBlank(keyword)) {
+            return new ProductNameListVm(List.of());
         }
+        try {
+            SearchResponse<Void> response = elasticsearchClient.search(s -> s
+                    .index(elasticsearchOperations.getIndexCoordinatesFor(Product.class).getIndexName())
+                    .size(0)
+                    .source(src -> src.fetch(false))
+                    .suggest(suggest -> suggest
+                            .suggesters(NAME_SUGGESTION, fs -> fs
+                                    .prefix(keyword)
+                                    .completion(c -> {
+                                        c.field(ProductField.NAME_SUGGEST)
+                                                .size(suggestSize)
+                                                .skipDuplicates(true)
+                                                .fuzzy(f -> f.fuzziness("AUTO"));
+                                        // Every suggestion is indexed under the default context as well.
+                                        String context = StringUtils.isNotBlank(category)
+                                                ? category
+                                                : ProductField.ALL_CATEGORIES;
+                                        return c.contexts(ProductField.CATEGORY_CONTEXT, List.of(CompletionContext.of(
+                                                cc -> cc.context(ctx -> ctx.category(context)))));
+                                    })
+                            )
+                    ), Void.class);
 
-        Map<String, Map<String, Long>> aggregationsMap = new HashMap<>();
-        aggregations.forEach(agg -> {
-            Map<String, Long> aggregation = new HashMap<>();
-            StringTermsAggregate stringTermsAggregate = (StringTermsAggregate) agg.getAggregate()._get();
-            List<StringTermsBucket> stringTermsBuckets
-                    = (List<StringTermsBucket>) stringTermsAggregate.buckets()._get();
-            stringTermsBuckets.forEach(bucket -> aggregation.put(bucket.key()._get().toString(), bucket.docCount()));
-            aggregationsMap.put(agg.getName(), aggregation);
-        });
-
-        return aggregationsMap;
-    }
-
-    public ProductNameListVm autoCompleteProductName(final String keyword) {
-        NativeQuery matchQuery = NativeQuery.builder()
-                .withQuery(
-                        q -> q.matchPhrasePrefix(
-                                matchPhrasePrefix -> matchPhrasePrefix.field("name").query(keyword)
-                        )
-                )
-                .withSourceFilter(new FetchSourceFilter(
-                        new String[]{"name"},
-                        null)
-                )
-                .build();
-        SearchHits<Product> result = elasticsearchOperations.search(matchQuery, Product.class);
-        List<Product> products = result.stream().map(SearchHit::getContent).toList();
-
-        return new ProductNameListVm(products.stream().map(ProductNameGetVm::fromModel).toList());
+            return new ProductNameListVm(response.suggest().getOrDefault(NAME_SUGGESTION, List.of()).stream()
+                    .flatMap(suggestion -> suggestion.completion().options().stream())
+                    .map(option -> new ProductNameGetVm(option.text()))
+                    .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
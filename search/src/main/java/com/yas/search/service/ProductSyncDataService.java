@@ -1,28 +1,55 @@
 package com.yas.search.service;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.search.config.CacheConfig;
 import com.yas.search.config.ServiceUrlConfig;
 import com.yas.search.constant.MessageCode;
 import com.yas.search.model.Product;
 import com.yas.search.repository.ProductRepository;
 import com.yas.search.viewmodel.ProductEsDetailVm;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 @RequiredArgsConstructor
 public class ProductSyncDataService {
 
+    /**
+     * Maximum number of ids accepted by the product service in one request.
+     */
+    static final int MAX_IDS_PER_REQUEST = 500;
+
     private final Logger log = LoggerFactory.getLogger(ProductSyncDataService.class);
 
     private final RestClient restClient;
     private final ServiceUrlConfig serviceUrlConfig;
     private final ProductRepository productRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectMapper objectMapper;
 
     public ProductEsDetailVm getProductEsDetailById(Long id) {
         final URI url = UriComponentsBuilder.fromHttpUrl(
@@ -33,6 +60,157 @@ public class ProductSyncDataService {
                 .body(ProductEsDetailVm.class);
     }
 
+    /**
+     * Retrieves the details of {@code ids}, with one request per {@value #MAX_IDS_PER_REQUEST} ids.
+     */
+    public List<ProductEsDetailVm> getProductEsDetailsByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<ProductEsDetailVm> productEsDetails = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_REQUEST) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, distinctIds.size()));
+            final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                    .path("/storefront/products-es")
+                    .queryParam("ids", chunk.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .build()
+                    .toUri();
+            streamProductEsDetails(url, null, productEsDetails::add);
+        }
+        return productEsDetails;
+    }
+
+    /**
+     * Streams the details of the whole catalog ordered by id, each product being handed to {@code consumer}
+     * as soon as it is read from the response.
+     *
+     * @param jwt      the token of the administrator who started the export
+     * @param consumer the consumer of each product
+     */
+    public void streamAllProductEsDetails(String jwt, Consumer<ProductEsDetailVm> consumer) {
+        final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                .path("/backoffice/products-es")
+                .build()
+                .toUri();
+        streamProductEsDetails(url, jwt, consumer);
+    }
+
+    private void streamProductEsDetails(URI url, String jwt, Consumer<ProductEsDetailVm> consumer) {
+        restClient.get()
+                .uri(url)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .headers(h -> {
+                    if (jwt != null) {
+                        h.setBearerAuth(jwt);
+                    }
+                })
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RestClientResponseException("Failed to fetch product details",
+                                response.getStatusCode(), response.getStatusText(), response.getHeaders(), null, null);
+                    }
+                    try (MappingIterator<ProductEsDetailVm> iterator = objectMapper
+                            .readerFor(ProductEsDetailVm.class)
+                            .readValues(response.getBody())) {
+                        iterator.forEachRemaining(consumer);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Synchronizes a batch of products with one call to the product service for their details,
+     * one {@code _bulk} request for the documents to index and one delete request for the others.
+     *
+     * @param operations the latest operation of each product id
+     * @return the ids which could not be synchronized and must be retried
+     */
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE}, allEntries = true)
+    public Set<Long> syncProducts(Map<Long, Operation> operations) {
+        Set<Long> failedIds = new HashSet<>();
+        List<Long> deletedIds = new ArrayList<>();
+        List<Long> upsertedIds = new ArrayList<>();
+        operations.forEach((id, operation) -> (Operation.DELETE.equals(operation) ? deletedIds : upsertedIds).add(id));
+
+        List<Product> products = new ArrayList<>();
+        if (!upsertedIds.isEmpty()) {
+            try {
+                Map<Long, ProductEsDetailVm> productEsDetails = getProductEsDetailsByIds(upsertedIds).stream()
+                        .collect(Collectors.toMap(ProductEsDetailVm::id, Function.identity()));
+                upsertedIds.forEach(id -> {
+                    ProductEsDetailVm productEsDetailVm = productEsDetails.get(id);
+                    boolean isRemoved = productEsDetailVm == null
+                            || (Operation.UPDATE.equals(operations.get(id)) && !productEsDetailVm.isPublished());
+                    if (isRemoved) {
+                        deletedIds.add(id);
+                    } else {
+                        products.add(toProduct(productEsDetailVm));
+                    }
+                });
+            } catch (Exception e) {
+                log.error("Failed to fetch details of {} products", upsertedIds.size(), e);
+                failedIds.addAll(upsertedIds);
+            }
+        }
+
+        failedIds.addAll(bulkIndex(products));
+        failedIds.addAll(deleteProducts(deletedIds));
+        return failedIds;
+    }
+
+    private Set<Long> bulkIndex(List<Product> products) {
+        if (products.isEmpty()) {
+            return Set.of();
+        }
+        List<IndexQuery> indexQueries = products.stream()
+                .map(product -> new IndexQueryBuilder()
+                        .withId(String.valueOf(product.getId()))
+                        .withObject(product)
+                        .build())
+                .toList();
+        try {
+            elasticsearchOperations.bulkIndex(indexQueries, Product.class);
+            return Set.of();
+        } catch (BulkFailureException e) {
+            log.error("Failed to index {} of {} products", e.getFailedDocuments().size(), products.size(), e);
+            return e.getFailedDocuments().keySet().stream().map(Long::valueOf).collect(Collectors.toSet());
+        } catch (Exception e) {
+            log.error("Failed to index {} products", products.size(), e);
+            return products.stream().map(Product::getId).collect(Collectors.toSet());
+        }
+    }
+
+    private Set<Long> deleteProducts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            productRepository.deleteAllById(ids);
+            return Set.of();
+        } catch (Exception e) {
+            log.error("Failed to delete {} products", ids.size(), e);
+            return new HashSet<>(ids);
+        }
+    }
+
+    static Product toProduct(ProductEsDetailVm productEsDetailVm) {
+        return Product.builder()
+                .id(productEsDetailVm.id())
+                .name(productEsDetailVm.name())
+                .slug(productEsDetailVm.slug())
+                .price(productEsDetailVm.price())
+                .isPublished(productEsDetailVm.isPublished())
+                .isVisibleIndividually(productEsDetailVm.isVisibleIndividually())
+                .isAllowedToOrder(productEsDetailVm.isAllowedToOrder())
+                .isFeatured(productEsDetailVm.isFeatured())
+                .thumbnailMediaId(productEsDetailVm.thumbnailMediaId())
+                .brand(productEsDetailVm.brand())
+                .categories(productEsDetailVm.categories())
+                .attributes(productEsDetailVm.attributes())
+                .nameSuggest(Product.nameSuggestOf(productEsDetailVm.name(), productEsDetailVm.isPublished(),
+                        productEsDetailVm.categories()))
+                .build();
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE}, allEntries = true)
     public void updateProduct(Long id) {
         ProductEsDetailVm productEsDetailVm = getProductEsDetailById(id);
         Product product = productRepository.findById(id).orElseThrow(()
@@ -54,30 +232,17 @@ public class ProductSyncDataService {
         product.setBrand(productEsDetailVm.brand());
         product.setCategories(productEsDetailVm.categories());
         product.setAttributes(productEsDetailVm.attributes());
+        product.setNameSuggest(Product.nameSuggestOf(productEsDetailVm.name(), true, productEsDetailVm.categories()));
         productRepository.save(product);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE}, allEntries = true)
     public void createProduct(Long id) {
         ProductEsDetailVm productEsDetailVm = getProductEsDetailById(id);
-
-        Product product = Product.builder()
-                .id(id)
-                .name(productEsDetailVm.name())
-                .slug(productEsDetailVm.slug())
-                .price(productEsDetailVm.price())
-                .isPublished(productEsDetailVm.isPublished())
-                .isVisibleIndividually(productEsDetailVm.isVisibleIndividually())
-                .isAllowedToOrder(productEsDetailVm.isAllowedToOrder())
-                .isFeatured(productEsDetailVm.isFeatured())
-                .thumbnailMediaId(productEsDetailVm.thumbnailMediaId())
-                .brand(productEsDetailVm.brand())
-                .categories(productEsDetailVm.categories())
-                .attributes(productEsDetailVm.attributes())
-                .build();
-
-        productRepository.save(product);
+        productRepository.save(toProduct(productEsDetailVm));
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE}, allEntries = true)
     public void deleteProduct(Long id) {
         final boolean isProductExisted = productRepository.existsById(id);
         if (isProductExisted) {
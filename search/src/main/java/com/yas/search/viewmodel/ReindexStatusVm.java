@@ -0,0 +1,12 @@
+package com.yas.search.viewmodel;
+
+import java.time.ZonedDateTime;
+
+public record ReindexStatusVm(String index,
+                              String state,
+                              long indexedDocuments,
+                              long failedDocuments,
+                              double documentsPerSecond,
+                              ZonedDateTime startedOn,
+                              ZonedDateTime finishedOn) {
+}
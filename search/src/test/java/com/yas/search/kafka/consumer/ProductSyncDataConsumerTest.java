@@ -0,0 +1,98 @@
+package com.yas.search.kafka.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.search.service.ProductSyncDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSyncDataConsumer Unit Tests")
+class ProductSyncDataConsumerTest {
+
+    private static final String TOPIC = "dbproduct.public.product";
+    private static final String SYNC_FAILED_TOPIC = "product-sync-failed";
+
+    @Mock
+    private ProductSyncDataService productSyncDataService;
+
+    @Mock
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+
+    private ProductSyncDataConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ProductSyncDataConsumer(productSyncDataService, kafkaTemplate, SYNC_FAILED_TOPIC,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should send the latest record of each failed product to the sync failed topic")
+    void processMessages_whenProductsFail_thenLatestRecordsAreSentToSyncFailedTopic() {
+        // Given
+        ConsumerRecord<ProductMsgKey, ProductCdcMessage> created = consumerRecord(0, 1L, message(Operation.CREATE));
+        ConsumerRecord<ProductMsgKey, ProductCdcMessage> failedCreate =
+            consumerRecord(1, 2L, message(Operation.CREATE));
+        ConsumerRecord<ProductMsgKey, ProductCdcMessage> failedUpdate =
+            consumerRecord(2, 2L, message(Operation.UPDATE));
+        ConsumerRecord<ProductMsgKey, ProductCdcMessage> failedDelete = consumerRecord(3, 3L, null);
+        when(productSyncDataService.syncProducts(any())).thenReturn(Set.of(2L, 3L));
+        when(kafkaTemplate.send(any(String.class), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Operation>> operationsCaptor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        consumer.processMessages(List.of(created, failedCreate, failedUpdate, failedDelete));
+
+        // Then
+        verify(productSyncDataService).syncProducts(operationsCaptor.capture());
+        assertThat(operationsCaptor.getValue()).containsExactly(
+            Map.entry(1L, Operation.CREATE), Map.entry(2L, Operation.UPDATE), Map.entry(3L, Operation.DELETE));
+        verify(kafkaTemplate).send(SYNC_FAILED_TOPIC, failedUpdate.key(), failedUpdate.value());
+        verify(kafkaTemplate).send(SYNC_FAILED_TOPIC, failedDelete.key(), null);
+        verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Should not send anything to the sync failed topic when every product is synchronized")
+    void processMessages_whenNoProductFails_thenNothingIsSent() {
+        // Given
+        when(productSyncDataService.syncProducts(any())).thenReturn(Set.of());
+
+        // When
+        consumer.processMessages(List.of(consumerRecord(0, 1L, message(Operation.CREATE))));
+
+        // Then
+        verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    private static ProductCdcMessage message(Operation operation) {
+        return ProductCdcMessage.builder().op(operation).after(Product.builder().isPublished(true).build()).build();
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord(long offset, long productId,
+                                                                                  ProductCdcMessage message) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, new ProductMsgKey(productId), message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.yas.search.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.search.constant.ProductField;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+@DisplayName("Product Unit Tests")
+class ProductTest {
+
+    @Test
+    @DisplayName("Should index the name suggestion under the default context and the product categories")
+    void nameSuggestOf_whenProductIsPublished_thenDefaultAndCategoryContextsAreIndexed() {
+        // When
+        Completion completion = Product.nameSuggestOf("iPhone 15", true, List.of("phones", "apple"));
+
+        // Then
+        assertThat(completion.getInput()).containsExactly("iPhone 15");
+        assertThat(completion.getContexts().get(ProductField.CATEGORY_CONTEXT))
+            .containsExactly(ProductField.ALL_CATEGORIES, "phones", "apple");
+    }
+
+    @Test
+    @DisplayName("Should index the name suggestion under the default context only for a product without category")
+    void nameSuggestOf_whenProductHasNoCategory_thenDefaultContextIsIndexed() {
+        // When
+        Completion completion = Product.nameSuggestOf("iPhone 15", true, null);
+
+        // Then
+        assertThat(completion.getContexts().get(ProductField.CATEGORY_CONTEXT))
+            .containsExactly(ProductField.ALL_CATEGORIES);
+    }
+
+    @Test
+    @DisplayName("Should not suggest an unpublished product")
+    void nameSuggestOf_whenProductIsUnpublished_thenNoSuggestionIsIndexed() {
+        assertThat(Product.nameSuggestOf("iPhone 15", false, List.of("phones"))).isNull();
+    }
+}
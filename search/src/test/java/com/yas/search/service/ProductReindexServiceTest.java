@@ -0,0 +1,167 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.GetIndexResponse;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import com.yas.search.config.CacheConfig;
+import com.yas.search.constant.enums.ReindexState;
+import com.yas.search.viewmodel.ProductEsDetailVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Unit tests for ProductReindexService.
+ *
+ * <p>Test Doubles Used:
+ *   - Mock: the Elasticsearch clients, the product export and the Kafka listener registry
+ *   - Fake: ConcurrentMapCacheManager, holding the search result caches
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductReindexService Unit Tests")
+class ProductReindexServiceTest {
+
+    private static final String JWT = "admin-token";
+    private static final String PREVIOUS_INDEX = "product_v1";
+    private static final String NEW_INDEX = "product_v2";
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private ProductSyncDataService productSyncDataService;
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    private final ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager(CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE);
+
+    private ProductReindexService productReindexService;
+
+    @BeforeEach
+    void setUp() {
+        productReindexService = new ProductReindexService(elasticsearchOperations, elasticsearchClient,
+            productSyncDataService, kafkaListenerEndpointRegistry, cacheManager, new SimpleMeterRegistry(),
+            2, 100, "1");
+        Jwt jwt = Jwt.withTokenValue(JWT).header("alg", "none").claim("sub", "admin").build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should move the alias to the new index, delete the previous one and clear the search caches")
+    @SuppressWarnings("unchecked")
+    void startReindex_whenLoadSucceeds_thenAliasIsMovedAndPreviousIndexIsDeleted() throws Exception {
+        // Given
+        when(kafkaListenerEndpointRegistry.getListenerContainers()).thenReturn(List.of());
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        GetIndexResponse indices = mock(GetIndexResponse.class);
+        when(indices.result()).thenReturn(Map.of(PREVIOUS_INDEX, mock(IndexState.class)));
+        when(indicesClient.get(any(Function.class))).thenReturn(indices);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(NEW_INDEX))).thenReturn(indexOperations);
+        when(indexOperations.createSettings(any())).thenReturn(new Settings());
+        doAnswer(invocation -> {
+            invocation.<Consumer<ProductEsDetailVm>>getArgument(1).accept(product());
+            return null;
+        }).when(productSyncDataService).streamAllProductEsDetails(eq(JWT), any());
+        when(indicesClient.existsAlias(any(Function.class))).thenReturn(new BooleanResponse(true));
+        GetAliasResponse aliases = mock(GetAliasResponse.class);
+        when(aliases.result()).thenReturn(Map.of(PREVIOUS_INDEX, mock(IndexAliases.class)));
+        when(indicesClient.getAlias(any(Function.class))).thenReturn(aliases);
+        cacheManager.getCache(CacheConfig.PRODUCT_SEARCH_CACHE).put("criteria", "hits");
+        cacheManager.getCache(CacheConfig.PRODUCT_FACETS_CACHE).put("criteria", "facets");
+
+        // When
+        productReindexService.startReindex();
+        awaitCompletion();
+
+        // Then
+        assertThat(productReindexService.getStatus().state()).isEqualTo(ReindexState.COMPLETED.name());
+        verify(elasticsearchOperations).bulkIndex(anyList(), eq(IndexCoordinates.of(NEW_INDEX)));
+
+        ArgumentCaptor<Function<UpdateAliasesRequest.Builder, ObjectBuilder<UpdateAliasesRequest>>> aliasCaptor =
+            ArgumentCaptor.forClass(Function.class);
+        verify(indicesClient).updateAliases(aliasCaptor.capture());
+        List<Action> actions = aliasCaptor.getValue().apply(new UpdateAliasesRequest.Builder()).build().actions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).add().index()).isEqualTo(NEW_INDEX);
+        assertThat(actions.get(0).add().alias()).isEqualTo(ProductReindexService.ALIAS);
+        assertThat(actions.get(1).remove().index()).isEqualTo(PREVIOUS_INDEX);
+
+        ArgumentCaptor<Function<DeleteIndexRequest.Builder, ObjectBuilder<DeleteIndexRequest>>> deleteCaptor =
+            ArgumentCaptor.forClass(Function.class);
+        verify(indicesClient).delete(deleteCaptor.capture());
+        assertThat(deleteCaptor.getValue().apply(new DeleteIndexRequest.Builder()).build().index())
+            .containsExactly(PREVIOUS_INDEX);
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_SEARCH_CACHE).get("criteria")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_FACETS_CACHE).get("criteria")).isNull();
+    }
+
+    private void awaitCompletion() throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (ReindexState.RUNNING.name().equals(productReindexService.getStatus().state())) {
+            if (Instant.now().isAfter(deadline)) {
+                throw new IllegalStateException("Reindex did not complete in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static ProductEsDetailVm product() {
+        return new ProductEsDetailVm(1L, "iPhone 15", "iphone-15", 999.0, true, true, true, false, 10L, "Apple",
+            List.of("phones"), List.of());
+    }
+}
@@ -0,0 +1,215 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggester;
+import co.elastic.clients.elasticsearch.core.search.Context;
+import co.elastic.clients.util.ObjectBuilder;
+import com.yas.search.config.CacheConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.constant.enums.SortType;
+import com.yas.search.model.Product;
+import com.yas.search.model.ProductCriteriaDto;
+import com.yas.search.viewmodel.ProductListGetVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+/**
+ * Unit tests for ProductService.
+ *
+ * <p>Test Doubles Used:
+ *   - Mock: ElasticsearchOperations and ElasticsearchClient, the built requests are inspected
+ *     instead of being sent to a cluster
+ *   - Fake: ConcurrentMapCacheManager, holding the search result caches
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductService Unit Tests")
+class ProductServiceTest {
+
+    private static final int SUGGEST_SIZE = 10;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private final ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager(CacheConfig.PRODUCT_SEARCH_CACHE, CacheConfig.PRODUCT_FACETS_CACHE);
+
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductService(elasticsearchOperations, elasticsearchClient, cacheManager,
+            new SimpleMeterRegistry(), SUGGEST_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should suggest names within the given category")
+    void autoCompleteProductName_whenCategoryIsGiven_thenCategoryContextIsQueried() throws IOException {
+        // When
+        CompletionSuggester suggester = autoComplete("iph", "phones");
+
+        // Then
+        assertThat(suggester.field()).isEqualTo(ProductField.NAME_SUGGEST);
+        assertThat(categoryContexts(suggester)).containsExactly("phones");
+    }
+
+    @Test
+    @DisplayName("Should suggest names of every category through the default context when no category is given")
+    void autoCompleteProductName_whenCategoryIsBlank_thenDefaultContextIsQueried() throws IOException {
+        // When
+        CompletionSuggester suggester = autoComplete("iph", " ");
+
+        // Then
+        assertThat(categoryContexts(suggester)).containsExactly(ProductField.ALL_CATEGORIES);
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated search from the cache, whatever the spacing and case of its criteria")
+    void findProductAdvance_whenSameCriteriaAreRepeated_thenElasticsearchIsQueriedOnce() {
+        // Given
+        stubSearch();
+
+        // When
+        ProductListGetVm first = productService.findProductAdvance(criteria(" iphone  15 ", "Apple,Samsung", 0), false);
+        ProductListGetVm second = productService.findProductAdvance(criteria("iphone 15", "samsung,apple", 0), false);
+
+        // Then
+        verify(elasticsearchOperations, times(1)).search(any(NativeQuery.class), eq(Product.class));
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should search again for criteria leading to another result")
+    void findProductAdvance_whenPageDiffers_thenElasticsearchIsQueriedAgain() {
+        // Given
+        stubSearch();
+
+        // When
+        productService.findProductAdvance(criteria("iphone", null, 0), false);
+        productService.findProductAdvance(criteria("iphone", null, 1), false);
+
+        // Then
+        verify(elasticsearchOperations, times(2)).search(any(NativeQuery.class), eq(Product.class));
+    }
+
+    @Test
+    @DisplayName("Should search again once the cache is cleared by a product synchronization")
+    void findProductAdvance_whenCacheIsCleared_thenElasticsearchIsQueriedAgain() {
+        // Given
+        stubSearch();
+        productService.findProductAdvance(criteria("iphone", null, 0), false);
+
+        // When
+        cacheManager.getCache(CacheConfig.PRODUCT_SEARCH_CACHE).clear();
+        productService.findProductAdvance(criteria("iphone", null, 0), false);
+
+        // Then
+        verify(elasticsearchOperations, times(2)).search(any(NativeQuery.class), eq(Product.class));
+    }
+
+    @Test
+    @DisplayName("Should only query the hits of a page requested without facets")
+    void findProductAdvance_whenFacetsAreNotIncluded_thenOnlyHitsAreQueried() {
+        // Given
+        stubSearch();
+
+        // When
+        ProductListGetVm result = productService.findProductAdvance(criteria("iphone", null, 0), false);
+
+        // Then
+        assertThat(searchedQueries()).extracting(query -> query.getAggregations().isEmpty()).containsExactly(true);
+        assertThat(result.aggregations()).isEmpty();
+        assertThat(((Map<?, ?>) cacheManager.getCache(CacheConfig.PRODUCT_FACETS_CACHE).getNativeCache()))
+            .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should query the facets apart from the hits, and share them between the pages of a search")
+    void findProductAdvance_whenFacetsAreIncluded_thenFacetsAreQueriedOncePerSearch() {
+        // Given
+        stubSearch();
+
+        // When
+        productService.findProductAdvance(criteria("iphone", null, 0), true);
+        productService.findProductAdvance(criteria("iphone", null, 1), true);
+        productService.findProductAdvance(criteria("iphone", null, 1), true);
+
+        // Then
+        List<NativeQuery> queries = searchedQueries();
+        assertThat(queries).filteredOn(query -> query.getAggregations().isEmpty()).hasSize(2);
+        assertThat(queries).filteredOn(query -> !query.getAggregations().isEmpty())
+            .singleElement()
+            .satisfies(query -> {
+                assertThat(query.getAggregations()).containsOnlyKeys("brands", "categories", "attributes");
+                assertThat(query.getMaxResults()).isZero();
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletionSuggester autoComplete(String keyword, String category) throws IOException {
+        when(elasticsearchOperations.getIndexCoordinatesFor(Product.class)).thenReturn(IndexCoordinates.of("product"));
+        SearchResponse<Void> response = mock(SearchResponse.class);
+        when(response.suggest()).thenReturn(Map.of());
+        when(elasticsearchClient.search(any(Function.class), eq(Void.class))).thenReturn(response);
+        ArgumentCaptor<Function<SearchRequest.Builder, ObjectBuilder<SearchRequest>>> requestCaptor =
+            ArgumentCaptor.forClass(Function.class);
+
+        productService.autoCompleteProductName(keyword, category);
+
+        verify(elasticsearchClient).search(requestCaptor.capture(), eq(Void.class));
+        SearchRequest request = requestCaptor.getValue().apply(new SearchRequest.Builder()).build();
+        return request.suggest().suggesters().values().iterator().next().completion();
+    }
+
+    private static List<String> categoryContexts(CompletionSuggester suggester) {
+        return suggester.contexts().get(ProductField.CATEGORY_CONTEXT).stream()
+            .map(CompletionContext::context)
+            .map(Context::category)
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSearch() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class)))
+            .thenAnswer(invocation -> mock(SearchHits.class));
+    }
+
+    private List<NativeQuery> searchedQueries() {
+        ArgumentCaptor<NativeQuery> queryCaptor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations, atLeastOnce()).search(queryCaptor.capture(), eq(Product.class));
+        return queryCaptor.getAllValues();
+    }
+
+    private static ProductCriteriaDto criteria(String keyword, String brand, int page) {
+        return new ProductCriteriaDto(keyword, page, 12, brand, null, null, null, null, SortType.DEFAULT);
+    }
+}
@@ -2,12 +2,19 @@ package com.yas.webhook;
 
 import com.yas.commonlibrary.config.CorsConfig;
 import com.yas.webhook.config.ServiceUrlConfig;
+import com.yas.webhook.config.WebhookDispatchConfig;
+import com.yas.webhook.config.WebhookLaneConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication(scanBasePackages = {"com.yas.webhook", "com.yas.commonlibrary"})
-@EnableConfigurationProperties({ServiceUrlConfig.class, CorsConfig.class})
+@EnableConfigurationProperties({
+    ServiceUrlConfig.class,
+    CorsConfig.class,
+    WebhookDispatchConfig.class,
+    WebhookLaneConfig.class
+})
 public class WebhookApplication {
 
     public static void main(String[] args) {
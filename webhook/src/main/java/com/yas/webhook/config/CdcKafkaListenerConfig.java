@@ -0,0 +1,51 @@
+package com.yas.webhook.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * CDC kafka listener config, reading the keys and the values of the CDC messages as JSON trees.
+ */
+@EnableKafka
+@Configuration
+public class CdcKafkaListenerConfig extends BaseKafkaListenerConfig<JsonNode, JsonNode> {
+
+    public static final String CDC_LISTENER_CONTAINER_FACTORY = "cdcListenerContainerFactory";
+
+    public static final String CDC_BATCH_LISTENER_CONTAINER_FACTORY = "cdcBatchListenerContainerFactory";
+
+    public CdcKafkaListenerConfig(KafkaProperties kafkaProperties, MeterRegistry meterRegistry) {
+        super(JsonNode.class, JsonNode.class, kafkaProperties, meterRegistry);
+    }
+
+    @Bean(name = CDC_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<JsonNode, JsonNode> listenerContainerFactory() {
+        return super.kafkaListenerContainerFactory();
+    }
+
+    /**
+     * Returns the Debezium {@code ts_ms} of the change event, if present.
+     */
+    @Override
+    protected Long getEventTimestamp(JsonNode value) {
+        JsonNode timestamp = value.path("ts_ms");
+        return timestamp.isNumber() ? timestamp.asLong() : null;
+    }
+
+    /**
+     * Listener container factory delivering the whole poll result at once to batch listeners.
+     *
+     * @return a batch {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    @Bean(name = CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<JsonNode, JsonNode> batchListenerContainerFactory() {
+        return super.batchKafkaListenerContainerFactory();
+    }
+}
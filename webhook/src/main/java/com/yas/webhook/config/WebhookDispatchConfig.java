@@ -0,0 +1,43 @@
+package com.yas.webhook.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Webhook notification delivery settings.
+ *
+ * @param batchSize                the maximum number of notifications claimed per poll
+ * @param maxInFlight              the maximum number of deliveries in progress
+ * @param maxAttempts              the number of attempts after which a notification is marked as failed
+ * @param initialBackoff           the delay before the first retry, doubled on each following retry
+ * @param maxBackoff               the maximum delay between retries
+ * @param lease                    how long a claimed notification is kept from other dispatchers, it must
+ *                                 exceed the batch delays
+ * @param batchMaxDelay            how long notifications are buffered, for the batching webhooks without
+ *                                 their own delay, below {@link #maxBatchDelay()}
+ */
+@ConfigurationProperties(prefix = "webhook.dispatch")
+public record WebhookDispatchConfig(
+    int batchSize,
+    int maxInFlight,
+    int maxAttempts,
+    Duration initialBackoff,
+    Duration maxBackoff,
+    Duration lease,
+    Duration batchMaxDelay
+) {
+
+    public WebhookDispatchConfig {
+        if (batchMaxDelay.compareTo(lease.dividedBy(2)) >= 0) {
+            throw new IllegalArgumentException("webhook.dispatch.batch-max-delay must be below half of the lease");
+        }
+    }
+
+    /**
+     * Returns the longest delay a batch may be buffered for, half of the lease, so that the other half is left
+     * to deliver it before another dispatcher claims its notifications again.
+     */
+    public Duration maxBatchDelay() {
+        return lease.dividedBy(2);
+    }
+}
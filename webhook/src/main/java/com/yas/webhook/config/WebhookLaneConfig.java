@@ -0,0 +1,55 @@
+package com.yas.webhook.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Webhook delivery lane settings. Each webhook gets its own lane, isolating its deliveries from the others.
+ *
+ * @param maxConcurrency       the maximum number of deliveries in progress in a lane
+ * @param maxQueueDepth        the maximum number of deliveries waiting in a lane, further ones are rejected
+ * @param connectTimeout       the connection timeout of a delivery
+ * @param readTimeout          the response timeout of a delivery
+ * @param circuitBreakerConfig the name of the resilience4j circuit breaker configuration of the lanes
+ * @param webhooks             settings overriding the defaults above, by webhook ID
+ */
+@ConfigurationProperties(prefix = "webhook.delivery.lane")
+public record WebhookLaneConfig(
+    int maxConcurrency,
+    int maxQueueDepth,
+    Duration connectTimeout,
+    Duration readTimeout,
+    String circuitBreakerConfig,
+    Map<Long, LaneSettings> webhooks
+) {
+
+    /**
+     * Returns the settings of the lane of a webhook.
+     *
+     * @param webhookId the webhook ID
+     * @return the settings, with the overrides of the webhook applied
+     */
+    public LaneSettings forWebhook(Long webhookId) {
+        LaneSettings override = Optional.ofNullable(webhooks).map(all -> all.get(webhookId))
+            .orElse(new LaneSettings(null, null, null, null));
+        return new LaneSettings(
+            Optional.ofNullable(override.maxConcurrency()).orElse(maxConcurrency),
+            Optional.ofNullable(override.maxQueueDepth()).orElse(maxQueueDepth),
+            Optional.ofNullable(override.connectTimeout()).orElse(connectTimeout),
+            Optional.ofNullable(override.readTimeout()).orElse(readTimeout)
+        );
+    }
+
+    /**
+     * Lane settings of a webhook, unset ones fall back to the defaults.
+     */
+    public record LaneSettings(
+        Integer maxConcurrency,
+        Integer maxQueueDepth,
+        Duration connectTimeout,
+        Duration readTimeout
+    ) {
+    }
+}
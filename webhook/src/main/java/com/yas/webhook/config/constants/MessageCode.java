@@ -4,6 +4,7 @@ public final class MessageCode {
 
     public static final String WEBHOOK_NOT_FOUND = "WEBHOOK_NOT_FOUND";
     public static final String EVENT_NOT_FOUND = "EVENT_NOT_FOUND";
+    public static final String BATCH_MAX_DELAY_TOO_LONG = "BATCH_MAX_DELAY_TOO_LONG";
 
     private MessageCode() {
     }
@@ -0,0 +1,24 @@
+package com.yas.webhook.controller;
+
+import com.yas.webhook.config.constants.ApiConstant;
+import com.yas.webhook.integration.api.WebhookDeliveryLanes;
+import com.yas.webhook.model.viewmodel.webhook.WebhookDeliveryLaneVm;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(ApiConstant.WEBHOOK_DELIVERY_LANE_URL)
+@RequiredArgsConstructor
+public class WebhookDeliveryLaneController {
+
+    private final WebhookDeliveryLanes webhookDeliveryLanes;
+
+    @GetMapping
+    public ResponseEntity<List<WebhookDeliveryLaneVm>> listDeliveryLanes() {
+        return ResponseEntity.ok(webhookDeliveryLanes.getLaneStates());
+    }
+}
@@ -1,10 +1,8 @@
 package com.yas.webhook.integration.api;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.webhook.utils.HmacUtils;
+import java.nio.charset.StandardCharsets;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClient.RequestBodySpec;
@@ -15,20 +13,33 @@ public class WebhookApi {
 
     public static final String X_HUB_SIGNATURE_256 = "X-Hub-Signature-256";
 
-    private final RestClient restClient;
+    private final WebhookDeliveryLanes deliveryLanes;
+
+    /**
+     * Posts a payload to a webhook, in the delivery lane of the webhook.
+     *
+     * @param webhookId the webhook ID
+     * @param url       the payload URL of the webhook
+     * @param payload   the JSON payload, as signed
+     * @param signature the signature of the payload, if the webhook has a secret
+     * @return {@link WebhookDeliveryLane.Result#DELIVERED}, or the reason why the lane rejected the delivery
+     */
+    public WebhookDeliveryLane.Result notify(Long webhookId, String url, String payload, String signature) {
+        return deliveryLanes.getLane(webhookId).deliver(restClient -> post(restClient, url, payload, signature));
+    }
 
-    @SneakyThrows
-    public void notify(String url, String secret, JsonNode jsonNode) {
+    private void post(RestClient restClient, String url, String payload, String signature) {
 
         RequestBodySpec requestBodySpec = restClient.post()
-            .uri(url);
+            .uri(url)
+            .contentType(MediaType.APPLICATION_JSON);
 
-        if (StringUtils.isNoneEmpty(secret)) {
-            String secretToken = HmacUtils.hash(jsonNode.toString(), secret);
-            requestBodySpec.header(X_HUB_SIGNATURE_256, secretToken);
+        if (signature != null) {
+            requestBodySpec.header(X_HUB_SIGNATURE_256, signature);
         }
 
-        requestBodySpec.body(jsonNode)
+        // The exact bytes which were signed are sent.
+        requestBodySpec.body(payload.getBytes(StandardCharsets.UTF_8))
             .retrieve()
             .toBodilessEntity();
     }
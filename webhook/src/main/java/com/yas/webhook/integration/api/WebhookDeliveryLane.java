@@ -0,0 +1,117 @@
+package com.yas.webhook.integration.api;
+
+import com.yas.webhook.config.WebhookLaneConfig.LaneSettings;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.Getter;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Delivery lane of one webhook, with its own HTTP client timeouts, circuit breaker, concurrency cap
+ * and queue depth limit. A dead or slow subscriber fills and trips its own lane only, deliveries
+ * to the other subscribers are not held up.
+ */
+public class WebhookDeliveryLane {
+
+    /**
+     * Result of a delivery which did not fail.
+     */
+    public enum Result {
+        DELIVERED,
+        QUEUE_FULL,
+        CIRCUIT_OPEN
+    }
+
+    @Getter
+    private final Long webhookId;
+    @Getter
+    private final LaneSettings settings;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    private final RestClient restClient;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    WebhookDeliveryLane(Long webhookId, LaneSettings settings, CircuitBreaker circuitBreaker) {
+        this.webhookId = webhookId;
+        this.settings = settings;
+        this.circuitBreaker = circuitBreaker;
+        this.permits = new Semaphore(settings.maxConcurrency());
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(settings.connectTimeout());
+        requestFactory.setReadTimeout(settings.readTimeout());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Runs a delivery in the lane. It waits for a free slot when the lane is at its concurrency cap,
+     * unless the lane queue is full or the circuit is open.
+     *
+     * @param delivery the delivery, given the HTTP client of the lane
+     * @return {@link Result#DELIVERED}, or the reason why the delivery was rejected without being run
+     * @throws RuntimeException the delivery failure
+     */
+    public Result deliver(Consumer<RestClient> delivery) {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            rejected.incrementAndGet();
+            return Result.CIRCUIT_OPEN;
+        }
+        if (!permits.tryAcquire()) {
+            if (waiting.incrementAndGet() > settings.maxQueueDepth()) {
+                waiting.decrementAndGet();
+                rejected.incrementAndGet();
+                return Result.QUEUE_FULL;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.incrementAndGet();
+                return Result.QUEUE_FULL;
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        try {
+            circuitBreaker.executeRunnable(() -> delivery.accept(restClient));
+            delivered.incrementAndGet();
+            return Result.DELIVERED;
+        } catch (CallNotPermittedException e) {
+            rejected.incrementAndGet();
+            return Result.CIRCUIT_OPEN;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getInFlight() {
+        return settings.maxConcurrency() - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,107 @@
+package com.yas.webhook.integration.api;
+
+import com.yas.webhook.config.WebhookLaneConfig;
+import com.yas.webhook.model.viewmodel.webhook.WebhookDeliveryLaneVm;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates and tracks the delivery lane of each webhook. Lane state is published as metrics tagged
+ * with the webhook ID, the circuit breakers also publish the resilience4j metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookDeliveryLanes {
+
+    private static final String CIRCUIT_BREAKER_PREFIX = "webhook-";
+    private static final String METRIC_PREFIX = "yas.webhook.lane";
+    private static final String WEBHOOK_TAG = "webhook";
+
+    private final WebhookLaneConfig laneConfig;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, WebhookDeliveryLane> lanes = new ConcurrentHashMap<>();
+    private final Map<Long, List<Meter>> laneMeters = new ConcurrentHashMap<>();
+
+    public WebhookDeliveryLane getLane(Long webhookId) {
+        return lanes.computeIfAbsent(webhookId, this::createLane);
+    }
+
+    /**
+     * Drops the lane of a webhook, when the webhook is changed or deleted. A new lane is created
+     * with the next delivery.
+     *
+     * @param webhookId the webhook ID
+     */
+    public void remove(Long webhookId) {
+        WebhookDeliveryLane lane = lanes.remove(webhookId);
+        if (lane == null) {
+            return;
+        }
+        circuitBreakerRegistry.remove(lane.getCircuitBreaker().getName());
+        laneMeters.getOrDefault(webhookId, List.of()).forEach(meterRegistry::remove);
+        laneMeters.remove(webhookId);
+    }
+
+    public List<WebhookDeliveryLaneVm> getLaneStates() {
+        return lanes.values().stream()
+            .sorted(Comparator.comparing(WebhookDeliveryLane::getWebhookId))
+            .map(lane -> new WebhookDeliveryLaneVm(
+                lane.getWebhookId(),
+                lane.getCircuitBreaker().getState().name(),
+                lane.getCircuitBreaker().getMetrics().getFailureRate(),
+                lane.getInFlight(),
+                lane.getWaiting(),
+                lane.getSettings().maxConcurrency(),
+                lane.getSettings().maxQueueDepth(),
+                lane.getSettings().connectTimeout().toMillis(),
+                lane.getSettings().readTimeout().toMillis(),
+                lane.getDelivered(),
+                lane.getFailed(),
+                lane.getRejected()
+            ))
+            .toList();
+    }
+
+    private WebhookDeliveryLane createLane(Long webhookId) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(
+            CIRCUIT_BREAKER_PREFIX + webhookId, laneConfig.circuitBreakerConfig());
+        WebhookDeliveryLane lane = new WebhookDeliveryLane(webhookId, laneConfig.forWebhook(webhookId),
+            circuitBreaker);
+        Tags tags = Tags.of(WEBHOOK_TAG, String.valueOf(webhookId));
+        laneMeters.put(webhookId, List.of(
+            Gauge.builder(METRIC_PREFIX + ".in.flight", lane, WebhookDeliveryLane::getInFlight)
+                .description("Deliveries in progress in a webhook lane")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder(METRIC_PREFIX + ".waiting", lane, WebhookDeliveryLane::getWaiting)
+                .description("Deliveries waiting in a webhook lane")
+                .tags(tags)
+                .register(meterRegistry),
+            FunctionCounter.builder(METRIC_PREFIX + ".deliveries", lane, WebhookDeliveryLane::getDelivered)
+                .description("Deliveries run in a webhook lane")
+                .tags(tags.and("outcome", "delivered"))
+                .register(meterRegistry),
+            FunctionCounter.builder(METRIC_PREFIX + ".deliveries", lane, WebhookDeliveryLane::getFailed)
+                .description("Deliveries run in a webhook lane")
+                .tags(tags.and("outcome", "failed"))
+                .register(meterRegistry),
+            FunctionCounter.builder(METRIC_PREFIX + ".deliveries", lane, WebhookDeliveryLane::getRejected)
+                .description("Deliveries run in a webhook lane")
+                .tags(tags.and("outcome", "rejected"))
+                .register(meterRegistry)
+        ));
+        return lane;
+    }
+}
@@ -1,21 +1,38 @@
 package com.yas.webhook.integration.inbound;
 
+import static com.yas.webhook.config.CdcKafkaListenerConfig.CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+
 import com.fasterxml.jackson.databind.JsonNode;
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
 import com.yas.webhook.service.OrderEventService;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Consumer of the order domain events of the order outbox, keyed by order. Each event is a distinct
+ * notification, so events are not compacted: the orders of a batch are processed in parallel, the events
+ * of an order in order. Records redelivered after a failed batch are skipped by their record id.
+ */
 @Component
 @RequiredArgsConstructor
-public class OrderEventInbound {
+public class OrderEventInbound extends BaseCdcConsumer<JsonNode, JsonNode> {
 
     private final OrderEventService orderEventService;
 
-    @KafkaListener(topics = {
-        "${webhook.integration.kafka.order.topic-name}"}, groupId = "${spring.kafka.consumer.group-id}")
-    public void onOrderEvent(JsonNode productEvent) {
-        orderEventService.onOrderEvent(productEvent);
+    @KafkaListener(
+        topics = "${webhook.integration.kafka.order.topic-name}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void onOrderEvents(List<ConsumerRecord<JsonNode, JsonNode>> records) {
+        processBatch(records, false, consumerRecord -> {
+            if (consumerRecord.value() != null) {
+                orderEventService.onOrderEvent(consumerRecord.value(), getRecordId(consumerRecord));
+            }
+        });
     }
 
 }
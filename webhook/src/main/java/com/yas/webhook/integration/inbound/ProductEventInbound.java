@@ -1,20 +1,36 @@
 package com.yas.webhook.integration.inbound;
 
+import static com.yas.webhook.config.CdcKafkaListenerConfig.CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+
 import com.fasterxml.jackson.databind.JsonNode;
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
 import com.yas.webhook.service.ProductEventService;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Product CDC consumer. The products of a batch are processed in parallel, the events of a product in order.
+ * Records redelivered after a failed batch are skipped by their record id.
+ */
 @Component
 @RequiredArgsConstructor
-public class ProductEventInbound {
+public class ProductEventInbound extends BaseCdcConsumer<JsonNode, JsonNode> {
 
     private final ProductEventService productEventService;
 
-    @KafkaListener(topics = {
-        "${webhook.integration.kafka.product.topic-name}"}, groupId = "${spring.kafka.consumer.group-id}")
-    public void onProductEvent(JsonNode productEvent) {
-        productEventService.onProductEvent(productEvent);
+    @KafkaListener(
+        topics = "${webhook.integration.kafka.product.topic-name}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void onProductEvents(List<ConsumerRecord<JsonNode, JsonNode>> records) {
+        processBatch(records, false, consumerRecord -> {
+            if (consumerRecord.value() != null) {
+                productEventService.onProductEvent(consumerRecord.value(), getRecordId(consumerRecord));
+            }
+        });
     }
 }
@@ -22,6 +22,12 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 public class Webhook extends AbstractAuditEntity {
+    /**
+     * The maximum size of a batch. Buffered notifications hold an in-flight permit of the dispatcher each,
+     * so a batch must stay small next to {@code webhook.dispatch.max-in-flight}.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "webhook")
     List<WebhookEvent> webhookEvents;
     @Id
@@ -35,5 +41,16 @@ public class Webhook extends AbstractAuditEntity {
     private String secret;
     @Column(name = "is_active")
     private Boolean isActive;
+    @Column(name = "batch_max_size")
+    private Integer batchMaxSize;
+    @Column(name = "batch_max_delay_ms")
+    private Long batchMaxDelayMillis;
+
+    /**
+     * Whether notifications are delivered to this webhook in batches, as a JSON array.
+     */
+    public boolean isBatchEnabled() {
+        return batchMaxSize != null && batchMaxSize > 1;
+    }
 
 }
\ No newline at end of file
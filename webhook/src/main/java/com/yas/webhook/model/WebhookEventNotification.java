@@ -42,6 +42,25 @@ public class WebhookEventNotification {
     @Column(name = "created_on")
     private ZonedDateTime createdOn;
 
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_on")
+    private ZonedDateTime nextAttemptOn;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "coalescing_key")
+    private String coalescingKey;
+
+    /**
+     * The id of the record which caused the notification, unique by webhook event so that a redelivered
+     * record is not notified twice.
+     */
+    @Column(name = "source_key")
+    private String sourceKey;
+
     @ManyToOne
     @JoinColumn(name = "webhook_event_id", updatable = false, insertable = false)
     private WebhookEvent webhookEvent;
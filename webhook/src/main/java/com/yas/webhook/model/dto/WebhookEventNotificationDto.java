@@ -1,6 +1,8 @@
 package com.yas.webhook.model.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -9,7 +11,13 @@ import lombok.Getter;
 public class WebhookEventNotificationDto {
 
     private Long notificationId;
+    private Long webhookId;
+    private int attempts;
     private String url;
     private String secret;
     private JsonNode payload;
+    private String coalescingKey;
+    private ZonedDateTime createdOn;
+    private int batchMaxSize;
+    private Duration batchMaxDelay;
 }
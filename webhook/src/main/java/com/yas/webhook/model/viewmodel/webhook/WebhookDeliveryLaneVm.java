@@ -0,0 +1,17 @@
+package com.yas.webhook.model.viewmodel.webhook;
+
+public record WebhookDeliveryLaneVm(
+    Long webhookId,
+    String circuitState,
+    float failureRate,
+    int inFlight,
+    int waiting,
+    int maxConcurrency,
+    int maxQueueDepth,
+    long connectTimeoutMillis,
+    long readTimeoutMillis,
+    long delivered,
+    long failed,
+    long rejected
+) {
+}
@@ -10,5 +10,7 @@ public class WebhookDetailVm {
     String secret;
     String contentType;
     Boolean isActive;
+    Integer batchMaxSize;
+    Long batchMaxDelayMillis;
     List<EventVm> events;
 }
@@ -1,5 +1,8 @@
 package com.yas.webhook.model.viewmodel.webhook;
 
+import com.yas.webhook.model.Webhook;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import lombok.Data;
 
@@ -9,5 +12,10 @@ public class WebhookPostVm {
     String secret;
     String contentType;
     Boolean isActive;
+    @Positive
+    @Max(Webhook.MAX_BATCH_SIZE)
+    Integer batchMaxSize;
+    @Positive
+    Long batchMaxDelayMillis;
     List<EventVm> events;
 }
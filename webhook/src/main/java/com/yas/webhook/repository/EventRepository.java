@@ -2,6 +2,7 @@ package com.yas.webhook.repository;
 
 import com.yas.webhook.model.Event;
 import com.yas.webhook.model.enums.EventName;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,4 +14,8 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @EntityGraph(attributePaths = {"webhookEvents.webhook"})
     Optional<Event> findByName(EventName name);
 
+    @Override
+    @EntityGraph(attributePaths = {"webhookEvents.webhook"})
+    List<Event> findAll();
+
 }
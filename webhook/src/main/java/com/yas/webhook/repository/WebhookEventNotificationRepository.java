@@ -1,9 +1,52 @@
 package com.yas.webhook.repository;
 
 import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.enums.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface WebhookEventNotificationRepository extends JpaRepository<WebhookEventNotification, Long> {
+
+    boolean existsByWebhookEventIdAndSourceKey(Long webhookEventId, String sourceKey);
+
+    /**
+     * Locks the notifications due for delivery, skipping those locked by another dispatcher
+     * ({@code FOR UPDATE SKIP LOCKED}). Must be called in a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT n FROM WebhookEventNotification n
+        WHERE n.notificationStatus = :status AND n.nextAttemptOn <= :now
+        ORDER BY n.nextAttemptOn
+        """)
+    List<WebhookEventNotification> findDueForUpdate(@Param("status") NotificationStatus status,
+                                                    @Param("now") ZonedDateTime now,
+                                                    Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE WebhookEventNotification n
+        SET n.notificationStatus = :status, n.attempts = :attempts, n.nextAttemptOn = :nextAttemptOn,
+            n.lastError = :lastError
+        WHERE n.id = :id
+        """)
+    void updateDeliveryState(@Param("id") Long id,
+                             @Param("status") NotificationStatus status,
+                             @Param("attempts") int attempts,
+                             @Param("nextAttemptOn") ZonedDateTime nextAttemptOn,
+                             @Param("lastError") String lastError);
 }
@@ -1,9 +1,7 @@
 package com.yas.webhook.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.webhook.model.WebhookEvent;
 import com.yas.webhook.model.WebhookEventNotification;
-import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.NotificationStatus;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
 import java.time.ZonedDateTime;
@@ -12,26 +10,29 @@ abstract class AbstractWebhookEventNotificationService {
 
     protected abstract WebhookEventNotificationRepository getWebhookEventNotificationRepository();
 
-    protected Long persistNotification(Long webhookEventId, JsonNode payload) {
+    protected void persistNotification(Long webhookEventId, JsonNode payload, String sourceKey) {
+        persistNotification(webhookEventId, payload, sourceKey, null);
+    }
+
+    /**
+     * Persists a notification to deliver, unless the source already caused one for this webhook event.
+     *
+     * @param sourceKey     the id of the record which causes the notification
+     * @param coalescingKey the key of the notifications which replace each other in a batch, if any
+     */
+    protected void persistNotification(Long webhookEventId, JsonNode payload, String sourceKey,
+                                       String coalescingKey) {
+        if (getWebhookEventNotificationRepository().existsByWebhookEventIdAndSourceKey(webhookEventId, sourceKey)) {
+            return;
+        }
         WebhookEventNotification notification = new WebhookEventNotification();
         notification.setWebhookEventId(webhookEventId);
         notification.setPayload(payload.toString());
+        notification.setSourceKey(sourceKey);
+        notification.setCoalescingKey(coalescingKey);
         notification.setNotificationStatus(NotificationStatus.NOTIFYING);
         notification.setCreatedOn(ZonedDateTime.now());
-        WebhookEventNotification persistedNotification = getWebhookEventNotificationRepository().save(notification);
-        return persistedNotification.getId();
-    }
-
-    protected WebhookEventNotificationDto createNotificationDto(WebhookEvent webhookEvent, JsonNode payload,
-                                                                Long notificationId) {
-        String url = webhookEvent.getWebhook().getPayloadUrl();
-        String secret = webhookEvent.getWebhook().getSecret();
-
-        return WebhookEventNotificationDto.builder()
-            .secret(secret)
-            .payload(payload)
-            .url(url)
-            .notificationId(notificationId)
-            .build();
+        notification.setNextAttemptOn(notification.getCreatedOn());
+        getWebhookEventNotificationRepository().save(notification);
     }
 }
@@ -1,59 +1,45 @@
 package com.yas.webhook.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.commonlibrary.exception.NotFoundException;
-import com.yas.webhook.config.constants.MessageCode;
-import com.yas.webhook.model.Event;
-import com.yas.webhook.model.WebhookEvent;
-import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.EventName;
-import com.yas.webhook.model.enums.Operation;
-import com.yas.webhook.repository.EventRepository;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
-import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+/**
+ * Notifies the webhooks of the order domain events, published from the outbox of the order service.
+ * The event is the notification payload.
+ */
 @Service
 @RequiredArgsConstructor
 public class OrderEventService extends AbstractWebhookEventNotificationService {
 
-    private final EventRepository eventRepository;
-    private final WebhookService webhookService;
+    static final String ORDER_CREATED = "ORDER_CREATED";
+    static final String ORDER_STATUS_UPDATED = "ORDER_STATUS_UPDATED";
+
+    private final WebhookSubscriptionRegistry webhookSubscriptionRegistry;
     private final WebhookEventNotificationRepository webhookEventNotificationRepository;
 
-    public void onOrderEvent(JsonNode updatedEvent) {
-        Optional<EventName> optionalEventName = getEventName(updatedEvent);
+    /**
+     * Notifies the webhooks subscribed to an order event.
+     *
+     * @param sourceKey the id of the record of the event, notifications already persisted for it are skipped
+     */
+    public void onOrderEvent(JsonNode orderEvent, String sourceKey) {
+        Optional<EventName> optionalEventName = getEventName(orderEvent);
         if (optionalEventName.isPresent()) {
-            Event event = eventRepository.findByName(optionalEventName.get())
-                .orElseThrow(() -> new NotFoundException(MessageCode.EVENT_NOT_FOUND, optionalEventName.get()));
-            List<WebhookEvent> hookEvents = event.getWebhookEvents();
-            hookEvents.forEach(hookEvent -> {
-                JsonNode payload = updatedEvent.get("after");
-                Long notificationId = super.persistNotification(hookEvent.getId(), payload);
-
-                WebhookEventNotificationDto dto = super.createNotificationDto(hookEvent, payload,
-                    notificationId);
-                webhookService.notifyToWebhook(dto);
-            });
+            webhookSubscriptionRegistry.getSubscriptions(optionalEventName.get()).forEach(subscription ->
+                super.persistNotification(subscription.webhookEventId(), orderEvent, sourceKey));
         }
     }
 
-    private Optional<EventName> getEventName(JsonNode updatedEvent) {
-        String operation = updatedEvent.get("op").asText();
-        if (Objects.equals(operation, Operation.CREATE.getName())) {
-            return Optional.of(EventName.ON_ORDER_CREATED);
-        }
-        if (Objects.equals(operation, Operation.UPDATE.getName())) {
-            String orderStatusBefore = updatedEvent.path("before").get("order_status").asText();
-            String orderStatusAfter = updatedEvent.path("after").get("order_status").asText();
-            if (!orderStatusBefore.equals(orderStatusAfter)) {
-                return Optional.of(EventName.ON_ORDER_STATUS_UPDATED);
-            }
-        }
-        return Optional.empty();
+    private Optional<EventName> getEventName(JsonNode orderEvent) {
+        return switch (orderEvent.path("type").asText()) {
+            case ORDER_CREATED -> Optional.of(EventName.ON_ORDER_CREATED);
+            case ORDER_STATUS_UPDATED -> Optional.of(EventName.ON_ORDER_STATUS_UPDATED);
+            default -> Optional.empty();
+        };
     }
 
     @Override
@@ -1,16 +1,9 @@
 package com.yas.webhook.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.commonlibrary.exception.NotFoundException;
-import com.yas.webhook.config.constants.MessageCode;
-import com.yas.webhook.model.Event;
-import com.yas.webhook.model.WebhookEvent;
-import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.EventName;
 import com.yas.webhook.model.enums.Operation;
-import com.yas.webhook.repository.EventRepository;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
-import java.util.List;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,26 +12,24 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ProductEventService extends AbstractWebhookEventNotificationService {
 
-    private final EventRepository eventRepository;
-    private final WebhookService webhookService;
+    private final WebhookSubscriptionRegistry webhookSubscriptionRegistry;
     private final WebhookEventNotificationRepository webhookEventNotificationRepository;
 
-    public void onProductEvent(JsonNode updatedEvent) {
+    /**
+     * Notifies the webhooks subscribed to product updates.
+     *
+     * @param sourceKey the id of the record of the event, notifications already persisted for it are skipped
+     */
+    public void onProductEvent(JsonNode updatedEvent, String sourceKey) {
         String operation = updatedEvent.get("op").asText();
         if (!Objects.equals(operation, Operation.UPDATE.getName())) {
             return;
         }
-        Event event = eventRepository.findByName(EventName.ON_PRODUCT_UPDATED)
-            .orElseThrow(() -> new NotFoundException(MessageCode.EVENT_NOT_FOUND, EventName.ON_PRODUCT_UPDATED));
-        List<WebhookEvent> hookEvents = event.getWebhookEvents();
-        hookEvents.forEach(hookEvent -> {
-            JsonNode payload = updatedEvent.get("after");
-            Long notificationId = super.persistNotification(hookEvent.getId(), payload);
-
-            WebhookEventNotificationDto dto = super.createNotificationDto(hookEvent, payload,
-                notificationId);
-            webhookService.notifyToWebhook(dto);
-        });
+        JsonNode payload = updatedEvent.get("after");
+        // Batched updates of the same product are delivered as its latest state only.
+        String coalescingKey = "product:" + payload.path("id").asText();
+        webhookSubscriptionRegistry.getSubscriptions(EventName.ON_PRODUCT_UPDATED).forEach(subscription ->
+            super.persistNotification(subscription.webhookEventId(), payload, sourceKey, coalescingKey));
     }
 
     @Override
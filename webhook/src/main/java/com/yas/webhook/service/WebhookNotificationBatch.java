@@ -0,0 +1,65 @@
+package com.yas.webhook.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yas.webhook.model.dto.WebhookEventNotificationDto;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifications of one webhook buffered for a single delivery.
+ *
+ * <p>Notifications with the same coalescing key, such as repeated updates of a product, share a single
+ * entry of the batch, holding the payload of the most recently created one. Notifications are claimed by
+ * their next attempt time, so a retried notification can come after a newer one and must not replace it.
+ * The coalesced notifications still belong to the batch, so that they get the delivery state of the payload
+ * which replaced theirs.</p>
+ */
+class WebhookNotificationBatch {
+
+    private static final Comparator<WebhookEventNotificationDto> CREATION_ORDER = Comparator
+        .comparing(WebhookEventNotificationDto::getCreatedOn, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(WebhookEventNotificationDto::getNotificationId);
+
+    private final List<WebhookEventNotificationDto> notifications = new ArrayList<>();
+    private final Map<Object, WebhookEventNotificationDto> latestByKey = new LinkedHashMap<>();
+
+    /**
+     * Adds a notification to the batch.
+     *
+     * @return whether the notification was coalesced with a previous one
+     */
+    boolean add(WebhookEventNotificationDto notification) {
+        notifications.add(notification);
+        Object key = notification.getCoalescingKey() != null
+            ? notification.getCoalescingKey()
+            : notification.getNotificationId();
+        WebhookEventNotificationDto previous = latestByKey.get(key);
+        if (previous == null) {
+            latestByKey.put(key, notification);
+            return false;
+        }
+        // The entry keeps its position, the payload is the one of the most recently created notification.
+        if (CREATION_ORDER.compare(notification, previous) > 0) {
+            latestByKey.put(key, notification);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of payloads, after coalescing.
+     */
+    int size() {
+        return latestByKey.size();
+    }
+
+    List<WebhookEventNotificationDto> getNotifications() {
+        return notifications;
+    }
+
+    List<JsonNode> getPayloads() {
+        return latestByKey.values().stream().map(WebhookEventNotificationDto::getPayload).toList();
+    }
+}
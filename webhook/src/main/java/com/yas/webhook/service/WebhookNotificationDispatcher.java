@@ -0,0 +1,303 @@
+package com.yas.webhook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.webhook.config.WebhookDispatchConfig;
+import com.yas.webhook.integration.api.WebhookApi;
+import com.yas.webhook.integration.api.WebhookDeliveryLane;
+import com.yas.webhook.model.Webhook;
+import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.dto.WebhookEventNotificationDto;
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers webhook notifications, using the notification table as an outbox.
+ *
+ * <p>Notifications are persisted as {@link NotificationStatus#NOTIFYING}. Each poll claims a batch of due
+ * notifications with {@code FOR UPDATE SKIP LOCKED}, so that several instances share the work, and pushes
+ * their next attempt time past a lease. A notification claimed by an instance which stops before delivering
+ * is claimed again once the lease expires. Deliveries run on virtual threads, in the delivery lane
+ * of their webhook, so that a slow subscriber cannot hold up the others. Failed deliveries are
+ * retried with an exponential backoff, up to a maximum number of attempts. Deliveries rejected
+ * by a lane are tried again later, without counting an attempt.</p>
+ *
+ * <p>Notifications of a webhook with batching enabled are buffered, once claimed, until the batch reaches
+ * the maximum size of the webhook or its oldest notification has waited for the maximum delay. They are then
+ * posted as a single JSON array, signed once. Within a batch, notifications with the same coalescing key
+ * are sent as the payload of the most recently created one only, whatever the order they were claimed in.</p>
+ */
+@Slf4j
+@Service
+public class WebhookNotificationDispatcher implements DisposableBean {
+
+    private static final String METRIC_PREFIX = "yas.webhook.delivery";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebhookEventNotificationRepository webhookEventNotificationRepository;
+    private final WebhookApi webhookApi;
+    private final WebhookSubscriptionRegistry webhookSubscriptionRegistry;
+    private final ObjectMapper objectMapper;
+    private final WebhookDispatchConfig dispatchConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlightPermits;
+    private final Map<Long, WebhookNotificationBatch> openBatches = new HashMap<>();
+
+    public WebhookNotificationDispatcher(WebhookEventNotificationRepository webhookEventNotificationRepository,
+                                         WebhookApi webhookApi,
+                                         WebhookSubscriptionRegistry webhookSubscriptionRegistry,
+                                         ObjectMapper objectMapper,
+                                         WebhookDispatchConfig dispatchConfig,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry) {
+        this.webhookEventNotificationRepository = webhookEventNotificationRepository;
+        this.webhookApi = webhookApi;
+        this.webhookSubscriptionRegistry = webhookSubscriptionRegistry;
+        this.objectMapper = objectMapper;
+        this.dispatchConfig = dispatchConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.inFlightPermits = new Semaphore(dispatchConfig.maxInFlight());
+        meterRegistry.gauge(METRIC_PREFIX + ".in.flight", inFlightPermits,
+            permits -> (double) dispatchConfig.maxInFlight() - permits.availablePermits());
+    }
+
+    /**
+     * Claims the due notifications, within the free delivery capacity, and starts their delivery.
+     */
+    @Scheduled(fixedDelayString = "${webhook.dispatch.poll-interval}")
+    public void dispatchDueNotifications() {
+        // Permits are only taken by this method, so the available ones cannot decrease meanwhile.
+        int capacity = Math.min(inFlightPermits.availablePermits(), dispatchConfig.batchSize());
+        if (capacity == 0) {
+            return;
+        }
+        List<WebhookEventNotificationDto> notifications;
+        try {
+            notifications = claimDueNotifications(capacity);
+        } catch (RuntimeException e) {
+            log.error("Failed to claim due webhook notifications", e);
+            return;
+        }
+        notifications.forEach(notification -> {
+            // Buffered notifications keep their permit until their batch is delivered.
+            inFlightPermits.acquireUninterruptibly();
+            if (notification.getBatchMaxSize() > 1) {
+                addToBatch(notification);
+            } else {
+                execute(List.of(notification), notification.getPayload());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        List<WebhookNotificationBatch> batches;
+        synchronized (openBatches) {
+            batches = new ArrayList<>(openBatches.values());
+            openBatches.clear();
+        }
+        batches.forEach(this::executeBatch);
+        // Deliveries still in progress are claimed again by another instance when their lease expires.
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Webhook deliveries did not complete before shutdown");
+        }
+    }
+
+    private List<WebhookEventNotificationDto> claimDueNotifications(int limit) {
+        return transactionTemplate.execute(status -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<WebhookEventNotification> notifications = webhookEventNotificationRepository.findDueForUpdate(
+                NotificationStatus.NOTIFYING, now, Limit.of(limit));
+            ZonedDateTime leaseEnd = now.plus(dispatchConfig.lease());
+            notifications.forEach(notification -> notification.setNextAttemptOn(leaseEnd));
+            return notifications.stream().map(this::toDto).toList();
+        });
+    }
+
+    private void addToBatch(WebhookEventNotificationDto notification) {
+        WebhookNotificationBatch fullBatch = null;
+        boolean isCoalesced;
+        synchronized (openBatches) {
+            WebhookNotificationBatch batch = openBatches.get(notification.getWebhookId());
+            if (batch == null) {
+                batch = new WebhookNotificationBatch();
+                openBatches.put(notification.getWebhookId(), batch);
+                scheduleBatch(notification.getWebhookId(), batch, notification.getBatchMaxDelay());
+            }
+            isCoalesced = batch.add(notification);
+            if (batch.size() >= notification.getBatchMaxSize()) {
+                openBatches.remove(notification.getWebhookId());
+                fullBatch = batch;
+            }
+        }
+        if (isCoalesced) {
+            meterRegistry.counter(METRIC_PREFIX + ".coalesced").increment();
+        }
+        if (fullBatch != null) {
+            executeBatch(fullBatch);
+        }
+    }
+
+    private void scheduleBatch(Long webhookId, WebhookNotificationBatch batch, Duration delay) {
+        CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            synchronized (openBatches) {
+                // The batch is no longer open if it was full before its delay.
+                if (!openBatches.remove(webhookId, batch)) {
+                    return;
+                }
+            }
+            executeBatch(batch);
+        });
+    }
+
+    private void executeBatch(WebhookNotificationBatch batch) {
+        execute(batch.getNotifications(), objectMapper.createArrayNode().addAll(batch.getPayloads()));
+    }
+
+    private void execute(List<WebhookEventNotificationDto> notifications, JsonNode payload) {
+        executor.execute(() -> {
+            try {
+                deliver(notifications, payload);
+            } finally {
+                inFlightPermits.release(notifications.size());
+            }
+        });
+    }
+
+    /**
+     * Posts a payload to the webhook of the notifications, and updates the state of all of them.
+     */
+    private void deliver(List<WebhookEventNotificationDto> notifications, JsonNode payload) {
+        WebhookEventNotificationDto first = notifications.getFirst();
+        WebhookDeliveryLane.Result result = null;
+        RuntimeException failure = null;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            String body = payload.toString();
+            String signature = StringUtils.isNotEmpty(first.getSecret())
+                ? webhookSubscriptionRegistry.sign(first.getSecret(), body)
+                : null;
+            result = webhookApi.notify(first.getWebhookId(), first.getUrl(), body, signature);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        if (result != null && result != WebhookDeliveryLane.Result.DELIVERED) {
+            // The lane of the webhook is full or its circuit is open, try later without counting an attempt.
+            for (WebhookEventNotificationDto notification : notifications) {
+                updateDeliveryState(notification, NotificationStatus.NOTIFYING, notification.getAttempts(),
+                    ZonedDateTime.now().plus(dispatchConfig.initialBackoff()), result.name(), "rejected");
+            }
+            return;
+        }
+        sample.stop(Timer.builder(METRIC_PREFIX + ".latency")
+            .description("Webhook delivery latency")
+            .tag(OUTCOME_TAG, failure == null ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+        for (WebhookEventNotificationDto notification : notifications) {
+            completeDelivery(notification, failure);
+        }
+    }
+
+    private void completeDelivery(WebhookEventNotificationDto notification, RuntimeException failure) {
+        int attempts = notification.getAttempts() + 1;
+        if (failure == null) {
+            updateDeliveryState(notification, NotificationStatus.NOTIFIED, attempts, ZonedDateTime.now(), null,
+                "success");
+        } else if (attempts >= dispatchConfig.maxAttempts()) {
+            log.warn("Webhook notification {} to {} failed after {} attempts",
+                notification.getNotificationId(), notification.getUrl(), attempts, failure);
+            updateDeliveryState(notification, NotificationStatus.FAILED, attempts, ZonedDateTime.now(),
+                failure.getMessage(), "failed");
+        } else {
+            log.debug("Webhook notification {} to {} failed, attempt {}",
+                notification.getNotificationId(), notification.getUrl(), attempts, failure);
+            updateDeliveryState(notification, NotificationStatus.NOTIFYING, attempts,
+                ZonedDateTime.now().plus(backoff(attempts)), failure.getMessage(), "retry");
+        }
+    }
+
+    private void updateDeliveryState(WebhookEventNotificationDto notification, NotificationStatus status,
+                                     int attempts, ZonedDateTime nextAttemptOn, String error, String outcome) {
+        Counter.builder(METRIC_PREFIX + ".attempts")
+            .description("Webhook delivery attempts")
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry)
+            .increment();
+        try {
+            webhookEventNotificationRepository.updateDeliveryState(notification.getNotificationId(), status,
+                attempts, nextAttemptOn, StringUtils.truncate(error, MAX_ERROR_LENGTH));
+        } catch (RuntimeException e) {
+            // The notification is claimed again when its lease expires.
+            log.error("Failed to update the state of webhook notification {}", notification.getNotificationId(), e);
+        }
+    }
+
+    /**
+     * Doubles the delay on each attempt, with a random part so that retries of a failing subscriber spread out.
+     */
+    private Duration backoff(int attempts) {
+        long initial = dispatchConfig.initialBackoff().toMillis();
+        long max = dispatchConfig.maxBackoff().toMillis();
+        long delay = Math.min(max, initial << Math.min(attempts - 1, 30));
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private WebhookEventNotificationDto toDto(WebhookEventNotification notification) {
+        Webhook webhook = notification.getWebhookEvent().getWebhook();
+        // Webhooks saved before their batch settings were validated fall back within the bounds.
+        Duration batchMaxDelay = webhook.getBatchMaxDelayMillis() != null
+            ? Duration.ofMillis(webhook.getBatchMaxDelayMillis())
+            : dispatchConfig.batchMaxDelay();
+        if (batchMaxDelay.compareTo(dispatchConfig.maxBatchDelay()) >= 0) {
+            batchMaxDelay = dispatchConfig.batchMaxDelay();
+        }
+        int batchMaxSize = webhook.isBatchEnabled() ? Math.min(webhook.getBatchMaxSize(), Webhook.MAX_BATCH_SIZE) : 1;
+        try {
+            return WebhookEventNotificationDto.builder()
+                .notificationId(notification.getId())
+                .webhookId(webhook.getId())
+                .url(webhook.getPayloadUrl())
+                .secret(webhook.getSecret())
+                .payload(objectMapper.readTree(notification.getPayload()))
+                .attempts(notification.getAttempts())
+                .coalescingKey(notification.getCoalescingKey())
+                .createdOn(notification.getCreatedOn())
+                .batchMaxSize(batchMaxSize)
+                .batchMaxDelay(batchMaxDelay)
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload of webhook notification " + notification.getId(), e);
+        }
+    }
+}
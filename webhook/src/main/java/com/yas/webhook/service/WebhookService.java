@@ -1,13 +1,12 @@
 package com.yas.webhook.service;
 
+import com.yas.commonlibrary.exception.BadRequestException;
 import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.webhook.config.WebhookDispatchConfig;
 import com.yas.webhook.config.constants.MessageCode;
-import com.yas.webhook.integration.api.WebhookApi;
+import com.yas.webhook.integration.api.WebhookDeliveryLanes;
 import com.yas.webhook.model.Webhook;
 import com.yas.webhook.model.WebhookEvent;
-import com.yas.webhook.model.WebhookEventNotification;
-import com.yas.webhook.model.dto.WebhookEventNotificationDto;
-import com.yas.webhook.model.enums.NotificationStatus;
 import com.yas.webhook.model.mapper.WebhookMapper;
 import com.yas.webhook.model.viewmodel.webhook.EventVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookDetailVm;
@@ -15,7 +14,6 @@ import com.yas.webhook.model.viewmodel.webhook.WebhookListGetVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookPostVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookVm;
 import com.yas.webhook.repository.EventRepository;
-import com.yas.webhook.repository.WebhookEventNotificationRepository;
 import com.yas.webhook.repository.WebhookEventRepository;
 import com.yas.webhook.repository.WebhookRepository;
 import java.util.List;
@@ -23,7 +21,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -35,9 +32,10 @@ public class WebhookService {
     private final WebhookRepository webhookRepository;
     private final EventRepository eventRepository;
     private final WebhookEventRepository webhookEventRepository;
-    private final WebhookEventNotificationRepository webhookEventNotificationRepository;
     private final WebhookMapper webhookMapper;
-    private final WebhookApi webHookApi;
+    private final WebhookDeliveryLanes webhookDeliveryLanes;
+    private final WebhookSubscriptionRegistry webhookSubscriptionRegistry;
+    private final WebhookDispatchConfig webhookDispatchConfig;
 
     public WebhookListGetVm getPageableWebhooks(int pageNo, int pageSize) {
         PageRequest pageRequest = PageRequest.of(pageNo, pageSize, Sort.by(Sort.Direction.DESC, "id"));
@@ -56,6 +54,7 @@ public class WebhookService {
     }
 
     public WebhookDetailVm create(WebhookPostVm webhookPostVm) {
+        validateBatchMaxDelay(webhookPostVm);
         Webhook createdWebhook = webhookMapper.toCreatedWebhook(webhookPostVm);
         createdWebhook = webhookRepository.save(createdWebhook);
         if (!CollectionUtils.isEmpty(webhookPostVm.getEvents())) {
@@ -64,10 +63,12 @@ public class WebhookService {
             webhookEvents = webhookEventRepository.saveAll(webhookEvents);
             createdWebhook.setWebhookEvents(webhookEvents);
         }
+        webhookSubscriptionRegistry.invalidate();
         return webhookMapper.toWebhookDetailVm(createdWebhook);
     }
 
     public void update(WebhookPostVm webhookPostVm, Long id) {
+        validateBatchMaxDelay(webhookPostVm);
         Webhook existedWebHook = webhookRepository.findById(id).orElseThrow(
             () -> new NotFoundException(MessageCode.WEBHOOK_NOT_FOUND, id));
         Webhook updatedWebhook = webhookMapper.toUpdatedWebhook(existedWebHook, webhookPostVm);
@@ -77,6 +78,8 @@ public class WebhookService {
             List<WebhookEvent> webhookEvents = initializeWebhookEvents(id, webhookPostVm.getEvents());
             webhookEventRepository.saveAll(webhookEvents);
         }
+        webhookDeliveryLanes.remove(id);
+        webhookSubscriptionRegistry.invalidate();
     }
 
     @Transactional
@@ -86,17 +89,19 @@ public class WebhookService {
         }
         webhookEventRepository.deleteByWebhookId(id);
         webhookRepository.deleteById(id);
+        webhookDeliveryLanes.remove(id);
+        webhookSubscriptionRegistry.invalidate();
     }
 
-    @Async
-    public void notifyToWebhook(WebhookEventNotificationDto notificationDto) {
-
-        webHookApi.notify(notificationDto.getUrl(), notificationDto.getSecret(), notificationDto.getPayload());
-        WebhookEventNotification notification = webhookEventNotificationRepository.findById(
-                notificationDto.getNotificationId())
-            .orElseThrow();
-        notification.setNotificationStatus(NotificationStatus.NOTIFIED);
-        webhookEventNotificationRepository.save(notification);
+    /**
+     * Rejects a batch delay the claim of the buffered notifications could expire before.
+     */
+    private void validateBatchMaxDelay(WebhookPostVm webhookPostVm) {
+        long maxBatchDelayMillis = webhookDispatchConfig.maxBatchDelay().toMillis();
+        if (webhookPostVm.getBatchMaxDelayMillis() != null
+            && webhookPostVm.getBatchMaxDelayMillis() >= maxBatchDelayMillis) {
+            throw new BadRequestException(MessageCode.BATCH_MAX_DELAY_TOO_LONG, maxBatchDelayMillis);
+        }
     }
 
     private List<WebhookEvent> initializeWebhookEvents(Long webhookId, List<EventVm> events) {
@@ -0,0 +1,139 @@
+package com.yas.webhook.service;
+
+import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.webhook.config.constants.MessageCode;
+import com.yas.webhook.model.Event;
+import com.yas.webhook.model.enums.EventName;
+import com.yas.webhook.repository.EventRepository;
+import com.yas.webhook.utils.HmacUtils;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory registry of the webhooks subscribed to each event, so that the CDC consumers do not query them
+ * on every message.
+ *
+ * <p>It is loaded at startup and invalidated when a webhook is created, updated or deleted. The changes made
+ * by another instance are picked up on the next refresh. It also keeps an initialized {@link Mac} per secret,
+ * which is cloned to sign each payload.</p>
+ */
+@Slf4j
+@Component
+public class WebhookSubscriptionRegistry {
+
+    private final EventRepository eventRepository;
+    private final Duration refreshInterval;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Mac> macs = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    public WebhookSubscriptionRegistry(EventRepository eventRepository,
+                                       @Value("${webhook.subscription.refresh-interval:1m}")
+                                       Duration refreshInterval) {
+        this.eventRepository = eventRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * A webhook subscribed to an event.
+     */
+    public record Subscription(Long webhookEventId, Long webhookId, String url, String secret) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        getSnapshot();
+    }
+
+    /**
+     * Returns the webhooks subscribed to an event.
+     *
+     * @throws NotFoundException if the event does not exist
+     */
+    public List<Subscription> getSubscriptions(EventName eventName) {
+        List<Subscription> subscriptions = getSnapshot().subscriptions().get(eventName);
+        if (subscriptions == null) {
+            throw new NotFoundException(MessageCode.EVENT_NOT_FOUND, eventName);
+        }
+        return subscriptions;
+    }
+
+    /**
+     * Discards the subscriptions, and the secrets, once the current transaction, if any, has completed.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        macs.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A load before the commit would still read the previous subscriptions.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    macs.clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * Computes the hex encoded HMAC-SHA256 signature of a payload.
+     */
+    @SneakyThrows
+    public String sign(String secret, String data) {
+        Mac mac = macs.get(secret);
+        if (mac == null) {
+            mac = HmacUtils.initMac(secret);
+            macs.putIfAbsent(secret, mac);
+        }
+        // A Mac is not thread safe, the cached one is only cloned, with its key already set up.
+        return HmacUtils.hash(data, (Mac) mac.clone());
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version.get()
+            && current.loadedOn().plus(refreshInterval).isAfter(Instant.now())) {
+            return current;
+        }
+        return reload();
+    }
+
+    private synchronized Snapshot reload() {
+        long loadedVersion = version.get();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == loadedVersion
+            && current.loadedOn().plus(refreshInterval).isAfter(Instant.now())) {
+            return current;
+        }
+        Map<EventName, List<Subscription>> subscriptions = new EnumMap<>(EventName.class);
+        for (Event event : eventRepository.findAll()) {
+            subscriptions.put(event.getName(), event.getWebhookEvents().stream()
+                .map(webhookEvent -> new Subscription(webhookEvent.getId(), webhookEvent.getWebhookId(),
+                    webhookEvent.getWebhook().getPayloadUrl(), webhookEvent.getWebhook().getSecret()))
+                .toList());
+        }
+        // Stale if invalidated meanwhile, the next call loads again.
+        Snapshot loaded = new Snapshot(loadedVersion, Instant.now(), subscriptions);
+        snapshot = loaded;
+        log.debug("Loaded the webhook subscriptions of {} events", subscriptions.size());
+        return loaded;
+    }
+
+    private record Snapshot(long version, Instant loadedOn, Map<EventName, List<Subscription>> subscriptions) {
+    }
+}
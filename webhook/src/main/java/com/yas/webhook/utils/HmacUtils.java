@@ -1,7 +1,9 @@
 package com.yas.webhook.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.experimental.UtilityClass;
@@ -11,11 +13,27 @@ public class HmacUtils {
 
     public static final String HMAC_SHA_256 = "HmacSHA256";
 
+    /**
+     * Computes the hex encoded HMAC-SHA256 of the data. The raw digest is not a valid header value.
+     */
     public static String hash(String data, String key) throws NoSuchAlgorithmException, InvalidKeyException {
-        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(), HMAC_SHA_256);
+        return hash(data, initMac(key));
+    }
+
+    /**
+     * Computes the hex encoded HMAC-SHA256 of the data with an initialized {@link Mac}, which is reset afterwards.
+     */
+    public static String hash(String data, Mac mac) {
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates a HMAC-SHA256 {@link Mac} initialized with the key.
+     */
+    public static Mac initMac(String key) throws NoSuchAlgorithmException, InvalidKeyException {
+        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HMAC_SHA_256);
         Mac mac = Mac.getInstance(HMAC_SHA_256);
         mac.init(secretKeySpec);
-
-        return new String(mac.doFinal(data.getBytes()));
+        return mac;
     }
 }
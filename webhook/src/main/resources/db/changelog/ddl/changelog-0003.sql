@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset webhook:issue-webhook-outbox-1
+alter table webhook_event_notification add column attempts int not null default 0;
+alter table webhook_event_notification add column next_attempt_on timestamp not null default now();
+alter table webhook_event_notification add column last_error text;
+create index webhook_event_notification_due_idx on webhook_event_notification (notification_status, next_attempt_on);
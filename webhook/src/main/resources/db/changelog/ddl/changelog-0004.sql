@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset webhook:issue-webhook-batch-1
+alter table webhook add column batch_max_size int;
+alter table webhook add column batch_max_delay_ms bigint;
+alter table webhook_event_notification add column coalescing_key varchar(255);
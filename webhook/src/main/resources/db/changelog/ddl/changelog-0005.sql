@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset webhook:issue-webhook-idempotent-notification-1
+alter table webhook_event_notification add column source_key varchar(255);
+create unique index webhook_event_notification_source_idx on webhook_event_notification (webhook_event_id, source_key);
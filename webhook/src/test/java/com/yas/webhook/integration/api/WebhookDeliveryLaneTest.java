@@ -0,0 +1,95 @@
+package com.yas.webhook.integration.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.yas.webhook.config.WebhookLaneConfig.LaneSettings;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+@DisplayName("WebhookDeliveryLane Unit Tests")
+class WebhookDeliveryLaneTest {
+
+    @Test
+    @DisplayName("Should reject deliveries when the lane queue is full")
+    void deliver_whenQueueIsFull_thenDeliveryIsRejected() throws Exception {
+        // Given
+        WebhookDeliveryLane lane = lane(1, 1, CircuitBreaker.ofDefaults("webhook-1"));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<WebhookDeliveryLane.Result> running = CompletableFuture.supplyAsync(
+            () -> lane.deliver(restClient -> await(release)));
+        waitUntil(() -> lane.getInFlight() == 1);
+        CompletableFuture<WebhookDeliveryLane.Result> waiting = CompletableFuture.supplyAsync(
+            () -> lane.deliver(restClient -> { }));
+        waitUntil(() -> lane.getWaiting() == 1);
+
+        // When
+        WebhookDeliveryLane.Result result = lane.deliver(restClient -> { });
+
+        // Then
+        assertThat(result).isEqualTo(WebhookDeliveryLane.Result.QUEUE_FULL);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(WebhookDeliveryLane.Result.DELIVERED);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(WebhookDeliveryLane.Result.DELIVERED);
+        assertThat(lane.getDelivered()).isEqualTo(2);
+        assertThat(lane.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject deliveries without running them when the circuit is open")
+    void deliver_whenSubscriberKeepsFailing_thenCircuitOpens() {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("webhook-1", CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .build());
+        WebhookDeliveryLane lane = lane(2, 2, circuitBreaker);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> lane.deliver(restClient -> {
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+        AtomicBoolean isRun = new AtomicBoolean();
+
+        // When
+        WebhookDeliveryLane.Result result = lane.deliver(restClient -> isRun.set(true));
+
+        // Then
+        assertThat(result).isEqualTo(WebhookDeliveryLane.Result.CIRCUIT_OPEN);
+        assertThat(isRun).isFalse();
+        assertThat(lane.getFailed()).isEqualTo(2);
+        assertThat(lane.getInFlight()).isZero();
+    }
+
+    private static WebhookDeliveryLane lane(int maxConcurrency, int maxQueueDepth, CircuitBreaker circuitBreaker) {
+        LaneSettings settings = new LaneSettings(maxConcurrency, maxQueueDepth,
+            Duration.ofSeconds(1), Duration.ofSeconds(1));
+        return new WebhookDeliveryLane(1L, settings, circuitBreaker);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
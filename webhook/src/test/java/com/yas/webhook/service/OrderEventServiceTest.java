@@ -0,0 +1,60 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.enums.EventName;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderEventService Unit Tests")
+class OrderEventServiceTest {
+
+    private static final String SOURCE_KEY = "order-events-0@42";
+
+    private final JsonNode orderEvent = new ObjectMapper().createObjectNode().put("type", "ORDER_CREATED");
+
+    @Mock
+    private WebhookSubscriptionRegistry webhookSubscriptionRegistry;
+
+    @Mock
+    private WebhookEventNotificationRepository webhookEventNotificationRepository;
+
+    @InjectMocks
+    private OrderEventService orderEventService;
+
+    @Test
+    @DisplayName("Should persist the notifications of a redelivered record only for the webhooks not notified yet")
+    void onOrderEvent_whenRecordIsRedelivered_thenNotifiedWebhooksAreSkipped() {
+        // Given
+        when(webhookSubscriptionRegistry.getSubscriptions(EventName.ON_ORDER_CREATED)).thenReturn(List.of(
+            new WebhookSubscriptionRegistry.Subscription(10L, 1L, "http://localhost/hook-1", "secret"),
+            new WebhookSubscriptionRegistry.Subscription(20L, 2L, "http://localhost/hook-2", "secret")));
+        when(webhookEventNotificationRepository.existsByWebhookEventIdAndSourceKey(10L, SOURCE_KEY))
+            .thenReturn(true);
+        when(webhookEventNotificationRepository.existsByWebhookEventIdAndSourceKey(20L, SOURCE_KEY))
+            .thenReturn(false);
+        ArgumentCaptor<WebhookEventNotification> notificationCaptor =
+            ArgumentCaptor.forClass(WebhookEventNotification.class);
+
+        // When
+        orderEventService.onOrderEvent(orderEvent, SOURCE_KEY);
+
+        // Then
+        verify(webhookEventNotificationRepository).save(notificationCaptor.capture());
+        assertThat(notificationCaptor.getValue().getWebhookEventId()).isEqualTo(20L);
+        assertThat(notificationCaptor.getValue().getSourceKey()).isEqualTo(SOURCE_KEY);
+    }
+}
@@ -0,0 +1,275 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.yas.webhook.config.WebhookDispatchConfig;
+import com.yas.webhook.config.WebhookLaneConfig;
+import com.yas.webhook.integration.api.WebhookApi;
+import com.yas.webhook.integration.api.WebhookDeliveryLanes;
+import com.yas.webhook.model.Webhook;
+import com.yas.webhook.model.WebhookEvent;
+import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.EventRepository;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.utils.HmacUtils;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for WebhookNotificationDispatcher, delivering to a local HTTP stub.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookNotificationDispatcher Unit Tests")
+class WebhookNotificationDispatcherTest {
+
+    private static final long WEBHOOK_ID = 1L;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_CONCURRENCY_PER_WEBHOOK = 2;
+
+    @Mock
+    private WebhookEventNotificationRepository webhookEventNotificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private HttpServer server;
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final AtomicInteger responseDelayMillis = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final Map<String, String> receivedSignatures = new ConcurrentHashMap<>();
+
+    private WebhookNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/hook", exchange -> {
+            int current = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(current, Math::max);
+            try {
+                String body = new String(exchange.getRequestBody().readAllBytes());
+                String signature = exchange.getRequestHeaders().getFirst(WebhookApi.X_HUB_SIGNATURE_256);
+                receivedSignatures.put(body, signature == null ? "" : signature);
+                Thread.sleep(responseDelayMillis.get());
+                exchange.sendResponseHeaders(responseStatus.get(), -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentRequests.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        WebhookDispatchConfig dispatchConfig = new WebhookDispatchConfig(
+            10, 16, MAX_ATTEMPTS, Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(5),
+            Duration.ofSeconds(1)
+        );
+        WebhookLaneConfig laneConfig = new WebhookLaneConfig(
+            MAX_CONCURRENCY_PER_WEBHOOK, 16, Duration.ofSeconds(1), Duration.ofSeconds(5), "default", Map.of()
+        );
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new WebhookNotificationDispatcher(
+            webhookEventNotificationRepository,
+            new WebhookApi(new WebhookDeliveryLanes(laneConfig, CircuitBreakerRegistry.ofDefaults(), meterRegistry)),
+            new WebhookSubscriptionRegistry(eventRepository, Duration.ofMinutes(1)),
+            new ObjectMapper(),
+            dispatchConfig,
+            transactionManager,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should deliver a signed notification and mark it as notified")
+    void dispatchDueNotifications_whenSubscriberAccepts_thenNotificationIsNotified() {
+        // Given
+        WebhookEventNotification notification = notification(1L, 0);
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(List.of(notification));
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000)).updateDeliveryState(
+            eq(1L), eq(NotificationStatus.NOTIFIED), eq(1), any(), isNull());
+        assertThat(receivedSignatures.get(notification.getPayload())).isNotEmpty();
+        assertThat(notification.getNextAttemptOn()).isAfter(ZonedDateTime.now().plusMinutes(4));
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry with a backoff when the subscriber fails")
+    void dispatchDueNotifications_whenSubscriberFails_thenRetryIsScheduled() {
+        // Given
+        responseStatus.set(500);
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(List.of(notification(1L, 0)));
+        ArgumentCaptor<ZonedDateTime> nextAttemptOn = ArgumentCaptor.forClass(ZonedDateTime.class);
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000)).updateDeliveryState(
+            eq(1L), eq(NotificationStatus.NOTIFYING), eq(1), nextAttemptOn.capture(), any());
+        assertThat(nextAttemptOn.getValue()).isAfter(ZonedDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should mark the notification as failed after the last attempt")
+    void dispatchDueNotifications_whenLastAttemptFails_thenNotificationIsFailed() {
+        // Given
+        responseStatus.set(503);
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(List.of(notification(1L, MAX_ATTEMPTS - 1)));
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000)).updateDeliveryState(
+            eq(1L), eq(NotificationStatus.FAILED), eq(MAX_ATTEMPTS), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should limit the deliveries in progress to the same webhook")
+    void dispatchDueNotifications_whenManyNotifications_thenConcurrencyPerWebhookIsLimited() {
+        // Given
+        responseDelayMillis.set(200);
+        List<WebhookEventNotification> notifications = LongStream.rangeClosed(1, 6)
+            .mapToObj(id -> notification(id, 0))
+            .toList();
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(notifications);
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000).times(6)).updateDeliveryState(
+            anyLong(), eq(NotificationStatus.NOTIFIED), anyInt(), any(), isNull());
+        verify(webhookEventNotificationRepository, times(6)).updateDeliveryState(
+            anyLong(), any(), anyInt(), any(), any());
+        assertThat(maxConcurrentRequests.get()).isEqualTo(MAX_CONCURRENCY_PER_WEBHOOK);
+    }
+
+    @Test
+    @DisplayName("Should deliver a full batch as one signed array, with the coalesced payloads")
+    void dispatchDueNotifications_whenWebhookBatches_thenBatchIsDeliveredOnce() throws Exception {
+        // Given
+        List<WebhookEventNotification> notifications = List.of(
+            batchNotification(1L, "product:1"), batchNotification(2L, "product:2"), batchNotification(3L, "product:1"),
+            batchNotification(4L, "product:3")
+        );
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(notifications);
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000).times(4)).updateDeliveryState(
+            anyLong(), eq(NotificationStatus.NOTIFIED), eq(1), any(), isNull());
+        assertThat(receivedSignatures).hasSize(1);
+        Map.Entry<String, String> request = receivedSignatures.entrySet().iterator().next();
+        JsonNode body = new ObjectMapper().readTree(request.getKey());
+        assertThat(body.findValuesAsText("id")).containsExactly("3", "2", "4");
+        assertThat(request.getValue()).isEqualTo(HmacUtils.hash(request.getKey(), "secret"));
+    }
+
+    @Test
+    @DisplayName("Should keep the payload of the newest notification when a retried older one is claimed after it")
+    void dispatchDueNotifications_whenRetriedOlderNotificationIsClaimedLast_thenNewestPayloadIsDelivered()
+        throws Exception {
+        // Given
+        ZonedDateTime now = ZonedDateTime.now();
+        WebhookEventNotification fresh = batchNotification(5L, "product:1");
+        fresh.setCreatedOn(now);
+        WebhookEventNotification retried = batchNotification(1L, "product:1");
+        retried.setCreatedOn(now.minusMinutes(10));
+        retried.setAttempts(1);
+        when(webhookEventNotificationRepository.findDueForUpdate(eq(NotificationStatus.NOTIFYING), any(), any()))
+            .thenReturn(List.of(
+                fresh, batchNotification(2L, "product:2"), retried, batchNotification(4L, "product:3")));
+
+        // When
+        dispatcher.dispatchDueNotifications();
+
+        // Then
+        verify(webhookEventNotificationRepository, timeout(5000).times(4)).updateDeliveryState(
+            anyLong(), eq(NotificationStatus.NOTIFIED), anyInt(), any(), isNull());
+        assertThat(receivedSignatures).hasSize(1);
+        JsonNode body = new ObjectMapper().readTree(receivedSignatures.keySet().iterator().next());
+        assertThat(body.findValuesAsText("id")).containsExactly("5", "2", "4");
+    }
+
+    private WebhookEventNotification batchNotification(long id, String coalescingKey) {
+        WebhookEventNotification notification = notification(id, 0);
+        notification.getWebhookEvent().getWebhook().setBatchMaxSize(3);
+        notification.getWebhookEvent().getWebhook().setBatchMaxDelayMillis(60_000L);
+        notification.setCoalescingKey(coalescingKey);
+        return notification;
+    }
+
+    private WebhookEventNotification notification(long id, int attempts) {
+        Webhook webhook = new Webhook();
+        webhook.setId(WEBHOOK_ID);
+        webhook.setPayloadUrl("http://localhost:%d/hook".formatted(server.getAddress().getPort()));
+        webhook.setSecret("secret");
+        WebhookEvent webhookEvent = new WebhookEvent();
+        webhookEvent.setWebhookId(WEBHOOK_ID);
+        webhookEvent.setWebhook(webhook);
+
+        WebhookEventNotification notification = new WebhookEventNotification();
+        notification.setId(id);
+        notification.setPayload("{\"id\":%d}".formatted(id));
+        notification.setAttempts(attempts);
+        notification.setNotificationStatus(NotificationStatus.NOTIFYING);
+        notification.setWebhookEvent(webhookEvent);
+        return notification;
+    }
+}
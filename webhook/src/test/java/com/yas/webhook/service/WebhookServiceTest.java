@@ -0,0 +1,98 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.webhook.config.WebhookDispatchConfig;
+import com.yas.webhook.integration.api.WebhookDeliveryLanes;
+import com.yas.webhook.model.Webhook;
+import com.yas.webhook.model.mapper.WebhookMapper;
+import com.yas.webhook.model.viewmodel.webhook.WebhookPostVm;
+import com.yas.webhook.repository.EventRepository;
+import com.yas.webhook.repository.WebhookEventRepository;
+import com.yas.webhook.repository.WebhookRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookService Unit Tests")
+class WebhookServiceTest {
+
+    @Mock
+    private WebhookRepository webhookRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private WebhookEventRepository webhookEventRepository;
+
+    @Mock
+    private WebhookMapper webhookMapper;
+
+    @Mock
+    private WebhookDeliveryLanes webhookDeliveryLanes;
+
+    @Mock
+    private WebhookSubscriptionRegistry webhookSubscriptionRegistry;
+
+    private WebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        WebhookDispatchConfig dispatchConfig = new WebhookDispatchConfig(
+            10, 16, 3, Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofSeconds(1)
+        );
+        webhookService = new WebhookService(webhookRepository, eventRepository, webhookEventRepository,
+            webhookMapper, webhookDeliveryLanes, webhookSubscriptionRegistry, dispatchConfig);
+    }
+
+    @Test
+    @DisplayName("Should reject a batch delay the lease of the buffered notifications could expire before")
+    void create_whenBatchMaxDelayReachesHalfOfLease_thenBadRequestIsThrown() {
+        // Given
+        WebhookPostVm webhookPostVm = webhookPostVm(Duration.ofSeconds(150).toMillis());
+
+        // When
+        BadRequestException exception =
+            assertThrows(BadRequestException.class, () -> webhookService.create(webhookPostVm));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("Batch max delay must be below 150000 milliseconds");
+        verifyNoInteractions(webhookRepository);
+    }
+
+    @Test
+    @DisplayName("Should create a webhook with a batch delay below half of the lease")
+    void create_whenBatchMaxDelayIsBelowHalfOfLease_thenWebhookIsSaved() {
+        // Given
+        WebhookPostVm webhookPostVm = webhookPostVm(Duration.ofSeconds(30).toMillis());
+        Webhook webhook = new Webhook();
+        when(webhookMapper.toCreatedWebhook(webhookPostVm)).thenReturn(webhook);
+        when(webhookRepository.save(webhook)).thenReturn(webhook);
+
+        // When
+        webhookService.create(webhookPostVm);
+
+        // Then
+        verify(webhookRepository).save(any(Webhook.class));
+    }
+
+    private static WebhookPostVm webhookPostVm(long batchMaxDelayMillis) {
+        WebhookPostVm webhookPostVm = new WebhookPostVm();
+        webhookPostVm.setPayloadUrl("http://localhost/hook");
+        webhookPostVm.setBatchMaxSize(10);
+        webhookPostVm.setBatchMaxDelayMillis(batchMaxDelayMillis);
+        return webhookPostVm;
+    }
+}
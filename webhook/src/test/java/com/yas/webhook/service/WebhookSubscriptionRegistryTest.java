@@ -0,0 +1,106 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.webhook.model.Event;
+import com.yas.webhook.model.Webhook;
+import com.yas.webhook.model.WebhookEvent;
+import com.yas.webhook.model.enums.EventName;
+import com.yas.webhook.repository.EventRepository;
+import com.yas.webhook.utils.HmacUtils;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookSubscriptionRegistry Unit Tests")
+class WebhookSubscriptionRegistryTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private WebhookSubscriptionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new WebhookSubscriptionRegistry(eventRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should load the subscriptions once until they are invalidated")
+    void getSubscriptions_whenCalledTwice_thenSubscriptionsAreLoadedOnce() {
+        // Given
+        when(eventRepository.findAll()).thenReturn(List.of(event(EventName.ON_ORDER_CREATED)));
+
+        // When
+        List<WebhookSubscriptionRegistry.Subscription> subscriptions =
+            registry.getSubscriptions(EventName.ON_ORDER_CREATED);
+        registry.getSubscriptions(EventName.ON_ORDER_CREATED);
+
+        // Then
+        assertThat(subscriptions).containsExactly(
+            new WebhookSubscriptionRegistry.Subscription(10L, 1L, "http://localhost/hook", "secret"));
+        verify(eventRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should load the subscriptions again after an invalidation")
+    void getSubscriptions_whenInvalidated_thenSubscriptionsAreReloaded() {
+        // Given
+        when(eventRepository.findAll()).thenReturn(List.of(event(EventName.ON_ORDER_CREATED)));
+        registry.getSubscriptions(EventName.ON_ORDER_CREATED);
+
+        // When
+        registry.invalidate();
+        registry.getSubscriptions(EventName.ON_ORDER_CREATED);
+
+        // Then
+        verify(eventRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when the event does not exist")
+    void getSubscriptions_whenEventDoesNotExist_thenThrowNotFoundException() {
+        // Given
+        when(eventRepository.findAll()).thenReturn(List.of(event(EventName.ON_ORDER_CREATED)));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> registry.getSubscriptions(EventName.ON_PRODUCT_UPDATED));
+    }
+
+    @Test
+    @DisplayName("Should sign payloads like HmacUtils, with the cached Mac")
+    void sign_whenCalledRepeatedly_thenSignatureIsStable() throws Exception {
+        // When
+        String first = registry.sign("secret", "{\"id\":1}");
+        String second = registry.sign("secret", "{\"id\":1}");
+
+        // Then
+        assertThat(first).isEqualTo(HmacUtils.hash("{\"id\":1}", "secret")).isEqualTo(second);
+    }
+
+    private static Event event(EventName name) {
+        Webhook webhook = new Webhook();
+        webhook.setId(1L);
+        webhook.setPayloadUrl("http://localhost/hook");
+        webhook.setSecret("secret");
+        WebhookEvent webhookEvent = new WebhookEvent();
+        webhookEvent.setId(10L);
+        webhookEvent.setWebhookId(1L);
+        webhookEvent.setWebhook(webhook);
+        Event event = new Event();
+        event.setName(name);
+        event.setWebhookEvents(List.of(webhookEvent));
+        return event;
+    }
+}